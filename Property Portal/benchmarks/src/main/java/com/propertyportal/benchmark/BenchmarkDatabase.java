@@ -0,0 +1,81 @@
+package com.propertyportal.benchmark;
+
+import com.propertyportal.DatabaseConnection;
+import com.propertyportal.model.Property;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Loads synthetic data into the embedded benchmark database
+ */
+public final class BenchmarkDatabase {
+
+    private static final int BATCH_SIZE = 5_000;
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Recreate the Property table and fill it with the given rows
+     * @param properties Rows to insert, IDs included
+     */
+    public static void load(List<Property> properties) throws SQLException, IOException {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            try (Statement stmt = connection.createStatement()) {
+                for (String statement : readSchema().split(";")) {
+                    if (!statement.trim().isEmpty()) {
+                        stmt.execute(statement);
+                    }
+                }
+            }
+
+            String sql = "INSERT INTO Property (id, title, description, address, neighborhood, region, propertyType, " +
+                        "listingDate, currentPrice, status, soldDate, daysOnMarket, createdAt, updatedAt) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                int pending = 0;
+                for (Property p : properties) {
+                    stmt.setInt(1, p.getId());
+                    stmt.setString(2, p.getTitle());
+                    stmt.setString(3, p.getDescription());
+                    stmt.setString(4, p.getAddress());
+                    stmt.setString(5, p.getNeighborhood());
+                    stmt.setString(6, p.getRegion());
+                    stmt.setString(7, p.getPropertyType().getValue());
+                    stmt.setTimestamp(8, Timestamp.valueOf(p.getListingDate()));
+                    stmt.setLong(9, p.getCurrentPrice());
+                    stmt.setString(10, p.getStatus().getValue());
+                    stmt.setTimestamp(11, p.getSoldDate() != null ? Timestamp.valueOf(p.getSoldDate()) : null);
+                    stmt.setInt(12, p.getDaysOnMarket());
+                    stmt.setTimestamp(13, Timestamp.valueOf(p.getCreatedAt()));
+                    stmt.setTimestamp(14, Timestamp.valueOf(p.getUpdatedAt()));
+                    stmt.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        stmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                }
+            }
+            connection.commit();
+        }
+    }
+
+    private static String readSchema() throws IOException {
+        try (InputStream input = BenchmarkDatabase.class.getClassLoader().getResourceAsStream("benchmark-schema.sql")) {
+            if (input == null) {
+                throw new IOException("benchmark-schema.sql not found in resources");
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.propertyportal.benchmark;
+
+import com.propertyportal.model.Property;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of decoding enum columns as they arrive from the driver
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumParsingBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private String[] typeValues;
+    private String[] statusValues;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        Property.PropertyType[] types = Property.PropertyType.values();
+        Property.PropertyStatus[] statuses = Property.PropertyStatus.values();
+        typeValues = new String[VALUES];
+        statusValues = new String[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            // Fresh String instances, as a driver would hand back
+            typeValues[i] = new String(types[random.nextInt(types.length)].getValue());
+            statusValues[i] = new String(statuses[random.nextInt(statuses.length)].getValue());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void propertyTypeFromString(Blackhole bh) {
+        for (String value : typeValues) {
+            bh.consume(Property.PropertyType.fromString(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void propertyStatusFromString(Blackhole bh) {
+        for (String value : statusValues) {
+            bh.consume(Property.PropertyStatus.fromString(value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void propertyTypeLinearScan(Blackhole bh) {
+        for (String value : typeValues) {
+            bh.consume(RowMappingBenchmark.scan(Property.PropertyType.values(), Property.PropertyType::getValue, value));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void propertyStatusLinearScan(Blackhole bh) {
+        for (String value : statusValues) {
+            bh.consume(RowMappingBenchmark.scan(Property.PropertyStatus.values(), Property.PropertyStatus::getValue, value));
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.propertyportal.benchmark;
+
+import com.propertyportal.DatabaseConnection;
+import com.propertyportal.dao.ResultSetMappers;
+import com.propertyportal.dao.RowMapper;
+import com.propertyportal.model.Property;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Per-row cost of ResultSet-to-Property mapping, isolated from query execution
+ * by replaying a scrollable result set over the embedded database.
+ * legacyByName is the original by-label mapping with Timestamp conversion and
+ * linear enum scans, kept as the baseline for the ResultSetMappers mapper.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private Connection connection;
+    private Statement statement;
+    private ResultSet resultSet;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkDatabase.load(SyntheticData.properties(ROWS));
+        connection = DatabaseConnection.getConnection();
+        statement = connection.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        resultSet = statement.executeQuery("SELECT * FROM Property ORDER BY id");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        resultSet.close();
+        statement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void legacyByName(Blackhole bh) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            bh.consume(mapByName(resultSet));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void columnIndex(Blackhole bh) throws SQLException {
+        resultSet.beforeFirst();
+        RowMapper<Property> mapper = ResultSetMappers.property(resultSet);
+        while (resultSet.next()) {
+            bh.consume(mapper.map(resultSet));
+        }
+    }
+
+    private static Property mapByName(ResultSet rs) throws SQLException {
+        Property property = new Property();
+        property.setId(rs.getInt("id"));
+        property.setTitle(rs.getString("title"));
+        property.setDescription(rs.getString("description"));
+        property.setAddress(rs.getString("address"));
+        property.setNeighborhood(rs.getString("neighborhood"));
+        property.setRegion(rs.getString("region"));
+        property.setPropertyType(scan(Property.PropertyType.values(), Property.PropertyType::getValue, rs.getString("propertyType")));
+        property.setCurrentPrice(rs.getLong("currentPrice"));
+        property.setStatus(scan(Property.PropertyStatus.values(), Property.PropertyStatus::getValue, rs.getString("status")));
+        property.setDaysOnMarket(rs.getInt("daysOnMarket"));
+
+        Timestamp listingDate = rs.getTimestamp("listingDate");
+        if (listingDate != null) {
+            property.setListingDate(listingDate.toLocalDateTime());
+        }
+
+        Timestamp soldDate = rs.getTimestamp("soldDate");
+        if (soldDate != null) {
+            property.setSoldDate(soldDate.toLocalDateTime());
+        }
+
+        Timestamp createdAt = rs.getTimestamp("createdAt");
+        if (createdAt != null) {
+            property.setCreatedAt(createdAt.toLocalDateTime());
+        }
+
+        Timestamp updatedAt = rs.getTimestamp("updatedAt");
+        if (updatedAt != null) {
+            property.setUpdatedAt(updatedAt.toLocalDateTime());
+        }
+        return property;
+    }
+
+    /**
+     * The enums' original fromString: a case-insensitive scan over values()
+     */
+    static <E extends Enum<E>> E scan(E[] values, Function<E, String> valueOf, String value) {
+        for (E e : values) {
+            if (valueOf.apply(e).equalsIgnoreCase(value)) {
+                return e;
+            }
+        }
+        throw new IllegalArgumentException("Unknown value: " + value);
+    }
+}
+
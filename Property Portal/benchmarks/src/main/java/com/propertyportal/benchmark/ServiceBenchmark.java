@@ -0,0 +1,132 @@
+package com.propertyportal.benchmark;
+
+import com.propertyportal.DatabaseConnection;
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.model.Property;
+import com.propertyportal.service.PropertyPortalService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PropertyPortalService analytics and filter paths against an embedded
+ * database. The legacy* methods replay the original implementations
+ * (full findAll()/findActiveListings() load, then stream passes) so the
+ * two can be compared on the same data. The sql* methods run the
+ * database aggregates the analytics used before the in-memory snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx6g" })
+public class ServiceBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int rows;
+
+    private PropertyPortalService service;
+    private PropertyDAO propertyDAO;
+    private String neighborhood;
+    private String region;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchmarkDatabase.load(SyntheticData.properties(rows));
+        // Every write goes through this service, so the change poller would only add background load
+        service = new PropertyPortalService(null, false);
+        propertyDAO = new PropertyDAO();
+        neighborhood = SyntheticData.NEIGHBORHOODS[0].toLowerCase();
+        region = SyntheticData.REGIONS[0];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown(Duration.ofSeconds(10));
+        DatabaseConnection.shutdown();
+    }
+
+    @Benchmark
+    public List<Property> activeListingsByFilters() {
+        return service.getActiveListingsByFilters(neighborhood, Property.PropertyType.CONDO);
+    }
+
+    @Benchmark
+    public PropertyDAO.PropertyStatistics priceTrendAnalysis() {
+        return service.getPriceTrendAnalysis(region);
+    }
+
+    @Benchmark
+    public double averageTimeOnMarket() {
+        return service.getAverageTimeOnMarket();
+    }
+
+    @Benchmark
+    public PropertyDAO.PropertyStatistics sqlPriceTrendAnalysis() {
+        return propertyDAO.getStatisticsByRegion(region);
+    }
+
+    @Benchmark
+    public double sqlAverageTimeOnMarket() {
+        PropertyDAO.TimeOnMarketStatistics stats = propertyDAO.getTimeOnMarketStatistics();
+        return stats.getAverageDays();
+    }
+
+    @Benchmark
+    public List<Property> legacyActiveListingsByFilters() {
+        List<Property> activeListings = propertyDAO.findActiveListings();
+        activeListings = activeListings.stream()
+                .filter(p -> p.getNeighborhood().equalsIgnoreCase(neighborhood))
+                .toList();
+        return activeListings.stream()
+                .filter(p -> p.getPropertyType() == Property.PropertyType.CONDO)
+                .toList();
+    }
+
+    @Benchmark
+    public PropertyDAO.PropertyStatistics legacyPriceTrendAnalysis() {
+        List<Property> regionProperties = propertyDAO.findAll().stream()
+                .filter(p -> p.getRegion().equalsIgnoreCase(region))
+                .toList();
+        if (regionProperties.isEmpty()) {
+            return new PropertyDAO.PropertyStatistics(0, 0, 0, 0, 0, 0, 0);
+        }
+        long totalPrice = regionProperties.stream().mapToLong(Property::getCurrentPrice).sum();
+        long avgPrice = totalPrice / regionProperties.size();
+        long minPrice = regionProperties.stream().mapToLong(Property::getCurrentPrice).min().orElse(0);
+        long maxPrice = regionProperties.stream().mapToLong(Property::getCurrentPrice).max().orElse(0);
+        int available = (int) regionProperties.stream().filter(p -> p.getStatus() == Property.PropertyStatus.AVAILABLE).count();
+        int underOffer = (int) regionProperties.stream().filter(p -> p.getStatus() == Property.PropertyStatus.UNDER_OFFER).count();
+        int sold = (int) regionProperties.stream().filter(p -> p.getStatus() == Property.PropertyStatus.SOLD).count();
+        return new PropertyDAO.PropertyStatistics(regionProperties.size(), available, underOffer, sold, avgPrice, minPrice, maxPrice);
+    }
+
+    @Benchmark
+    public double legacyAverageTimeOnMarket() {
+        List<Property> soldProperties = propertyDAO.findAll().stream()
+                .filter(p -> p.getStatus() == Property.PropertyStatus.SOLD && p.getSoldDate() != null)
+                .toList();
+        if (soldProperties.isEmpty()) {
+            return 0.0;
+        }
+        long totalDays = soldProperties.stream()
+                .mapToLong(p -> Duration.between(p.getListingDate(), p.getSoldDate()).toDays())
+                .sum();
+        return (double) totalDays / soldProperties.size();
+    }
+}
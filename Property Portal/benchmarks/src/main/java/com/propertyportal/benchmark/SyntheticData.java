@@ -0,0 +1,69 @@
+package com.propertyportal.benchmark;
+
+import com.propertyportal.model.Property;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic Property rows for benchmarks
+ */
+public final class SyntheticData {
+
+    public static final String[] NEIGHBORHOODS = {
+        "Downtown", "Midtown", "Riverside", "Old Town", "Harbor", "Hillcrest",
+        "Lakeside", "Westend", "Northgate", "Southpark", "University", "Greenfield"
+    };
+
+    public static final String[] REGIONS = { "North", "South", "East", "West", "Central" };
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private SyntheticData() {}
+
+    /**
+     * Generate properties with a fixed seed so every run sees the same data
+     * @param count Number of properties
+     * @return Generated properties (IDs 1..count)
+     */
+    public static List<Property> properties(int count) {
+        Random random = new Random(42);
+        Property.PropertyType[] types = Property.PropertyType.values();
+        List<Property> properties = new ArrayList<>(count);
+
+        for (int i = 1; i <= count; i++) {
+            LocalDateTime listingDate = EPOCH.plusMinutes(random.nextInt(60 * 24 * 365 * 4));
+            Property.PropertyStatus status = status(random);
+            LocalDateTime soldDate = status == Property.PropertyStatus.SOLD
+                    ? listingDate.plusDays(1 + random.nextInt(365))
+                    : null;
+            properties.add(new Property(
+                i,
+                "Listing " + i,
+                "Synthetic description for listing " + i + ". Bright, spacious and close to transport.",
+                i + " Benchmark Street",
+                NEIGHBORHOODS[random.nextInt(NEIGHBORHOODS.length)],
+                REGIONS[random.nextInt(REGIONS.length)],
+                types[random.nextInt(types.length)],
+                listingDate,
+                50_000L + random.nextInt(2_000_000),
+                status,
+                soldDate,
+                0,
+                listingDate,
+                soldDate != null ? soldDate : listingDate
+            ));
+        }
+        return properties;
+    }
+
+    private static Property.PropertyStatus status(Random random) {
+        int roll = random.nextInt(10);
+        if (roll < 6) {
+            return Property.PropertyStatus.AVAILABLE;
+        }
+        return roll < 8 ? Property.PropertyStatus.UNDER_OFFER : Property.PropertyStatus.SOLD;
+    }
+}
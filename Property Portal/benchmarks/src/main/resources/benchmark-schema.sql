@@ -0,0 +1,39 @@
+-- Property and propertyTombstone tables as in PropertyPortal.sql, minus the MySQL-only FULLTEXT index
+drop table if exists propertyTombstone;
+drop table if exists Property;
+
+create table propertyTombstone (
+    id bigint auto_increment primary key,
+    propertyId int not null,
+    deletedAt datetime not null default current_timestamp
+);
+
+create table Property (
+	id int auto_increment primary key,
+    title varchar(100) not null,
+    description text not null,
+    address varchar(200) not null,
+    neighborhood varchar(100) not null,
+    region varchar(100) not null,
+    propertyType enum('apartment', 'house', 'condo', 'townhouse', 'land', 'commercial') not null,
+    listingDate datetime not null,
+    currentPrice bigint not null,
+    status enum('available', 'under_offer', 'sold') not null default 'available',
+    soldDate datetime null,
+    daysOnMarket int default 0,
+    createdAt datetime default current_timestamp,
+    updatedAt datetime default current_timestamp on update current_timestamp
+);
+
+create index idxPropertyStatus on Property(status);
+create index idxPropertyListingDate on Property(listingDate);
+create index idxPropertyNeighborhood on Property(neighborhood);
+create index idxPropertyRegion on Property(region);
+create index idxPropertyType on Property(propertyType);
+create index idxPropertySoldDate on Property(soldDate);
+create index idxPropertyStatusListingDate on Property(status, listingDate);
+create index idxPropertyNeighborhoodStatus on Property(neighborhood, status);
+create index idxPropertyRegionType on Property(region, propertyType);
+create index idxPropertyPrice on Property(currentPrice);
+create index idxPropertyUpdatedAt on Property(updatedAt);
+create index idxPropertyTombstoneDeletedAt on propertyTombstone(deletedAt, id)
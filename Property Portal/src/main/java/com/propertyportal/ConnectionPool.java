@@ -0,0 +1,580 @@
+package com.propertyportal;
+
+import com.propertyportal.metrics.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool.
+ * Connections handed out by {@link #borrow()} are proxies whose close() returns
+ * the physical connection to the pool instead of closing it. Each physical
+ * connection keeps its own {@link StatementCache} of prepared statements.
+ * A borrower that changes autoCommit, readOnly or the isolation level gets
+ * them reset to the pool defaults when the connection comes back.
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final Properties connectionProperties;
+    private final PoolConfig config;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private final SlowQueryLog slowQueryLog;
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong acquireTimeouts = new AtomicLong();
+    private final AtomicLong totalAcquireNanos = new AtomicLong();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsDestroyed = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    public ConnectionPool(String url, String username, String password, PoolConfig config) {
+        this.url = url;
+        this.config = config;
+        this.connectionProperties = new Properties();
+        this.connectionProperties.setProperty("user", username);
+        this.connectionProperties.setProperty("password", password);
+        if (config.getStatementCacheSize() > 0) {
+            // Cached statements only pay off if the driver holds server-side handles
+            this.connectionProperties.setProperty("useServerPrepStmts", "true");
+        }
+        // Lets the driver send a JDBC batch as multi-row INSERTs
+        this.connectionProperties.setProperty("rewriteBatchedStatements", String.valueOf(config.isRewriteBatchedStatements()));
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.slowQueryLog = config.getSlowQueryThresholdMillis() >= 0
+                ? new SlowQueryLog(this, config.getSlowQueryThresholdMillis(), config.getSlowQuerySampleRate(),
+                        config.isSlowQueryExplain())
+                : null;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "property-portal-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        fillToMinimum();
+        long period = config.getHousekeepingIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the pool, waiting up to the configured acquire timeout
+     * @return Pooled connection; closing it returns it to the pool
+     * @throws SQLException if no connection could be acquired in time
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                acquireTimeouts.incrementAndGet();
+                throw new SQLTransientConnectionException("Timed out after " + config.getAcquireTimeoutMillis() +
+                        "ms waiting for a connection (active=" + borrowed.size() + ", max=" + config.getMaxSize() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdleConnection();
+            if (pooled == null) {
+                pooled = createConnection();
+            }
+            Connection handle = pooled.lease(config.getLeakDetectionThresholdMillis() > 0);
+            borrowed.add(pooled);
+            long acquireNanos = System.nanoTime() - start;
+            recordAcquire(acquireNanos);
+            Metrics.recordConnectionAcquire(acquireNanos);
+            return handle;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Close all idle connections and stop the housekeeper.
+     * Borrowed connections are closed when they are returned.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        if (slowQueryLog != null) {
+            slowQueryLog.shutdown();
+        }
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Get a snapshot of pool metrics
+     * @return Pool statistics
+     */
+    public PoolStats getStats() {
+        long acquires = acquireCount.get();
+        return new PoolStats(
+            totalConnections.get(),
+            idle.size(),
+            borrowed.size(),
+            permits.getQueueLength(),
+            acquires,
+            acquireTimeouts.get(),
+            acquires == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalAcquireNanos.get() / acquires),
+            TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos.get()),
+            connectionsCreated.get(),
+            connectionsDestroyed.get(),
+            validationFailures.get(),
+            leaksDetected.get(),
+            statementCounters.hits.get(),
+            statementCounters.misses.get(),
+            statementCounters.evictions.get()
+        );
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * @return Slow-query log, or null if db.slowQuery.thresholdMillis is negative
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * Return a connection to the pool; called from the proxy's close()
+     */
+    void release(PooledConnection pooled) {
+        if (!borrowed.remove(pooled)) {
+            return;
+        }
+        try {
+            Connection physical = pooled.physical;
+            if (!physical.getAutoCommit()) {
+                // Discard whatever the borrower did not commit, like a real close would
+                physical.rollback();
+            }
+            if (pooled.sessionChanged) {
+                physical.setAutoCommit(false);
+                physical.setReadOnly(false);
+                physical.setTransactionIsolation(pooled.defaultIsolation);
+                pooled.sessionChanged = false;
+            }
+            if (pooled.statementCache != null) {
+                pooled.statementCache.releaseAll();
+            }
+            pooled.lastUsedMillis = System.currentTimeMillis();
+            if (closed) {
+                destroy(pooled);
+            } else {
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding broken pooled connection: " + e.getMessage());
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledConnection takeValidIdleConnection() {
+        PooledConnection pooled;
+        // Most recently used first, so the tail of the deque can age out
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            validationFailures.incrementAndGet();
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long idleFor = System.currentTimeMillis() - pooled.lastUsedMillis;
+        if (idleFor < config.getValidationBypassMillis()) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, connectionProperties);
+        physical.setAutoCommit(false); // Enable transaction management
+        int defaultIsolation;
+        try {
+            defaultIsolation = physical.getTransactionIsolation();
+        } catch (SQLException e) {
+            physical.close();
+            throw e;
+        }
+        totalConnections.incrementAndGet();
+        connectionsCreated.incrementAndGet();
+        return new PooledConnection(this, physical, defaultIsolation);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        connectionsDestroyed.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void recordAcquire(long nanos) {
+        acquireCount.incrementAndGet();
+        totalAcquireNanos.addAndGet(nanos);
+        maxAcquireNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void housekeep() {
+        try {
+            evictIdleConnections();
+            detectLeaks();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - config.getIdleTimeoutMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && totalConnections.get() > config.getMinSize()) {
+            PooledConnection pooled = it.next();
+            if (pooled.lastUsedMillis < cutoff && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long threshold = config.getLeakDetectionThresholdMillis();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedAtMillis > threshold) {
+                pooled.leakReported = true;
+                leaksDetected.incrementAndGet();
+                System.err.println("Possible connection leak: connection held for " + (now - pooled.borrowedAtMillis) + "ms");
+                if (pooled.borrowSite != null) {
+                    pooled.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < config.getMinSize()) {
+            try {
+                PooledConnection pooled = createConnection();
+                pooled.lastUsedMillis = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                System.err.println("Failed to pre-fill connection pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Physical connection plus pool bookkeeping
+     */
+    static class PooledConnection {
+        final ConnectionPool pool;
+        final Connection physical;
+        final StatementCache statementCache;
+        final int defaultIsolation;
+        // Set once a borrower changes autoCommit, readOnly or isolation; release() resets them
+        volatile boolean sessionChanged;
+        volatile long lastUsedMillis;
+        volatile long borrowedAtMillis;
+        volatile Throwable borrowSite;
+        volatile boolean leakReported;
+
+        PooledConnection(ConnectionPool pool, Connection physical, int defaultIsolation) {
+            this.pool = pool;
+            this.physical = physical;
+            this.defaultIsolation = defaultIsolation;
+            int cacheSize = pool.config.getStatementCacheSize();
+            this.statementCache = cacheSize > 0 ? new StatementCache(physical, cacheSize, pool.statementCounters) : null;
+        }
+
+        /**
+         * Mark the connection borrowed and hand out a fresh proxy, so a stale
+         * reference from an earlier borrower cannot close it again
+         */
+        Connection lease(boolean captureSite) {
+            borrowedAtMillis = System.currentTimeMillis();
+            borrowSite = captureSite ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, new Handle());
+        }
+
+        private class Handle implements InvocationHandler {
+            private volatile boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed) {
+                            closed = true;
+                            pool.release(PooledConnection.this);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed || physical.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "PooledConnection[" + physical + "]";
+                    default:
+                        break;
+                }
+                if (closed) {
+                    throw new SQLException("Connection has been returned to the pool");
+                }
+                String name = method.getName();
+                if (name.equals("setAutoCommit") || name.equals("setReadOnly") || name.equals("setTransactionIsolation")) {
+                    sessionChanged = true;
+                }
+                if (name.equals("prepareStatement")) {
+                    PreparedStatement statement = prepare(method, args, (Connection) proxy);
+                    SlowQueryLog slowQueryLog = pool.slowQueryLog;
+                    return slowQueryLog != null ? slowQueryLog.sample(statement, (String) args[0]) : statement;
+                }
+                return invokePhysical(method, args);
+            }
+
+            private PreparedStatement prepare(Method method, Object[] args, Connection proxy) throws Throwable {
+                if (statementCache != null) {
+                    Class<?>[] params = method.getParameterTypes();
+                    if (params.length == 1) {
+                        return statementCache.prepare((String) args[0], PreparedStatement.NO_GENERATED_KEYS, proxy);
+                    }
+                    if (params.length == 2 && params[1] == int.class) {
+                        return statementCache.prepare((String) args[0], (Integer) args[1], proxy);
+                    }
+                }
+                return (PreparedStatement) invokePhysical(method, args);
+            }
+
+            private Object invokePhysical(Method method, Object[] args) throws Throwable {
+                try {
+                    return method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+
+    /**
+     * Pool sizing, timeout and slow-query settings, read from db.pool.* and db.slowQuery.* properties
+     */
+    public static class PoolConfig {
+        private final int minSize;
+        private final int maxSize;
+        private final long acquireTimeoutMillis;
+        private final long idleTimeoutMillis;
+        private final long leakDetectionThresholdMillis;
+        private final int validationTimeoutSeconds;
+        private final long validationBypassMillis;
+        private final long housekeepingIntervalMillis;
+        private final int statementCacheSize;
+        private final boolean rewriteBatchedStatements;
+        private final long slowQueryThresholdMillis;
+        private final double slowQuerySampleRate;
+        private final boolean slowQueryExplain;
+
+        public PoolConfig(int minSize, int maxSize, long acquireTimeoutMillis, long idleTimeoutMillis,
+                          long leakDetectionThresholdMillis, int validationTimeoutSeconds,
+                          long validationBypassMillis, long housekeepingIntervalMillis, int statementCacheSize,
+                          boolean rewriteBatchedStatements, long slowQueryThresholdMillis,
+                          double slowQuerySampleRate, boolean slowQueryExplain) {
+            if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+                throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+            }
+            this.minSize = minSize;
+            this.maxSize = maxSize;
+            this.acquireTimeoutMillis = acquireTimeoutMillis;
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+            this.validationBypassMillis = validationBypassMillis;
+            this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+            this.statementCacheSize = statementCacheSize;
+            this.rewriteBatchedStatements = rewriteBatchedStatements;
+            this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+            this.slowQuerySampleRate = Math.max(0.0, Math.min(1.0, slowQuerySampleRate));
+            this.slowQueryExplain = slowQueryExplain;
+        }
+
+        /**
+         * Build pool configuration from properties, falling back to defaults
+         * @param props Properties containing optional db.pool.* keys
+         * @return Pool configuration
+         */
+        public static PoolConfig fromProperties(Properties props) {
+            return new PoolConfig(
+                Integer.parseInt(props.getProperty("db.pool.minSize", "2")),
+                Integer.parseInt(props.getProperty("db.pool.maxSize", "10")),
+                Long.parseLong(props.getProperty("db.pool.acquireTimeoutMillis", "30000")),
+                Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis", "600000")),
+                Long.parseLong(props.getProperty("db.pool.leakDetectionThresholdMillis", "0")),
+                Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds", "5")),
+                Long.parseLong(props.getProperty("db.pool.validationBypassMillis", "500")),
+                Long.parseLong(props.getProperty("db.pool.housekeepingIntervalMillis", "30000")),
+                Integer.parseInt(props.getProperty("db.pool.statementCacheSize", "32")),
+                Boolean.parseBoolean(props.getProperty("db.rewriteBatchedStatements", "true")),
+                Long.parseLong(props.getProperty("db.slowQuery.thresholdMillis", "1000")),
+                Double.parseDouble(props.getProperty("db.slowQuery.sampleRate", "0.1")),
+                Boolean.parseBoolean(props.getProperty("db.slowQuery.explain", "true"))
+            );
+        }
+
+        public int getMinSize() { return minSize; }
+        public int getMaxSize() { return maxSize; }
+        public long getAcquireTimeoutMillis() { return acquireTimeoutMillis; }
+        public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+        public long getLeakDetectionThresholdMillis() { return leakDetectionThresholdMillis; }
+        public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+        public long getValidationBypassMillis() { return validationBypassMillis; }
+        public long getHousekeepingIntervalMillis() { return housekeepingIntervalMillis; }
+        public int getStatementCacheSize() { return statementCacheSize; }
+        public boolean isRewriteBatchedStatements() { return rewriteBatchedStatements; }
+        public long getSlowQueryThresholdMillis() { return slowQueryThresholdMillis; }
+        public double getSlowQuerySampleRate() { return slowQuerySampleRate; }
+        public boolean isSlowQueryExplain() { return slowQueryExplain; }
+    }
+
+    /**
+     * Pool statistics class
+     */
+    public static class PoolStats {
+        private final int totalConnections;
+        private final int idleConnections;
+        private final int activeConnections;
+        private final int pendingAcquires;
+        private final long acquireCount;
+        private final long acquireTimeouts;
+        private final long avgAcquireMicros;
+        private final long maxAcquireMicros;
+        private final long connectionsCreated;
+        private final long connectionsDestroyed;
+        private final long validationFailures;
+        private final long leaksDetected;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        public PoolStats(int totalConnections, int idleConnections, int activeConnections, int pendingAcquires,
+                         long acquireCount, long acquireTimeouts, long avgAcquireMicros, long maxAcquireMicros,
+                         long connectionsCreated, long connectionsDestroyed, long validationFailures, long leaksDetected,
+                         long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+            this.totalConnections = totalConnections;
+            this.idleConnections = idleConnections;
+            this.activeConnections = activeConnections;
+            this.pendingAcquires = pendingAcquires;
+            this.acquireCount = acquireCount;
+            this.acquireTimeouts = acquireTimeouts;
+            this.avgAcquireMicros = avgAcquireMicros;
+            this.maxAcquireMicros = maxAcquireMicros;
+            this.connectionsCreated = connectionsCreated;
+            this.connectionsDestroyed = connectionsDestroyed;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        public int getTotalConnections() { return totalConnections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getActiveConnections() { return activeConnections; }
+        public int getPendingAcquires() { return pendingAcquires; }
+        public long getAcquireCount() { return acquireCount; }
+        public long getAcquireTimeouts() { return acquireTimeouts; }
+        public long getAvgAcquireMicros() { return avgAcquireMicros; }
+        public long getMaxAcquireMicros() { return maxAcquireMicros; }
+        public long getConnectionsCreated() { return connectionsCreated; }
+        public long getConnectionsDestroyed() { return connectionsDestroyed; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getLeaksDetected() { return leaksDetected; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+        public long getStatementCacheEvictions() { return statementCacheEvictions; }
+        
+        public double getStatementCacheHitRatio() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0.0 : (double) statementCacheHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "PoolStats{" +
+                    "totalConnections=" + totalConnections +
+                    ", idleConnections=" + idleConnections +
+                    ", activeConnections=" + activeConnections +
+                    ", pendingAcquires=" + pendingAcquires +
+                    ", acquireCount=" + acquireCount +
+                    ", acquireTimeouts=" + acquireTimeouts +
+                    ", avgAcquireMicros=" + avgAcquireMicros +
+                    ", maxAcquireMicros=" + maxAcquireMicros +
+                    ", connectionsCreated=" + connectionsCreated +
+                    ", connectionsDestroyed=" + connectionsDestroyed +
+                    ", validationFailures=" + validationFailures +
+                    ", leaksDetected=" + leaksDetected +
+                    ", statementCacheHits=" + statementCacheHits +
+                    ", statementCacheMisses=" + statementCacheMisses +
+                    ", statementCacheEvictions=" + statementCacheEvictions +
+                    '}';
+        }
+    }
+}
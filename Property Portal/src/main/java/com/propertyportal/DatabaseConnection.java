@@ -14,6 +14,8 @@ public class DatabaseConnection {
     private static String url;
     private static String username;
     private static String password;
+    private static Properties config = new Properties();
+    private static volatile ConnectionPool pool;
     
     static {
         loadDatabaseConfig();
@@ -33,6 +35,7 @@ public class DatabaseConnection {
                 password = "";
             } else {
                 props.load(input);
+                config = props;
                 url = props.getProperty("db.url", "jdbc:mysql://localhost:3306/propertyPortal?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true");
                 username = props.getProperty("db.username", "root");
                 password = props.getProperty("db.password", "");
@@ -47,13 +50,12 @@ public class DatabaseConnection {
     }
     
     /**
-     * Get database connection
+     * Get database connection from the pool.
+     * Closing the returned connection hands it back to the pool.
      */
     public static Connection getConnection() throws SQLException {
         try {
-            Connection connection = DriverManager.getConnection(url, username, password);
-            connection.setAutoCommit(false); // Enable transaction management
-            return connection;
+            return getPool().borrow();
         } catch (SQLException e) {
             System.err.println("Failed to establish database connection: " + e.getMessage());
             throw e;
@@ -61,7 +63,43 @@ public class DatabaseConnection {
     }
     
     /**
-     * Close database connection
+     * Get the shared connection pool, creating it on first use
+     */
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(url, username, password, ConnectionPool.PoolConfig.fromProperties(config));
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Get connection pool statistics
+     */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        return getPool().getStats();
+    }
+    
+    /**
+     * Close the connection pool and all idle connections
+     */
+    public static void shutdown() {
+        synchronized (DatabaseConnection.class) {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        }
+    }
+    
+    /**
+     * Close database connection (returns pooled connections to the pool)
      */
     public static void closeConnection(Connection connection) {
         if (connection != null) {
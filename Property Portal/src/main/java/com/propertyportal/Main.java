@@ -22,6 +22,9 @@ public class Main {
         
         System.out.println("Database schema initialized successfully.");
         System.out.println("Property Portal system is ready for use.");
+        System.out.println("Connection pool: " + DatabaseConnection.getPoolStats());
         System.out.println("=== System Ready ===");
+        
+        DatabaseConnection.shutdown();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,418 @@
+package com.propertyportal;
+
+import com.propertyportal.metrics.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs prepared statements that run longer than a threshold.
+ * A sampled share of the statements prepared on pooled connections is
+ * wrapped in a proxy that records the bound parameters and times execution
+ * plus every ResultSet.next(), so the elapsed time covers fetching the
+ * result but not mapping it. A statement over the threshold is logged with
+ * its elapsed time, rows fetched, the calling operation and its parameters,
+ * with string and binary values replaced by their length since they carry
+ * names, messages and search terms. For SELECTs an EXPLAIN FORMAT=JSON is
+ * then captured on a background thread with its own connection, at most
+ * once a minute per statement, and attached to the logged entry.
+ */
+public class SlowQueryLog {
+
+    private static final int RECENT_CAPACITY = 100;
+    private static final int EXPLAIN_QUEUE_CAPACITY = 16;
+    private static final long EXPLAIN_REPEAT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int MAX_EXPLAINED_STATEMENTS = 1000;
+    private static final String EXPLAIN_PREFIX = "EXPLAIN FORMAT=JSON ";
+
+    private final ConnectionPool pool;
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final ThreadPoolExecutor explainer;
+    private final Map<String, Long> lastExplainMillis = new ConcurrentHashMap<>();
+    private final ArrayDeque<SlowQuery> recent = new ArrayDeque<>();
+
+    private final AtomicLong sampledStatements = new AtomicLong();
+    private final AtomicLong slowQueries = new AtomicLong();
+    private final AtomicLong explainsCaptured = new AtomicLong();
+    private final AtomicLong explainsFailed = new AtomicLong();
+    private final AtomicLong explainsDropped = new AtomicLong();
+
+    /**
+     * @param pool Pool that EXPLAIN statements borrow their connections from
+     * @param thresholdMillis Statements taking at least this long are logged
+     * @param sampleRate Share of prepared statements that are timed, between 0 and 1
+     * @param explain Whether to capture EXPLAIN FORMAT=JSON for slow SELECTs
+     */
+    SlowQueryLog(ConnectionPool pool, long thresholdMillis, double sampleRate, boolean explain) {
+        this.pool = pool;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.sampleRate = sampleRate;
+        if (explain) {
+            this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(EXPLAIN_QUEUE_CAPACITY), r -> {
+                        Thread thread = new Thread(r, "slow-query-explainer");
+                        thread.setDaemon(true);
+                        return thread;
+                    }, (task, executor) -> explainsDropped.incrementAndGet());
+        } else {
+            this.explainer = null;
+        }
+    }
+
+    /**
+     * Wrap a freshly prepared statement in a timing proxy if it is sampled
+     * @param statement Statement handed out by the pool
+     * @param sql SQL text it was prepared with
+     * @return The timing proxy, or the statement itself if it is not sampled
+     */
+    PreparedStatement sample(PreparedStatement statement, String sql) {
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return statement;
+        }
+        if (sql.regionMatches(true, 0, EXPLAIN_PREFIX, 0, EXPLAIN_PREFIX.length())) {
+            return statement;
+        }
+        sampledStatements.incrementAndGet();
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, new TimedStatement(statement, sql));
+    }
+
+    /**
+     * Stop capturing EXPLAIN output
+     */
+    void shutdown() {
+        if (explainer != null) {
+            explainer.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the most recent slow queries, oldest first
+     * @return Up to the last 100 slow queries
+     */
+    public List<SlowQuery> getRecentSlowQueries() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * Get slow-query log statistics
+     * @return Sampled statements, slow queries and EXPLAIN outcomes
+     */
+    public SlowQueryStats getStats() {
+        return new SlowQueryStats(
+            sampledStatements.get(),
+            slowQueries.get(),
+            explainsCaptured.get(),
+            explainsFailed.get(),
+            explainsDropped.get()
+        );
+    }
+
+    private void record(String sql, TreeMap<Integer, Object> parameters, long elapsedNanos, long rows, String operation) {
+        SlowQuery slowQuery = new SlowQuery(sql, redact(parameters), TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                rows, operation, LocalDateTime.now());
+        slowQueries.incrementAndGet();
+        synchronized (recent) {
+            if (recent.size() == RECENT_CAPACITY) {
+                recent.pollFirst();
+            }
+            recent.addLast(slowQuery);
+        }
+        System.err.println("Slow query: " + slowQuery);
+
+        if (explainer != null && isExplainDue(sql)) {
+            explainer.execute(() -> explain(slowQuery, parameters));
+        }
+    }
+
+    private boolean isExplainDue(String sql) {
+        if (!sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Long previous = lastExplainMillis.get(sql);
+        if (previous != null && now - previous < EXPLAIN_REPEAT_MILLIS) {
+            return false;
+        }
+        if (lastExplainMillis.size() >= MAX_EXPLAINED_STATEMENTS) {
+            lastExplainMillis.clear();
+        }
+        lastExplainMillis.put(sql, now);
+        return true;
+    }
+
+    private void explain(SlowQuery slowQuery, TreeMap<Integer, Object> parameters) {
+        // Three-argument prepareStatement keeps EXPLAIN variants out of the statement cache
+        try (Connection connection = pool.borrow();
+             PreparedStatement stmt = connection.prepareStatement(EXPLAIN_PREFIX + slowQuery.getSql(),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                stmt.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    slowQuery.plan = rs.getString(1);
+                    explainsCaptured.incrementAndGet();
+                    System.err.println("Slow query plan for " + slowQuery.getSql() + ": " + slowQuery.plan);
+                }
+            }
+        } catch (SQLException e) {
+            explainsFailed.incrementAndGet();
+            System.err.println("Error capturing EXPLAIN for slow query: " + e.getMessage());
+        }
+    }
+
+    private static String redact(TreeMap<Integer, Object> parameters) {
+        StringBuilder out = new StringBuilder("[");
+        for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            if (out.length() > 1) {
+                out.append(", ");
+            }
+            out.append(parameter.getKey()).append('=');
+            Object value = parameter.getValue();
+            if (value == null) {
+                out.append("NULL");
+            } else if (value instanceof CharSequence) {
+                out.append("<string, ").append(((CharSequence) value).length()).append(" chars>");
+            } else if (value instanceof byte[]) {
+                out.append("<binary, ").append(((byte[]) value).length).append(" bytes>");
+            } else if (value instanceof Number || value instanceof Boolean
+                    || value instanceof java.util.Date || value instanceof java.time.temporal.Temporal) {
+                out.append(value);
+            } else {
+                out.append('<').append(value.getClass().getSimpleName()).append('>');
+            }
+        }
+        return out.append(']').toString();
+    }
+
+    /**
+     * Times one sampled statement and records its bound parameters
+     */
+    private class TimedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final String sql;
+        private final TreeMap<Integer, Object> parameters = new TreeMap<>();
+        private String operation;
+        private long elapsedNanos;
+        private long rows;
+        private boolean pending;
+
+        TimedStatement(PreparedStatement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "executeQuery":
+                    start();
+                    ResultSet rs = (ResultSet) timed(method, args);
+                    return Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                            new Class<?>[] { ResultSet.class }, new TimedResultSet(rs));
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                    start();
+                    Object updated = timed(method, args);
+                    rows = ((Number) updated).longValue();
+                    finish();
+                    return updated;
+                case "executeBatch":
+                case "executeLargeBatch":
+                case "execute":
+                    start();
+                    Object result = timed(method, args);
+                    finish();
+                    return result;
+                case "clearParameters":
+                    parameters.clear();
+                    break;
+                case "close":
+                    finish();
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                    }
+                    break;
+            }
+            return invokeTarget(statement, method, args);
+        }
+
+        private void start() {
+            // A re-executed statement closes the previous execution's ResultSet
+            finish();
+            operation = Metrics.currentOperation();
+            pending = true;
+        }
+
+        private Object timed(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(statement, method, args);
+            } finally {
+                elapsedNanos += System.nanoTime() - start;
+            }
+        }
+
+        private void finish() {
+            if (pending && elapsedNanos >= thresholdNanos) {
+                record(sql, new TreeMap<>(parameters), elapsedNanos, rows, operation);
+            }
+            pending = false;
+            elapsedNanos = 0;
+            rows = 0;
+        }
+
+        /**
+         * Adds time spent in next() to the statement and counts rows
+         */
+        private class TimedResultSet implements InvocationHandler {
+            private final ResultSet rs;
+
+            TimedResultSet(ResultSet rs) {
+                this.rs = rs;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "next":
+                        long start = System.nanoTime();
+                        boolean hasRow = (Boolean) invokeTarget(rs, method, args);
+                        elapsedNanos += System.nanoTime() - start;
+                        if (hasRow) {
+                            rows++;
+                        }
+                        return hasRow;
+                    case "close":
+                        finish();
+                        break;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+                return invokeTarget(rs, method, args);
+            }
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * One logged slow statement
+     */
+    public static class SlowQuery {
+        private final String sql;
+        private final String parameters;
+        private final long elapsedMillis;
+        private final long rows;
+        private final String operation;
+        private final LocalDateTime loggedAt;
+        // Set by the explainer thread once the plan is captured
+        private volatile String plan;
+
+        public SlowQuery(String sql, String parameters, long elapsedMillis, long rows, String operation,
+                         LocalDateTime loggedAt) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.elapsedMillis = elapsedMillis;
+            this.rows = rows;
+            this.operation = operation;
+            this.loggedAt = loggedAt;
+        }
+
+        public String getSql() { return sql; }
+        public String getParameters() { return parameters; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public long getRows() { return rows; }
+        public String getOperation() { return operation; }
+        public LocalDateTime getLoggedAt() { return loggedAt; }
+        public String getPlan() { return plan; }
+
+        @Override
+        public String toString() {
+            return "SlowQuery{" +
+                    "elapsedMillis=" + elapsedMillis +
+                    ", rows=" + rows +
+                    ", operation=" + operation +
+                    ", sql='" + sql + '\'' +
+                    ", parameters=" + parameters +
+                    '}';
+        }
+    }
+
+    /**
+     * Slow-query log statistics class
+     */
+    public static class SlowQueryStats {
+        private final long sampledStatements;
+        private final long slowQueries;
+        private final long explainsCaptured;
+        private final long explainsFailed;
+        private final long explainsDropped;
+
+        public SlowQueryStats(long sampledStatements, long slowQueries, long explainsCaptured,
+                              long explainsFailed, long explainsDropped) {
+            this.sampledStatements = sampledStatements;
+            this.slowQueries = slowQueries;
+            this.explainsCaptured = explainsCaptured;
+            this.explainsFailed = explainsFailed;
+            this.explainsDropped = explainsDropped;
+        }
+
+        public long getSampledStatements() { return sampledStatements; }
+        public long getSlowQueries() { return slowQueries; }
+        public long getExplainsCaptured() { return explainsCaptured; }
+        public long getExplainsFailed() { return explainsFailed; }
+        public long getExplainsDropped() { return explainsDropped; }
+
+        @Override
+        public String toString() {
+            return "SlowQueryStats{" +
+                    "sampledStatements=" + sampledStatements +
+                    ", slowQueries=" + slowQueries +
+                    ", explainsCaptured=" + explainsCaptured +
+                    ", explainsFailed=" + explainsFailed +
+                    ", explainsDropped=" + explainsDropped +
+                    '}';
+        }
+    }
+}
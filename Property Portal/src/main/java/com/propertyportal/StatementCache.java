@@ -0,0 +1,223 @@
+package com.propertyportal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for a single pooled connection.
+ * Statements handed out are proxies; closing one closes its open result
+ * set, clears its parameters and restores the fetch size, max rows and
+ * query timeout it was prepared with, then keeps the underlying
+ * (server-side) statement open for the next caller preparing the same SQL
+ * on the same connection.
+ */
+class StatementCache {
+
+    private final Connection physical;
+    private final int maxSize;
+    private final Counters counters;
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    StatementCache(Connection physical, int maxSize, Counters counters) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize && !eldest.getValue().inUse) {
+                    counters.evictions.incrementAndGet();
+                    closeQuietly(eldest.getValue().statement);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Prepare a statement, reusing a cached one for the same SQL when it is free
+     * @param sql SQL text
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS or Statement.NO_GENERATED_KEYS
+     * @param owner Connection proxy reported by the statement's getConnection()
+     * @return Prepared statement proxy
+     */
+    synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys, Connection owner) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : "N:" + sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            counters.hits.incrementAndGet();
+            cached.inUse = true;
+            return cached.newProxy(owner);
+        }
+
+        counters.misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql, autoGeneratedKeys);
+        if (cached != null) {
+            // Same SQL already checked out on this connection (nested use); don't cache the second copy
+            return statement;
+        }
+        try {
+            cached = new CachedStatement(key, statement);
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            throw e;
+        }
+        cached.inUse = true;
+        statements.put(key, cached);
+        return cached.newProxy(owner);
+    }
+
+    /**
+     * Make every statement available again; called when the connection returns to the pool
+     */
+    synchronized void releaseAll() {
+        for (Iterator<CachedStatement> it = statements.values().iterator(); it.hasNext(); ) {
+            CachedStatement cached = it.next();
+            if (cached.inUse && !cached.reset()) {
+                it.remove();
+                closeQuietly(cached.statement);
+            }
+        }
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    private synchronized void checkIn(CachedStatement cached) {
+        if (!cached.reset() && statements.get(cached.key) == cached) {
+            // Settings in an unknown state; drop the statement rather than hand it out again
+            statements.remove(cached.key);
+            closeQuietly(cached.statement);
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hit/miss/eviction counters shared by all caches in a pool
+     */
+    static class Counters {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+    }
+
+    private class CachedStatement {
+        final String key;
+        final PreparedStatement statement;
+        // Settings as prepared; a borrower's streaming fetch size or limits must not leak to the next one
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+        boolean inUse;
+        private Handle current;
+
+        CachedStatement(String key, PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultQueryTimeout = statement.getQueryTimeout();
+        }
+
+        PreparedStatement newProxy(Connection owner) {
+            current = new Handle(this, owner);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, current);
+        }
+
+        /**
+         * @return false if the statement could not be reset and should not be reused
+         */
+        boolean reset() {
+            if (current != null) {
+                current.closed = true;
+                current = null;
+            }
+            inUse = false;
+            try {
+                ResultSet open = statement.getResultSet();
+                if (open != null) {
+                    open.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                // Max rows first: some drivers reject a fetch size above the current limit
+                if (statement.getMaxRows() != defaultMaxRows) {
+                    statement.setMaxRows(defaultMaxRows);
+                }
+                if (statement.getFetchSize() != defaultFetchSize) {
+                    statement.setFetchSize(defaultFetchSize);
+                }
+                if (statement.getQueryTimeout() != defaultQueryTimeout) {
+                    statement.setQueryTimeout(defaultQueryTimeout);
+                }
+                return true;
+            } catch (SQLException e) {
+                System.err.println("Error resetting cached statement: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    private class Handle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        volatile boolean closed;
+
+        Handle(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        checkIn(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has been closed");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.propertyportal.cache;
+
+import com.propertyportal.dao.PropertyChangeListener;
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.model.Property;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded read-through cache in front of {@link PropertyDAO#findById(int)}.
+ * Entries are evicted least-recently-used once the cache is full, and expire
+ * after a fixed time-to-live. The cache registers itself as a change listener
+ * on the DAO so every committed write invalidates exactly the affected ID.
+ */
+public class PropertyCache implements PropertyChangeListener {
+
+    private final PropertyDAO propertyDAO;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Integer, CacheEntry> entries;
+
+    // Bumped on every invalidation so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sizeEvictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+
+    public PropertyCache(PropertyDAO propertyDAO, int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.propertyDAO = propertyDAO;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CacheEntry> eldest) {
+                if (size() > PropertyCache.this.maxSize) {
+                    sizeEvictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        propertyDAO.addChangeListener(this);
+    }
+
+    /**
+     * Get property by ID, loading it from the database on a miss
+     * @param id Property ID
+     * @return Copy of the cached property if found
+     */
+    public Optional<Property> get(int id) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            CacheEntry entry = entries.get(id);
+            if (entry != null) {
+                if (now - entry.loadedAtNanos < ttlNanos) {
+                    hits.incrementAndGet();
+                    // Hand out copies so callers cannot mutate cached state
+                    return Optional.of(new Property(entry.property));
+                }
+                entries.remove(id);
+                expirations.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long generationBeforeLoad = generation.get();
+        long start = System.nanoTime();
+        Optional<Property> loaded = propertyDAO.findById(id);
+        long end = System.nanoTime();
+        loads.incrementAndGet();
+        totalLoadNanos.addAndGet(end - start);
+
+        if (loaded.isPresent()) {
+            synchronized (entries) {
+                if (generation.get() == generationBeforeLoad) {
+                    entries.put(id, new CacheEntry(new Property(loaded.get()), end));
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Get properties by ID, loading all misses from the database in one query
+     * @param ids Property IDs
+     * @return Copies of the properties found, in the order of the given IDs
+     */
+    public List<Property> getAll(List<Integer> ids) {
+        long now = System.nanoTime();
+        Map<Integer, Property> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        synchronized (entries) {
+            for (int id : ids) {
+                CacheEntry entry = entries.get(id);
+                if (entry != null && now - entry.loadedAtNanos < ttlNanos) {
+                    hits.incrementAndGet();
+                    found.put(id, new Property(entry.property));
+                    continue;
+                }
+                if (entry != null) {
+                    entries.remove(id);
+                    expirations.incrementAndGet();
+                }
+                misses.incrementAndGet();
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long generationBeforeLoad = generation.get();
+            long start = System.nanoTime();
+            List<Property> loaded = propertyDAO.findByIds(missing);
+            long end = System.nanoTime();
+            loads.incrementAndGet();
+            totalLoadNanos.addAndGet(end - start);
+
+            synchronized (entries) {
+                boolean current = generation.get() == generationBeforeLoad;
+                for (Property property : loaded) {
+                    found.put(property.getId(), property);
+                    if (current) {
+                        entries.put(property.getId(), new CacheEntry(new Property(property), end));
+                    }
+                }
+            }
+        }
+
+        List<Property> properties = new ArrayList<>(found.size());
+        for (int id : ids) {
+            Property property = found.get(id);
+            if (property != null) {
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Drop a single property from the cache
+     * @param id Property ID
+     */
+    public void invalidate(int id) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            if (entries.remove(id) != null) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Drop every cached property
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Get cache statistics
+     * @return Cache statistics
+     */
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long loadCount = loads.get();
+        return new CacheStats(
+            size,
+            maxSize,
+            hits.get(),
+            misses.get(),
+            sizeEvictions.get() + expirations.get(),
+            invalidations.get(),
+            loadCount == 0 ? 0 : totalLoadNanos.get() / loadCount / 1000
+        );
+    }
+
+    @Override
+    public void propertyUpdated(Property property) {
+        invalidate(property.getId());
+    }
+
+    @Override
+    public void statusChanged(int propertyId, Property.PropertyStatus status) {
+        invalidate(propertyId);
+    }
+
+    @Override
+    public void priceChanged(int propertyId, long newPrice) {
+        invalidate(propertyId);
+    }
+
+    @Override
+    public void propertyDeleted(int propertyId) {
+        invalidate(propertyId);
+    }
+
+    private static class CacheEntry {
+        final Property property;
+        final long loadedAtNanos;
+
+        CacheEntry(Property property, long loadedAtNanos) {
+            this.property = property;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+
+    /**
+     * Cache statistics class
+     */
+    public static class CacheStats {
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final long avgLoadMicros;
+
+        public CacheStats(int size, int maxSize, long hits, long misses, long evictions,
+                          long invalidations, long avgLoadMicros) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.avgLoadMicros = avgLoadMicros;
+        }
+
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+        public long getAvgLoadMicros() { return avgLoadMicros; }
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheStats{" +
+                    "size=" + size +
+                    ", maxSize=" + maxSize +
+                    ", hits=" + hits +
+                    ", misses=" + misses +
+                    ", hitRatio=" + getHitRatio() +
+                    ", evictions=" + evictions +
+                    ", invalidations=" + invalidations +
+                    ", avgLoadMicros=" + avgLoadMicros +
+                    '}';
+        }
+    }
+}
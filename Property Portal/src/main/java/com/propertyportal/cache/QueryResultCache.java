@@ -0,0 +1,381 @@
+package com.propertyportal.cache;
+
+import com.propertyportal.dao.PropertyChangeListener;
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.model.Property;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of search results, keyed by normalized query and holding
+ * property IDs only; callers resolve the IDs through {@link PropertyCache}.
+ * Because entries carry no property state, status and price changes never
+ * invalidate them. Creates, updates and deletes invalidate only the entries
+ * they can affect: entries already listing the property, neighborhood and
+ * type queries for the property's new neighborhood and type, and text
+ * queries sharing a word with its title, description, neighborhood or region.
+ * Entries are evicted least-recently-used once the cache is full, and expire
+ * after a fixed time-to-live.
+ */
+public class QueryResultCache implements PropertyChangeListener {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<Query, CacheEntry> entries;
+
+    // Bumped on every invalidating write so a load that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sizeEvictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+
+    /**
+     * Create the cache and register it for the DAO's write events. Register it
+     * after any in-memory index its loaders read, so that index is current
+     * before entries are invalidated.
+     */
+    public QueryResultCache(PropertyDAO propertyDAO, int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Query, CacheEntry> eldest) {
+                if (size() > QueryResultCache.this.maxSize) {
+                    sizeEvictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        propertyDAO.addChangeListener(this);
+    }
+
+    /**
+     * Get the property IDs for a query, running it on a miss
+     * @param query Normalized query
+     * @param loader Runs the query and returns the matching IDs in result order
+     * @return Matching property IDs in result order
+     */
+    public List<Integer> get(Query query, Supplier<List<Integer>> loader) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            CacheEntry entry = entries.get(query);
+            if (entry != null) {
+                if (now - entry.loadedAtNanos < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry.ids;
+                }
+                entries.remove(query);
+                expirations.incrementAndGet();
+            }
+        }
+
+        misses.incrementAndGet();
+        long generationBeforeLoad = generation.get();
+        long start = System.nanoTime();
+        List<Integer> ids = Collections.unmodifiableList(new ArrayList<>(loader.get()));
+        long end = System.nanoTime();
+        loads.incrementAndGet();
+        totalLoadNanos.addAndGet(end - start);
+
+        synchronized (entries) {
+            if (generation.get() == generationBeforeLoad) {
+                entries.put(query, new CacheEntry(ids, end));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Drop every cached result
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Get cache statistics
+     * @return Cache statistics
+     */
+    public QueryCacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long loadCount = loads.get();
+        return new QueryCacheStats(
+            size,
+            maxSize,
+            hits.get(),
+            misses.get(),
+            sizeEvictions.get() + expirations.get(),
+            invalidations.get(),
+            loadCount == 0 ? 0 : totalLoadNanos.get() / loadCount / 1000
+        );
+    }
+
+    @Override
+    public void propertyCreated(Property property) {
+        invalidateAffected(property.getId(), property);
+    }
+
+    @Override
+    public void propertyUpdated(Property property) {
+        invalidateAffected(property.getId(), property);
+    }
+
+    @Override
+    public void propertyDeleted(int propertyId) {
+        invalidateAffected(propertyId, null);
+    }
+
+    private void invalidateAffected(int propertyId, Property property) {
+        String neighborhood = property == null ? null : normalizeFilter(property.getNeighborhood());
+        Property.PropertyType type = property == null ? null : property.getPropertyType();
+        Set<String> words = new HashSet<>();
+        if (property != null) {
+            for (String field : new String[] {property.getTitle(), property.getDescription(),
+                                              property.getNeighborhood(), property.getRegion()}) {
+                addWords(field, words);
+            }
+        }
+
+        synchronized (entries) {
+            generation.incrementAndGet();
+            for (Iterator<Map.Entry<Query, CacheEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Query, CacheEntry> cached = it.next();
+                if (cached.getValue().contains(propertyId) || cached.getKey().matches(neighborhood, type, words)) {
+                    it.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static String normalizeFilter(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Add the lowercase letter/digit runs of a text to a set
+     */
+    private static void addWords(String text, Set<String> words) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Normalized cache key for one search
+     */
+    public static final class Query {
+
+        private enum Kind { TEXT, NEIGHBORHOOD, PROPERTY_TYPE }
+
+        private final Kind kind;
+        private final String value;
+        private final int limit;
+        // Words a matching property must or may contain; only set for text queries
+        private final Set<String> words;
+
+        private Query(Kind kind, String value, int limit, Set<String> words) {
+            this.kind = kind;
+            this.value = value;
+            this.limit = limit;
+            this.words = words;
+        }
+
+        /**
+         * Full-text search. Words are lowercased, stripped of punctuation,
+         * de-duplicated and sorted, keeping their +/- operators, so
+         * "Downtown 2 bed apartment" and "apartment, 2 BED downtown" share a key.
+         * @param searchText Search text
+         * @param limit Maximum number of results
+         * @return Query key
+         */
+        public static Query text(String searchText, int limit) {
+            TreeSet<String> normalized = new TreeSet<>();
+            Set<String> words = new HashSet<>();
+            if (searchText != null) {
+                for (String token : searchText.trim().split("\\s+")) {
+                    if (token.isEmpty()) {
+                        continue;
+                    }
+                    char operator = token.charAt(0);
+                    String prefix = operator == '+' || operator == '-' ? String.valueOf(operator) : "";
+                    Set<String> tokenWords = new TreeSet<>();
+                    addWords(token, tokenWords);
+                    for (String word : tokenWords) {
+                        normalized.add(prefix + word);
+                        if (operator != '-') {
+                            words.add(word);
+                        }
+                    }
+                }
+            }
+            return new Query(Kind.TEXT, String.join(" ", normalized), limit, words);
+        }
+
+        /**
+         * Properties in a neighborhood, compared case-insensitively
+         * @param neighborhood Neighborhood
+         * @return Query key
+         */
+        public static Query neighborhood(String neighborhood) {
+            return new Query(Kind.NEIGHBORHOOD, normalizeFilter(neighborhood), 0, Collections.emptySet());
+        }
+
+        /**
+         * Properties of a type
+         * @param propertyType Property type
+         * @return Query key
+         */
+        public static Query propertyType(Property.PropertyType propertyType) {
+            return new Query(Kind.PROPERTY_TYPE, propertyType.getValue(), 0, Collections.emptySet());
+        }
+
+        /**
+         * Whether a property with these attributes could now appear in this query's results
+         */
+        boolean matches(String neighborhood, Property.PropertyType type, Set<String> propertyWords) {
+            switch (kind) {
+                case NEIGHBORHOOD:
+                    return value.equals(neighborhood);
+                case PROPERTY_TYPE:
+                    return type != null && value.equals(type.getValue());
+                default:
+                    for (String word : words) {
+                        if (propertyWords.contains(word)) {
+                            return true;
+                        }
+                    }
+                    return false;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Query)) return false;
+            Query other = (Query) o;
+            return kind == other.kind && limit == other.limit && value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, value, limit);
+        }
+
+        @Override
+        public String toString() {
+            return kind + "[" + value + (kind == Kind.TEXT ? ", limit=" + limit : "") + "]";
+        }
+    }
+
+    private static class CacheEntry {
+        final List<Integer> ids;
+        final int[] sortedIds;
+        final long loadedAtNanos;
+
+        CacheEntry(List<Integer> ids, long loadedAtNanos) {
+            this.ids = ids;
+            this.loadedAtNanos = loadedAtNanos;
+            this.sortedIds = new int[ids.size()];
+            for (int i = 0; i < sortedIds.length; i++) {
+                sortedIds[i] = ids.get(i);
+            }
+            Arrays.sort(sortedIds);
+        }
+
+        boolean contains(int propertyId) {
+            return Arrays.binarySearch(sortedIds, propertyId) >= 0;
+        }
+    }
+
+    /**
+     * Query cache statistics class
+     */
+    public static class QueryCacheStats {
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final long avgLoadMicros;
+
+        public QueryCacheStats(int size, int maxSize, long hits, long misses, long evictions,
+                               long invalidations, long avgLoadMicros) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.avgLoadMicros = avgLoadMicros;
+        }
+
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+        public long getAvgLoadMicros() { return avgLoadMicros; }
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "QueryCacheStats{" +
+                    "size=" + size +
+                    ", maxSize=" + maxSize +
+                    ", hits=" + hits +
+                    ", misses=" + misses +
+                    ", hitRatio=" + getHitRatio() +
+                    ", evictions=" + evictions +
+                    ", invalidations=" + invalidations +
+                    ", avgLoadMicros=" + avgLoadMicros +
+                    '}';
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.propertyportal.dao;
 
 import com.propertyportal.DatabaseConnection;
+import com.propertyportal.metrics.Metrics;
 import com.propertyportal.model.Agency;
 
 import java.sql.*;
@@ -18,29 +19,33 @@ public class AgencyDAO {
      * @return Created agency with ID
      */
     public Optional<Agency> create(Agency agency) {
-        String sql = "INSERT INTO Agency (name, address, phone, createdAt, updatedAt) VALUES (?, ?, ?, NOW(), NOW())";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setString(1, agency.getName());
-            stmt.setString(2, agency.getAddress());
-            stmt.setString(3, agency.getPhone());
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgencyDAO.create");
+        try (timer) {
+            String sql = "INSERT INTO Agency (name, address, phone, createdAt, updatedAt) VALUES (?, ?, ?, NOW(), NOW())";
             
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet rs = stmt.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        agency.setId(rs.getInt(1));
-                        connection.commit();
-                        return Optional.of(agency);
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                stmt.setString(1, agency.getName());
+                stmt.setString(2, agency.getAddress());
+                stmt.setString(3, agency.getPhone());
+                
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows > 0) {
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            agency.setId(rs.getInt(1));
+                            connection.commit();
+                            return Optional.of(agency);
+                        }
                     }
                 }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error creating agency: " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error creating agency: " + e.getMessage());
+            return Optional.empty();
         }
-        return Optional.empty();
     }
     
     /**
@@ -49,23 +54,28 @@ public class AgencyDAO {
      * @return Optional containing agency if found
      */
     public Optional<Agency> findById(int id) {
-        String sql = "SELECT * FROM Agency WHERE id = ?";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgencyDAO.findById");
+        try (timer) {
+            String sql = "SELECT * FROM Agency WHERE id = ?";
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Agency agency = mapResultSetToAgency(rs);
-                    return Optional.of(agency);
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setInt(1, id);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        Metrics.recordRow();
+                        Agency agency = ResultSetMappers.agency(rs).map(rs);
+                        return Optional.of(agency);
+                    }
                 }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding agency by ID " + id + ": " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error finding agency by ID " + id + ": " + e.getMessage());
+            return Optional.empty();
         }
-        return Optional.empty();
     }
     
     /**
@@ -73,20 +83,26 @@ public class AgencyDAO {
      * @return List of all agencies
      */
     public List<Agency> findAll() {
-        String sql = "SELECT * FROM Agency ORDER BY name";
-        List<Agency> agencies = new ArrayList<>();
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgencyDAO.findAll");
+        try (timer) {
+            String sql = "SELECT * FROM Agency ORDER BY name";
+            List<Agency> agencies = new ArrayList<>();
             
-            while (rs.next()) {
-                agencies.add(mapResultSetToAgency(rs));
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                RowMapper<Agency> mapper = ResultSetMappers.agency(rs);
+                while (rs.next()) {
+                    Metrics.recordRow();
+                    agencies.add(mapper.map(rs));
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding all agencies: " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error finding all agencies: " + e.getMessage());
+            return agencies;
         }
-        return agencies;
     }
     
     /**
@@ -95,25 +111,29 @@ public class AgencyDAO {
      * @return true if update successful
      */
     public boolean update(Agency agency) {
-        String sql = "UPDATE Agency SET name = ?, address = ?, phone = ?, updatedAt = NOW() WHERE id = ?";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgencyDAO.update");
+        try (timer) {
+            String sql = "UPDATE Agency SET name = ?, address = ?, phone = ?, updatedAt = NOW() WHERE id = ?";
             
-            stmt.setString(1, agency.getName());
-            stmt.setString(2, agency.getAddress());
-            stmt.setString(3, agency.getPhone());
-            stmt.setInt(4, agency.getId());
-            
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                connection.commit();
-                return true;
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setString(1, agency.getName());
+                stmt.setString(2, agency.getAddress());
+                stmt.setString(3, agency.getPhone());
+                stmt.setInt(4, agency.getId());
+                
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows > 0) {
+                    connection.commit();
+                    return true;
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error updating agency " + agency.getId() + ": " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error updating agency " + agency.getId() + ": " + e.getMessage());
+            return false;
         }
-        return false;
     }
     
     /**
@@ -122,22 +142,26 @@ public class AgencyDAO {
      * @return true if deletion successful
      */
     public boolean delete(int id) {
-        String sql = "DELETE FROM Agency WHERE id = ?";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgencyDAO.delete");
+        try (timer) {
+            String sql = "DELETE FROM Agency WHERE id = ?";
             
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                connection.commit();
-                return true;
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setInt(1, id);
+                
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows > 0) {
+                    connection.commit();
+                    return true;
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error deleting agency " + id + ": " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error deleting agency " + id + ": " + e.getMessage());
+            return false;
         }
-        return false;
     }
     
     /**
@@ -146,23 +170,28 @@ public class AgencyDAO {
      * @return Optional containing agency if found
      */
     public Optional<Agency> findByName(String name) {
-        String sql = "SELECT * FROM Agency WHERE name = ?";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setString(1, name);
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgencyDAO.findByName");
+        try (timer) {
+            String sql = "SELECT * FROM Agency WHERE name = ?";
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Agency agency = mapResultSetToAgency(rs);
-                    return Optional.of(agency);
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setString(1, name);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        Metrics.recordRow();
+                        Agency agency = ResultSetMappers.agency(rs).map(rs);
+                        return Optional.of(agency);
+                    }
                 }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding agency by name '" + name + "': " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error finding agency by name '" + name + "': " + e.getMessage());
+            return Optional.empty();
         }
-        return Optional.empty();
     }
     
     /**
@@ -171,23 +200,29 @@ public class AgencyDAO {
      * @return List of matching agencies
      */
     public List<Agency> searchByName(String name) {
-        String sql = "SELECT * FROM Agency WHERE name LIKE ? ORDER BY name";
-        List<Agency> agencies = new ArrayList<>();
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgencyDAO.searchByName");
+        try (timer) {
+            String sql = "SELECT * FROM Agency WHERE name LIKE ? ORDER BY name";
+            List<Agency> agencies = new ArrayList<>();
             
-            stmt.setString(1, "%" + name + "%");
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    agencies.add(mapResultSetToAgency(rs));
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setString(1, "%" + name + "%");
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<Agency> mapper = ResultSetMappers.agency(rs);
+                    while (rs.next()) {
+                        Metrics.recordRow();
+                        agencies.add(mapper.map(rs));
+                    }
                 }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error searching agencies by name '" + name + "': " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error searching agencies by name '" + name + "': " + e.getMessage());
+            return agencies;
         }
-        return agencies;
     }
     
     /**
@@ -195,58 +230,37 @@ public class AgencyDAO {
      * @return Agency statistics
      */
     public AgencyStatistics getStatistics() {
-        String sql = "SELECT " +
-                    "COUNT(*) as totalAgencies, " +
-                    "COUNT(DISTINCT a.id) as totalAgents, " +
-                    "COUNT(DISTINCT p.id) as totalProperties, " +
-                    "COUNT(DISTINCT CASE WHEN p.status = 'sold' THEN p.id END) as soldProperties " +
-                    "FROM Agency ag " +
-                    "LEFT JOIN Agent a ON ag.id = a.agencyId " +
-                    "LEFT JOIN propertyAgent pa ON a.id = pa.agentId " +
-                    "LEFT JOIN Property p ON pa.propertyId = p.id";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgencyDAO.getStatistics");
+        try (timer) {
+            String sql = "SELECT " +
+                        "COUNT(*) as totalAgencies, " +
+                        "COUNT(DISTINCT a.id) as totalAgents, " +
+                        "COUNT(DISTINCT p.id) as totalProperties, " +
+                        "COUNT(DISTINCT CASE WHEN p.status = 'sold' THEN p.id END) as soldProperties " +
+                        "FROM Agency ag " +
+                        "LEFT JOIN Agent a ON ag.id = a.agencyId " +
+                        "LEFT JOIN propertyAgent pa ON a.id = pa.agentId " +
+                        "LEFT JOIN Property p ON pa.propertyId = p.id";
             
-            if (rs.next()) {
-                return new AgencyStatistics(
-                    rs.getInt("totalAgencies"),
-                    rs.getInt("totalAgents"),
-                    rs.getInt("totalProperties"),
-                    rs.getInt("soldProperties")
-                );
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                if (rs.next()) {
+                    Metrics.recordRow();
+                    return new AgencyStatistics(
+                        rs.getInt("totalAgencies"),
+                        rs.getInt("totalAgents"),
+                        rs.getInt("totalProperties"),
+                        rs.getInt("soldProperties")
+                    );
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error getting agency statistics: " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting agency statistics: " + e.getMessage());
-        }
-        return new AgencyStatistics(0, 0, 0, 0);
-    }
-    
-    /**
-     * Map ResultSet to Agency object
-     * @param rs ResultSet
-     * @return Agency object
-     * @throws SQLException if mapping fails
-     */
-    private Agency mapResultSetToAgency(ResultSet rs) throws SQLException {
-        Agency agency = new Agency();
-        agency.setId(rs.getInt("id"));
-        agency.setName(rs.getString("name"));
-        agency.setAddress(rs.getString("address"));
-        agency.setPhone(rs.getString("phone"));
-        
-        Timestamp createdAt = rs.getTimestamp("createdAt");
-        if (createdAt != null) {
-            agency.setCreatedAt(createdAt.toLocalDateTime());
+            return new AgencyStatistics(0, 0, 0, 0);
         }
-        
-        Timestamp updatedAt = rs.getTimestamp("updatedAt");
-        if (updatedAt != null) {
-            agency.setUpdatedAt(updatedAt.toLocalDateTime());
-        }
-        
-        return agency;
     }
     
     /**
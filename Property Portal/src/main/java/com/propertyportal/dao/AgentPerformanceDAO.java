@@ -0,0 +1,278 @@
+package com.propertyportal.dao;
+
+import com.propertyportal.DatabaseConnection;
+import com.propertyportal.metrics.Metrics;
+import com.propertyportal.model.AgentPerformance;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Data Access Object for AgentPerformance monthly rollups and the Agent summary columns
+ */
+public class AgentPerformanceDAO {
+
+    // Every assignment adds its own delta; avgResponseTimeMinutes is generated from the two totals
+    private static final String UPSERT_SQL =
+        "INSERT INTO AgentPerformance (agentId, monthYear, totalInquiries, respondedInquiries, " +
+        "totalResponseMinutes, closedDeals, totalRevenue) VALUES (?, ?, ?, ?, ?, ?, ?) AS new " +
+        "ON DUPLICATE KEY UPDATE " +
+        "totalInquiries = totalInquiries + new.totalInquiries, " +
+        "respondedInquiries = respondedInquiries + new.respondedInquiries, " +
+        "totalResponseMinutes = totalResponseMinutes + new.totalResponseMinutes, " +
+        "closedDeals = closedDeals + new.closedDeals, " +
+        "totalRevenue = totalRevenue + new.totalRevenue, " +
+        "updatedAt = NOW()";
+
+    private static final String AGENT_AVG_RESPONSE_SQL =
+        "SELECT COALESCE(ROUND(SUM(totalResponseMinutes) / NULLIF(SUM(respondedInquiries), 0)), 0) " +
+        "FROM AgentPerformance WHERE agentId = ?";
+
+    /**
+     * Apply accumulated monthly deltas as one batch of upserts, then refresh
+     * Agent.totalDealsClosed and Agent.avgResponseTimeMinutes for the touched agents
+     * @param deltas Deltas keyed by agent and month
+     * @return true if every delta was committed
+     */
+    public boolean applyDeltas(Collection<MonthlyDelta> deltas) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgentPerformanceDAO.applyDeltas");
+        try (timer) {
+            if (deltas.isEmpty()) {
+                return true;
+            }
+            String agentSql = "UPDATE Agent SET totalDealsClosed = totalDealsClosed + ?, " +
+                             "avgResponseTimeMinutes = (" + AGENT_AVG_RESPONSE_SQL + "), updatedAt = NOW() WHERE id = ?";
+
+            Map<Integer, Integer> dealsByAgent = new TreeMap<>();
+            for (MonthlyDelta delta : deltas) {
+                dealsByAgent.merge(delta.getAgentId(), delta.getClosedDeals(), Integer::sum);
+            }
+
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                try (PreparedStatement stmt = connection.prepareStatement(UPSERT_SQL)) {
+                    for (MonthlyDelta delta : deltas) {
+                        stmt.setInt(1, delta.getAgentId());
+                        stmt.setDate(2, java.sql.Date.valueOf(delta.getMonthYear()));
+                        stmt.setInt(3, delta.getInquiries());
+                        stmt.setInt(4, delta.getRespondedInquiries());
+                        stmt.setLong(5, delta.getResponseMinutes());
+                        stmt.setInt(6, delta.getClosedDeals());
+                        stmt.setLong(7, delta.getRevenue());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                // Agents in ID order so concurrent flushes lock Agent rows in the same order
+                try (PreparedStatement stmt = connection.prepareStatement(agentSql)) {
+                    for (Map.Entry<Integer, Integer> entry : dealsByAgent.entrySet()) {
+                        stmt.setInt(1, entry.getValue());
+                        stmt.setInt(2, entry.getKey());
+                        stmt.setInt(3, entry.getKey());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error applying " + deltas.size() + " agent performance deltas: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Recompute one agent's monthly rows and Agent summary columns from the Inquiry and Offer tables
+     * @param agentId Agent ID
+     * @return true if the rebuild was committed
+     */
+    public boolean rebuildAgent(int agentId) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgentPerformanceDAO.rebuildAgent");
+        try (timer) {
+            String inquirySql = "SELECT DATE_FORMAT(createdAt, '%Y-%m-01') AS monthYear, COUNT(*) AS totalInquiries, " +
+                               "SUM(respondedAt IS NOT NULL) AS respondedInquiries, " +
+                               "COALESCE(SUM(responseTimeMinutes), 0) AS responseMinutes " +
+                               "FROM Inquiry WHERE agentId = ? GROUP BY monthYear";
+            String offerSql = "SELECT DATE_FORMAT(COALESCE(responseDate, offerDate), '%Y-%m-01') AS monthYear, " +
+                             "COUNT(*) AS closedDeals, COALESCE(SUM(offerAmount), 0) AS totalRevenue " +
+                             "FROM Offer WHERE agentId = ? AND status = 'accepted' GROUP BY monthYear";
+            String deleteSql = "DELETE FROM AgentPerformance WHERE agentId = ?";
+            String agentSql = "UPDATE Agent SET totalDealsClosed = ?, avgResponseTimeMinutes = ?, updatedAt = NOW() WHERE id = ?";
+
+            Map<LocalDate, MonthlyDelta> months = new TreeMap<>();
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                try (PreparedStatement stmt = connection.prepareStatement(inquirySql)) {
+                    stmt.setInt(1, agentId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Metrics.recordRow();
+                            LocalDate month = LocalDate.parse(rs.getString("monthYear"));
+                            MonthlyDelta delta = months.computeIfAbsent(month, m -> new MonthlyDelta(agentId, m));
+                            delta.addInquiries(rs.getInt("totalInquiries"));
+                            delta.addResponses(rs.getInt("respondedInquiries"), rs.getLong("responseMinutes"));
+                        }
+                    }
+                }
+                try (PreparedStatement stmt = connection.prepareStatement(offerSql)) {
+                    stmt.setInt(1, agentId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Metrics.recordRow();
+                            LocalDate month = LocalDate.parse(rs.getString("monthYear"));
+                            MonthlyDelta delta = months.computeIfAbsent(month, m -> new MonthlyDelta(agentId, m));
+                            delta.addDeals(rs.getInt("closedDeals"), rs.getLong("totalRevenue"));
+                        }
+                    }
+                }
+
+                try (PreparedStatement stmt = connection.prepareStatement(deleteSql)) {
+                    stmt.setInt(1, agentId);
+                    stmt.executeUpdate();
+                }
+                int totalDeals = 0;
+                int totalResponded = 0;
+                long totalResponseMinutes = 0;
+                if (!months.isEmpty()) {
+                    try (PreparedStatement stmt = connection.prepareStatement(UPSERT_SQL)) {
+                        for (MonthlyDelta delta : months.values()) {
+                            stmt.setInt(1, agentId);
+                            stmt.setDate(2, java.sql.Date.valueOf(delta.getMonthYear()));
+                            stmt.setInt(3, delta.getInquiries());
+                            stmt.setInt(4, delta.getRespondedInquiries());
+                            stmt.setLong(5, delta.getResponseMinutes());
+                            stmt.setInt(6, delta.getClosedDeals());
+                            stmt.setLong(7, delta.getRevenue());
+                            stmt.addBatch();
+                            totalDeals += delta.getClosedDeals();
+                            totalResponded += delta.getRespondedInquiries();
+                            totalResponseMinutes += delta.getResponseMinutes();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+                try (PreparedStatement stmt = connection.prepareStatement(agentSql)) {
+                    stmt.setInt(1, totalDeals);
+                    stmt.setInt(2, totalResponded == 0 ? 0 : (int) Math.round((double) totalResponseMinutes / totalResponded));
+                    stmt.setInt(3, agentId);
+                    stmt.executeUpdate();
+                }
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error rebuilding performance for agent " + agentId + ": " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Get the IDs of all agents
+     * @return List of agent IDs
+     */
+    public List<Integer> findAgentIds() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgentPerformanceDAO.findAgentIds");
+        try (timer) {
+            List<Integer> agentIds = new ArrayList<>();
+            String sql = "SELECT id FROM Agent ORDER BY id";
+
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    Metrics.recordRow();
+                    agentIds.add(rs.getInt("id"));
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding agent IDs: " + e.getMessage());
+            }
+            return agentIds;
+        }
+    }
+
+    /**
+     * Find an agent's monthly performance rows
+     * @param agentId Agent ID
+     * @return List of monthly rows, newest month first
+     */
+    public List<AgentPerformance> findByAgent(int agentId) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "AgentPerformanceDAO.findByAgent");
+        try (timer) {
+            List<AgentPerformance> rows = new ArrayList<>();
+            String sql = "SELECT * FROM AgentPerformance WHERE agentId = ? ORDER BY monthYear DESC";
+
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+
+                stmt.setInt(1, agentId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<AgentPerformance> mapper = ResultSetMappers.agentPerformance(rs);
+                    while (rs.next()) {
+                        Metrics.recordRow();
+                        rows.add(mapper.map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding performance for agent " + agentId + ": " + e.getMessage());
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Change to one agent's counters for one month
+     */
+    public static class MonthlyDelta {
+        private final int agentId;
+        private final LocalDate monthYear;
+        private int inquiries;
+        private int respondedInquiries;
+        private long responseMinutes;
+        private int closedDeals;
+        private long revenue;
+
+        public MonthlyDelta(int agentId, LocalDate monthYear) {
+            this.agentId = agentId;
+            this.monthYear = monthYear.withDayOfMonth(1);
+        }
+
+        public void addInquiries(int count) {
+            inquiries += count;
+        }
+
+        public void addResponses(int count, long minutes) {
+            respondedInquiries += count;
+            responseMinutes += minutes;
+        }
+
+        public void addDeals(int count, long amount) {
+            closedDeals += count;
+            revenue += amount;
+        }
+
+        public void merge(MonthlyDelta other) {
+            addInquiries(other.inquiries);
+            addResponses(other.respondedInquiries, other.responseMinutes);
+            addDeals(other.closedDeals, other.revenue);
+        }
+
+        public int getAgentId() { return agentId; }
+        public LocalDate getMonthYear() { return monthYear; }
+        public int getInquiries() { return inquiries; }
+        public int getRespondedInquiries() { return respondedInquiries; }
+        public long getResponseMinutes() { return responseMinutes; }
+        public int getClosedDeals() { return closedDeals; }
+        public long getRevenue() { return revenue; }
+
+        public int getAvgResponseTimeMinutes() {
+            return respondedInquiries == 0 ? 0 : (int) Math.round((double) responseMinutes / respondedInquiries);
+        }
+    }
+}
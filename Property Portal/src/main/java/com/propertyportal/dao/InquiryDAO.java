@@ -0,0 +1,134 @@
+package com.propertyportal.dao;
+
+import com.propertyportal.DatabaseConnection;
+import com.propertyportal.metrics.Metrics;
+import com.propertyportal.model.Inquiry;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Data Access Object for Inquiry entity
+ */
+public class InquiryDAO {
+    
+    /**
+     * Insert inquiries as one JDBC batch in a single transaction.
+     * With rewriteBatchedStatements the driver sends this as multi-row INSERTs.
+     * @param inquiries Inquiries to insert; IDs are set on success
+     * @return true if every inquiry was committed
+     */
+    public boolean createAll(List<Inquiry> inquiries) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "InquiryDAO.createAll");
+        try (timer) {
+            if (inquiries.isEmpty()) {
+                return true;
+            }
+            String sql = "INSERT INTO Inquiry (createdAt, message, status, agentId, buyerId, propertyId, " +
+                        "inquiryType, priority, updatedAt) VALUES (?, ?, ?, ?, ?, ?, ?, ?, NOW())";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                for (Inquiry inquiry : inquiries) {
+                    LocalDateTime createdAt = inquiry.getCreatedAt() != null ? inquiry.getCreatedAt() : LocalDateTime.now();
+                    stmt.setTimestamp(1, Timestamp.valueOf(createdAt));
+                    stmt.setString(2, inquiry.getMessage());
+                    stmt.setString(3, inquiry.getStatus().getValue());
+                    stmt.setInt(4, inquiry.getAgentId());
+                    stmt.setInt(5, inquiry.getBuyerId());
+                    stmt.setInt(6, inquiry.getPropertyId());
+                    stmt.setString(7, inquiry.getInquiryType().getValue());
+                    stmt.setString(8, inquiry.getPriority().getValue());
+                    stmt.addBatch();
+                }
+                
+                stmt.executeBatch();
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    for (Inquiry inquiry : inquiries) {
+                        if (rs.next()) {
+                            inquiry.setId(rs.getInt(1));
+                        }
+                    }
+                }
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error creating " + inquiries.size() + " inquiries: " + e.getMessage());
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Find inquiry by ID
+     * @param id Inquiry ID
+     * @return Optional containing inquiry if found
+     */
+    public Optional<Inquiry> findById(int id) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "InquiryDAO.findById");
+        try (timer) {
+            String sql = "SELECT * FROM Inquiry WHERE id = ?";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setInt(1, id);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        Metrics.recordRow();
+                        return Optional.of(ResultSetMappers.inquiry(rs).map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding inquiry by ID " + id + ": " + e.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Mark a new inquiry as responded and record its response time
+     * @param id Inquiry ID
+     * @return Responded inquiry if it was still new
+     */
+    public Optional<Inquiry> markResponded(int id) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "InquiryDAO.markResponded");
+        try (timer) {
+            String updateSql = "UPDATE Inquiry SET status = 'responded', respondedAt = NOW(), " +
+                              "responseTimeMinutes = TIMESTAMPDIFF(MINUTE, createdAt, NOW()), updatedAt = NOW() " +
+                              "WHERE id = ? AND status = 'new'";
+            String selectSql = "SELECT * FROM Inquiry WHERE id = ?";
+            
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                try (PreparedStatement stmt = connection.prepareStatement(updateSql)) {
+                    stmt.setInt(1, id);
+                    if (stmt.executeUpdate() == 0) {
+                        return Optional.empty();
+                    }
+                }
+                
+                Optional<Inquiry> responded = Optional.empty();
+                try (PreparedStatement stmt = connection.prepareStatement(selectSql)) {
+                    stmt.setInt(1, id);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            Metrics.recordRow();
+                            responded = Optional.of(ResultSetMappers.inquiry(rs).map(rs));
+                        }
+                    }
+                }
+                connection.commit();
+                return responded;
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error marking inquiry " + id + " as responded: " + e.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.propertyportal.dao;
+
+import com.propertyportal.DatabaseConnection;
+import com.propertyportal.metrics.Metrics;
+import com.propertyportal.model.Offer;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Data Access Object for Offer entity
+ */
+public class OfferDAO {
+    
+    /**
+     * Create a new offer
+     * @param offer Offer to create
+     * @return Created offer with ID
+     */
+    public Optional<Offer> create(Offer offer) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "OfferDAO.create");
+        try (timer) {
+            String sql = "INSERT INTO Offer (agentId, buyerId, propertyId, offerAmount, offerDate, status, notes, " +
+                        "createdAt, updatedAt) VALUES (?, ?, ?, ?, ?, ?, ?, NOW(), NOW())";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                stmt.setInt(1, offer.getAgentId());
+                stmt.setInt(2, offer.getBuyerId());
+                stmt.setInt(3, offer.getPropertyId());
+                stmt.setLong(4, offer.getOfferAmount());
+                stmt.setTimestamp(5, Timestamp.valueOf(offer.getOfferDate()));
+                stmt.setString(6, offer.getStatus().getValue());
+                stmt.setString(7, offer.getNotes());
+                
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows > 0) {
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            offer.setId(rs.getInt(1));
+                            connection.commit();
+                            return Optional.of(offer);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error creating offer: " + e.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Find offer by ID
+     * @param id Offer ID
+     * @return Optional containing offer if found
+     */
+    public Optional<Offer> findById(int id) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "OfferDAO.findById");
+        try (timer) {
+            String sql = "SELECT * FROM Offer WHERE id = ?";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setInt(1, id);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        Metrics.recordRow();
+                        return Optional.of(ResultSetMappers.offer(rs).map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding offer by ID " + id + ": " + e.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Find all offers on a property
+     * @param propertyId Property ID
+     * @return List of offers, highest amount first
+     */
+    public List<Offer> findByProperty(int propertyId) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "OfferDAO.findByProperty");
+        try (timer) {
+            String sql = "SELECT * FROM Offer WHERE propertyId = ? ORDER BY offerAmount DESC, offerDate ASC";
+            List<Offer> offers = new ArrayList<>();
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setInt(1, propertyId);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<Offer> mapper = ResultSetMappers.offer(rs);
+                    while (rs.next()) {
+                        Metrics.recordRow();
+                        offers.add(mapper.map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding offers for property " + propertyId + ": " + e.getMessage());
+            }
+            return offers;
+        }
+    }
+    
+    /**
+     * Find pending offers on a property (served from idxOfferPropertyStatus)
+     * @param propertyId Property ID
+     * @return List of pending offers, highest amount first
+     */
+    public List<Offer> findPendingByProperty(int propertyId) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "OfferDAO.findPendingByProperty");
+        try (timer) {
+            String sql = "SELECT * FROM Offer WHERE propertyId = ? AND status = 'pending' " +
+                        "ORDER BY offerAmount DESC, offerDate ASC";
+            List<Offer> offers = new ArrayList<>();
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setInt(1, propertyId);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<Offer> mapper = ResultSetMappers.offer(rs);
+                    while (rs.next()) {
+                        Metrics.recordRow();
+                        offers.add(mapper.map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding pending offers for property " + propertyId + ": " + e.getMessage());
+            }
+            return offers;
+        }
+    }
+    
+    /**
+     * Resolve a pending offer. Only succeeds while the offer is still pending,
+     * so concurrent accept/reject/withdraw calls on the same offer cannot both win.
+     * @param offerId Offer ID
+     * @param status New status (accepted, rejected or withdrawn)
+     * @return true if the offer was pending and is now resolved
+     */
+    public boolean resolve(int offerId, Offer.OfferStatus status) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "OfferDAO.resolve");
+        try (timer) {
+            if (status == Offer.OfferStatus.PENDING) {
+                throw new IllegalArgumentException("Cannot resolve an offer to pending");
+            }
+            String sql = "UPDATE Offer SET status = ?, responseDate = NOW(), updatedAt = NOW() " +
+                        "WHERE id = ? AND status = 'pending'";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setString(1, status.getValue());
+                stmt.setInt(2, offerId);
+                
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows > 0) {
+                    connection.commit();
+                    return true;
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error resolving offer " + offerId + " as " + status + ": " + e.getMessage());
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Accept a pending offer and reject the property's other pending offers, in one transaction.
+     * The property row is locked first, so concurrent accepts on the same property are serialized.
+     * @param offerId Offer ID
+     * @param propertyId Property the offer is for
+     * @return true if the offer was accepted; false if it was no longer pending or another offer was already accepted
+     */
+    public boolean accept(int offerId, int propertyId) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "OfferDAO.accept");
+        try (timer) {
+            String lockSql = "SELECT id FROM Property WHERE id = ? FOR UPDATE";
+            String acceptedSql = "SELECT COUNT(*) FROM Offer WHERE propertyId = ? AND status = 'accepted'";
+            String acceptSql = "UPDATE Offer SET status = 'accepted', responseDate = NOW(), updatedAt = NOW() " +
+                        "WHERE id = ? AND propertyId = ? AND status = 'pending'";
+            String rejectSql = "UPDATE Offer SET status = 'rejected', responseDate = NOW(), updatedAt = NOW() " +
+                        "WHERE propertyId = ? AND status = 'pending'";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement lockStmt = connection.prepareStatement(lockSql);
+                 PreparedStatement acceptedStmt = connection.prepareStatement(acceptedSql);
+                 PreparedStatement acceptStmt = connection.prepareStatement(acceptSql);
+                 PreparedStatement rejectStmt = connection.prepareStatement(rejectSql)) {
+                
+                lockStmt.setInt(1, propertyId);
+                try (ResultSet rs = lockStmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                }
+                acceptedStmt.setInt(1, propertyId);
+                try (ResultSet rs = acceptedStmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) > 0) {
+                        return false;
+                    }
+                }
+                
+                acceptStmt.setInt(1, offerId);
+                acceptStmt.setInt(2, propertyId);
+                if (acceptStmt.executeUpdate() == 0) {
+                    return false;
+                }
+                rejectStmt.setInt(1, propertyId);
+                rejectStmt.executeUpdate();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error accepting offer " + offerId + ": " + e.getMessage());
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.propertyportal.dao;
+
+import com.propertyportal.DatabaseConnection;
+import com.propertyportal.metrics.Metrics;
+import com.propertyportal.model.PriceHistory;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Data Access Object for propertyPriceHistory entries
+ */
+public class PriceHistoryDAO {
+
+    /**
+     * Insert price history entries on the caller's connection without committing.
+     * Entries without changedBy are attributed to the property's primary agent
+     * (any assigned agent if there is no primary); entries for properties with
+     * no agent at all are stored with a NULL changedBy.
+     * @param connection Connection whose transaction the rows join
+     * @param entries Entries to insert, in order
+     * @return Number of entries inserted
+     * @throws SQLException if the insert fails
+     */
+    public int insertAll(Connection connection, List<PriceHistory> entries) throws SQLException {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PriceHistoryDAO.insertAll");
+        try (timer) {
+            if (entries.isEmpty()) {
+                return 0;
+            }
+            Map<Integer, Integer> agents = findResponsibleAgents(connection, entries);
+            String sql = "INSERT INTO propertyPriceHistory (propertyId, price, changedAt, priceType, changedBy) " +
+                        "VALUES (?, ?, ?, ?, ?)";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                for (PriceHistory entry : entries) {
+                    Integer changedBy = entry.getChangedBy() != null ? entry.getChangedBy() : agents.get(entry.getPropertyId());
+                    stmt.setInt(1, entry.getPropertyId());
+                    stmt.setLong(2, entry.getPrice());
+                    stmt.setTimestamp(3, Timestamp.valueOf(entry.getChangedAt()));
+                    stmt.setString(4, entry.getPriceType().getValue());
+                    if (changedBy != null) {
+                        stmt.setInt(5, changedBy);
+                    } else {
+                        stmt.setNull(5, Types.INTEGER);
+                    }
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            return entries.size();
+        }
+    }
+
+    /**
+     * Find the price history of a property
+     * @param propertyId Property ID
+     * @return Price history entries, oldest first
+     */
+    public List<PriceHistory> findByProperty(int propertyId) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PriceHistoryDAO.findByProperty");
+        try (timer) {
+            List<PriceHistory> history = new ArrayList<>();
+            String sql = "SELECT * FROM propertyPriceHistory WHERE propertyId = ? ORDER BY changedAt, id";
+
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+
+                stmt.setInt(1, propertyId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<PriceHistory> mapper = ResultSetMappers.priceHistory(rs);
+                    while (rs.next()) {
+                        Metrics.recordRow();
+                        history.add(mapper.map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding price history for property " + propertyId + ": " + e.getMessage());
+            }
+            return history;
+        }
+    }
+
+    /**
+     * Look up the agent to attribute unattributed entries to, one query per call
+     * @param connection Connection to query on
+     * @param entries Entries being inserted
+     * @return Agent ID by property ID
+     * @throws SQLException if the lookup fails
+     */
+    private Map<Integer, Integer> findResponsibleAgents(Connection connection, List<PriceHistory> entries) throws SQLException {
+        Set<Integer> propertyIds = new LinkedHashSet<>();
+        for (PriceHistory entry : entries) {
+            if (entry.getChangedBy() == null) {
+                propertyIds.add(entry.getPropertyId());
+            }
+        }
+        Map<Integer, Integer> agents = new HashMap<>();
+        if (propertyIds.isEmpty()) {
+            return agents;
+        }
+
+        String placeholders = String.join(", ", Collections.nCopies(propertyIds.size(), "?"));
+        String sql = "SELECT propertyId, agentId FROM propertyAgent WHERE propertyId IN (" + placeholders + ") " +
+                    "ORDER BY role = 'primary' DESC, assignedAt";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (int propertyId : propertyIds) {
+                stmt.setInt(index++, propertyId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Metrics.recordRow();
+                    agents.putIfAbsent(rs.getInt("propertyId"), rs.getInt("agentId"));
+                }
+            }
+        }
+        return agents;
+    }
+}
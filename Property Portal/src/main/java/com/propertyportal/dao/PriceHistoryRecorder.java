@@ -0,0 +1,319 @@
+package com.propertyportal.dao;
+
+import com.propertyportal.DatabaseConnection;
+import com.propertyportal.model.PriceHistory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind recorder for propertyPriceHistory, driven by {@link PropertyDAO}.
+ * After a price-changing write commits, its history entry is queued and a
+ * background writer inserts queued entries in batches, either once
+ * maxBatchSize are waiting or every flushInterval. Entries are written in
+ * the order they were queued. PropertyDAO queues them in commit order for
+ * each property, so each property's history stays ordered.
+ * In durable mode the entry is inserted and committed with the caller's
+ * transaction instead. Entries still queued for that property go into the
+ * same transaction ahead of it, so ordering still holds.
+ * Callers queue entries only after returning their connection, and every
+ * writer takes its connection before flushLock, so a full queue or a busy
+ * pool cannot leave the writer waiting on a connection its callers hold.
+ * A batch that cannot reach the database is kept and retried on the next
+ * flush; only rows the database rejects on their own are dropped.
+ * A JVM shutdown hook flushes whatever is still queued.
+ */
+public class PriceHistoryRecorder {
+
+    private final PriceHistoryDAO priceHistoryDAO;
+    private final BlockingQueue<PriceHistory> queue;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final Thread writer;
+    private final Thread shutdownHook;
+
+    // Held while entries move from the queue to the database, so nothing is in flight outside it
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Entries taken from the queue whose write did not reach the database, oldest first; guarded by flushLock
+    private final List<PriceHistory> retry = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong writtenDurably = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    public PriceHistoryRecorder(PriceHistoryDAO priceHistoryDAO, int capacity, int maxBatchSize, Duration flushInterval) {
+        if (capacity <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive: " +
+                    capacity + ", " + maxBatchSize);
+        }
+        this.priceHistoryDAO = priceHistoryDAO;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.writer = new Thread(this::runWriter, "price-history-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        this.shutdownHook = new Thread(() -> shutdown(Duration.ofSeconds(10)), "price-history-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queue an entry for the background writer; blocks while the queue is full.
+     * Callers must not hold a pooled connection, which the writer may need to drain the queue.
+     * @param entry Entry for a committed price change
+     */
+    void enqueue(PriceHistory entry) {
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            flushLock.lock();
+            try {
+                retry.add(entry);
+            } finally {
+                flushLock.unlock();
+            }
+        }
+        queued.incrementAndGet();
+        if (!running) {
+            // Too late for the writer; write it on the caller's thread instead
+            flush();
+        } else if (queue.size() >= maxBatchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Insert an entry in the caller's transaction, after any entries still
+     * waiting for the same property, and commit it
+     * @param connection Connection holding the caller's uncommitted write
+     * @param entry Entry for the price change being written
+     * @throws SQLException if the insert or commit fails; the caller should roll back
+     */
+    void commitInTransaction(Connection connection, PriceHistory entry) throws SQLException {
+        flushLock.lock();
+        try {
+            List<PriceHistory> earlier = new ArrayList<>();
+            for (Iterator<PriceHistory> it = retry.iterator(); it.hasNext(); ) {
+                PriceHistory pending = it.next();
+                if (pending.getPropertyId() == entry.getPropertyId()) {
+                    earlier.add(pending);
+                    it.remove();
+                }
+            }
+            for (Iterator<PriceHistory> it = queue.iterator(); it.hasNext(); ) {
+                PriceHistory pending = it.next();
+                if (pending.getPropertyId() == entry.getPropertyId()) {
+                    earlier.add(pending);
+                    it.remove();
+                }
+            }
+            List<PriceHistory> entries = new ArrayList<>(earlier);
+            entries.add(entry);
+            try {
+                priceHistoryDAO.insertAll(connection, entries);
+                connection.commit();
+            } catch (SQLException e) {
+                // The earlier changes are committed already, so they must not go down with this one
+                retry.addAll(0, earlier);
+                throw e;
+            }
+            written.addAndGet(earlier.size());
+            writtenDurably.incrementAndGet();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Write everything queued so far on the calling thread.
+     * If the database cannot be reached, the entries are kept for the next flush.
+     */
+    public void flush() {
+        writePending();
+    }
+
+    /**
+     * Stop the background writer and write everything still queued
+     * @param timeout Maximum time to wait for the writer to finish
+     * @return true if the queue was fully drained
+     */
+    public boolean shutdown(Duration timeout) {
+        if (!running) {
+            return queue.isEmpty() && !hasRetries();
+        }
+        running = false;
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM is already shutting down
+            }
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join(Math.max(1, timeout.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        return queue.isEmpty() && !hasRetries();
+    }
+
+    /**
+     * Get recorder statistics
+     * @return Recorder statistics
+     */
+    public RecorderStats getStats() {
+        return new RecorderStats(queue.size(), queued.get(), written.get(), writtenDurably.get(),
+                failed.get(), batches.get());
+    }
+
+    private void runWriter() {
+        boolean reachable = true;
+        while (running) {
+            if (!reachable || queue.size() < maxBatchSize) {
+                // Woken early by enqueue() once a full batch is waiting
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            reachable = writePending();
+        }
+    }
+
+    /**
+     * Write retried entries and then the queue, in order, on one connection.
+     * The connection is taken before flushLock, as in every other writer.
+     * @return false if the database could not be reached
+     */
+    private boolean writePending() {
+        if (queue.isEmpty() && !hasRetries()) {
+            return true;
+        }
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            flushLock.lock();
+            try {
+                if (!retry.isEmpty()) {
+                    List<PriceHistory> pending = new ArrayList<>(retry);
+                    retry.clear();
+                    if (!writeBatch(connection, pending)) {
+                        return false;
+                    }
+                }
+                List<PriceHistory> batch = new ArrayList<>(maxBatchSize);
+                while (queue.drainTo(batch, maxBatchSize) > 0) {
+                    if (!writeBatch(connection, batch)) {
+                        return false;
+                    }
+                    batch.clear();
+                }
+                return true;
+            } finally {
+                flushLock.unlock();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting a connection to write price history: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean hasRetries() {
+        flushLock.lock();
+        try {
+            return !retry.isEmpty();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Write entries in their own transaction, falling back to one row at a time if the batch fails.
+     * Callers hold flushLock.
+     * @return false if the connection failed; the unwritten entries are then kept for retry
+     */
+    private boolean writeBatch(Connection connection, List<PriceHistory> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+        batches.incrementAndGet();
+        try {
+            written.addAndGet(priceHistoryDAO.insertAll(connection, entries));
+            connection.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error writing " + entries.size() + " price history entries: " + e.getMessage());
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                System.err.println("Error rolling back price history batch: " + e.getMessage());
+                retry.addAll(entries.subList(i, entries.size()));
+                return false;
+            }
+            try {
+                written.addAndGet(priceHistoryDAO.insertAll(connection, Collections.singletonList(entries.get(i))));
+                connection.commit();
+            } catch (SQLException e) {
+                // The row itself was rejected; retrying would fail the same way
+                failed.incrementAndGet();
+                System.err.println("Error writing price history entry for property " +
+                        entries.get(i).getPropertyId() + ": " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recorder statistics class
+     */
+    public static class RecorderStats {
+        private final int queueDepth;
+        private final long queued;
+        private final long written;
+        private final long writtenDurably;
+        private final long failed;
+        private final long batches;
+
+        public RecorderStats(int queueDepth, long queued, long written, long writtenDurably,
+                             long failed, long batches) {
+            this.queueDepth = queueDepth;
+            this.queued = queued;
+            this.written = written;
+            this.writtenDurably = writtenDurably;
+            this.failed = failed;
+            this.batches = batches;
+        }
+
+        public int getQueueDepth() { return queueDepth; }
+        public long getQueued() { return queued; }
+        public long getWritten() { return written; }
+        public long getWrittenDurably() { return writtenDurably; }
+        public long getFailed() { return failed; }
+        public long getBatches() { return batches; }
+
+        @Override
+        public String toString() {
+            return "RecorderStats{" +
+                    "queueDepth=" + queueDepth +
+                    ", queued=" + queued +
+                    ", written=" + written +
+                    ", writtenDurably=" + writtenDurably +
+                    ", failed=" + failed +
+                    ", batches=" + batches +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.propertyportal.dao;
+
+import com.propertyportal.model.Property;
+
+/**
+ * Callback for committed writes made through {@link PropertyDAO}.
+ * Events fire after the transaction commits; implement only the ones you need.
+ */
+public interface PropertyChangeListener {
+
+    /**
+     * Property inserted
+     * @param property Created property with its generated ID
+     */
+    default void propertyCreated(Property property) {}
+
+    /**
+     * Property fully updated
+     * @param property Property as written
+     */
+    default void propertyUpdated(Property property) {}
+
+    /**
+     * Property status changed
+     * @param propertyId Property ID
+     * @param status New status
+     */
+    default void statusChanged(int propertyId, Property.PropertyStatus status) {}
+
+    /**
+     * Property price changed
+     * @param propertyId Property ID
+     * @param newPrice New price
+     */
+    default void priceChanged(int propertyId, long newPrice) {}
+
+    /**
+     * Property deleted
+     * @param propertyId Property ID
+     */
+    default void propertyDeleted(int propertyId) {}
+}
@@ -0,0 +1,224 @@
+package com.propertyportal.dao;
+
+import com.propertyportal.model.Property;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes Property writes made by other nodes to this node's
+ * {@link PropertyChangeListener}s, so in-process caches and indexes stay
+ * current without reloading. Changed rows are read in (updatedAt, id) order
+ * from a watermark, and deletes from the propertyTombstone rows that
+ * PropertyDAO.delete() writes in (deletedAt, id) order from a second
+ * watermark, both in pages of a fixed size. Changed rows are published as
+ * propertyUpdated with the full row, deletes as propertyDeleted.
+ * Only rows older than a settle delay (by the database clock) are read, so
+ * a transaction that commits a little after its NOW() is not skipped by a
+ * watermark that has already moved past it. This node's own writes come
+ * back through the poller once more; listeners treat both events as
+ * idempotent.
+ */
+public class PropertyChangePoller {
+
+    /** How long delete tombstones are kept; readers catching up from further back must reload in full */
+    public static final Duration TOMBSTONE_RETENTION = Duration.ofDays(7);
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final PropertyDAO propertyDAO;
+    private final int batchSize;
+    private final Duration settleDelay;
+    private final ScheduledExecutorService poller;
+    private final Object lock = new Object();
+
+    // Both watermarks start at the first poll's settle cutoff; changes before then are in the caches' own loads
+    private LocalDateTime rowWatermark;
+    private int rowWatermarkId;
+    private LocalDateTime tombstoneWatermark;
+    private long tombstoneWatermarkId;
+    private long lastPurgeNanos = System.nanoTime();
+
+    private final AtomicLong polls = new AtomicLong();
+    private final AtomicLong updatesPublished = new AtomicLong();
+    private final AtomicLong deletesPublished = new AtomicLong();
+    private final AtomicLong failedPolls = new AtomicLong();
+    private final AtomicLong totalPollNanos = new AtomicLong();
+
+    /**
+     * Create the poller and start polling in the background
+     * @param propertyDAO DAO whose listeners receive the changes
+     * @param pollInterval Time between polls
+     * @param batchSize Rows read per query; a poll reads pages until one comes back short
+     * @param settleDelay How far behind the database clock the poller reads
+     */
+    public PropertyChangePoller(PropertyDAO propertyDAO, Duration pollInterval, int batchSize, Duration settleDelay) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.propertyDAO = propertyDAO;
+        this.batchSize = batchSize;
+        this.settleDelay = settleDelay;
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "property-change-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, pollInterval.toMillis());
+        poller.scheduleWithFixedDelay(this::pollQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Read and publish every settled change since the last poll
+     * @return Number of updates and deletes published
+     */
+    public int poll() {
+        synchronized (lock) {
+            long start = System.nanoTime();
+            Optional<LocalDateTime> databaseTime = propertyDAO.findDatabaseTime();
+            if (!databaseTime.isPresent()) {
+                failedPolls.incrementAndGet();
+                return 0;
+            }
+            LocalDateTime cutoff = databaseTime.get().minus(settleDelay);
+            polls.incrementAndGet();
+            if (rowWatermark == null) {
+                rowWatermark = cutoff;
+                tombstoneWatermark = cutoff;
+                return 0;
+            }
+
+            int published = publishUpdates(cutoff) + publishDeletes(cutoff);
+            if (start - lastPurgeNanos > PURGE_INTERVAL_NANOS) {
+                propertyDAO.purgeTombstones(cutoff.minus(TOMBSTONE_RETENTION));
+                lastPurgeNanos = start;
+            }
+            totalPollNanos.addAndGet(System.nanoTime() - start);
+            return published;
+        }
+    }
+
+    /**
+     * Stop polling
+     */
+    public void shutdown() {
+        poller.shutdown();
+    }
+
+    /**
+     * Get poller statistics
+     * @return Poll counts, published changes and watermarks
+     */
+    public PollerStats getStats() {
+        LocalDateTime rows;
+        LocalDateTime tombstones;
+        synchronized (lock) {
+            rows = rowWatermark;
+            tombstones = tombstoneWatermark;
+        }
+        long pollCount = polls.get();
+        return new PollerStats(
+            pollCount,
+            updatesPublished.get(),
+            deletesPublished.get(),
+            failedPolls.get(),
+            pollCount == 0 ? 0 : totalPollNanos.get() / pollCount / 1000,
+            rows,
+            tombstones
+        );
+    }
+
+    // Callers must hold lock
+
+    private int publishUpdates(LocalDateTime cutoff) {
+        int published = 0;
+        List<Property> page;
+        do {
+            page = propertyDAO.findUpdatedPage(rowWatermark, rowWatermarkId, cutoff, batchSize);
+            for (Property property : page) {
+                propertyDAO.publishUpdated(property);
+                rowWatermark = property.getUpdatedAt();
+                rowWatermarkId = property.getId();
+            }
+            published += page.size();
+        } while (page.size() == batchSize);
+        updatesPublished.addAndGet(published);
+        return published;
+    }
+
+    private int publishDeletes(LocalDateTime cutoff) {
+        int published = 0;
+        List<PropertyDAO.Tombstone> page;
+        do {
+            page = propertyDAO.findTombstonePage(tombstoneWatermark, tombstoneWatermarkId, cutoff, batchSize);
+            for (PropertyDAO.Tombstone tombstone : page) {
+                propertyDAO.publishDeleted(tombstone.getPropertyId());
+                tombstoneWatermark = tombstone.getDeletedAt();
+                tombstoneWatermarkId = tombstone.getId();
+            }
+            published += page.size();
+        } while (page.size() == batchSize);
+        deletesPublished.addAndGet(published);
+        return published;
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            // A failure must not cancel the schedule
+            failedPolls.incrementAndGet();
+            System.err.println("Error polling property changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Change poller statistics class
+     */
+    public static class PollerStats {
+        private final long polls;
+        private final long updatesPublished;
+        private final long deletesPublished;
+        private final long failedPolls;
+        private final long avgPollMicros;
+        private final LocalDateTime rowWatermark;
+        private final LocalDateTime tombstoneWatermark;
+
+        public PollerStats(long polls, long updatesPublished, long deletesPublished, long failedPolls,
+                           long avgPollMicros, LocalDateTime rowWatermark, LocalDateTime tombstoneWatermark) {
+            this.polls = polls;
+            this.updatesPublished = updatesPublished;
+            this.deletesPublished = deletesPublished;
+            this.failedPolls = failedPolls;
+            this.avgPollMicros = avgPollMicros;
+            this.rowWatermark = rowWatermark;
+            this.tombstoneWatermark = tombstoneWatermark;
+        }
+
+        public long getPolls() { return polls; }
+        public long getUpdatesPublished() { return updatesPublished; }
+        public long getDeletesPublished() { return deletesPublished; }
+        public long getFailedPolls() { return failedPolls; }
+        public long getAvgPollMicros() { return avgPollMicros; }
+        public LocalDateTime getRowWatermark() { return rowWatermark; }
+        public LocalDateTime getTombstoneWatermark() { return tombstoneWatermark; }
+
+        @Override
+        public String toString() {
+            return "PollerStats{" +
+                    "polls=" + polls +
+                    ", updatesPublished=" + updatesPublished +
+                    ", deletesPublished=" + deletesPublished +
+                    ", failedPolls=" + failedPolls +
+                    ", avgPollMicros=" + avgPollMicros +
+                    ", rowWatermark=" + rowWatermark +
+                    ", tombstoneWatermark=" + tombstoneWatermark +
+                    '}';
+        }
+    }
+}
@@ -1,411 +1,1641 @@
 package com.propertyportal.dao;
 
 import com.propertyportal.DatabaseConnection;
+import com.propertyportal.metrics.Metrics;
+import com.propertyportal.model.PriceHistory;
 import com.propertyportal.model.Property;
+import com.propertyportal.model.PropertySummary;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Data Access Object for Property entity
  */
 public class PropertyDAO {
     
+    private static final String STATISTICS_COLUMNS =
+                    "COUNT(*) as totalProperties, " +
+                    "COUNT(CASE WHEN status = 'available' THEN 1 END) as availableProperties, " +
+                    "COUNT(CASE WHEN status = 'under_offer' THEN 1 END) as underOfferProperties, " +
+                    "COUNT(CASE WHEN status = 'sold' THEN 1 END) as soldProperties, " +
+                    "AVG(currentPrice) as avgPrice, " +
+                    "MIN(currentPrice) as minPrice, " +
+                    "MAX(currentPrice) as maxPrice";
+    
+    // Tells MySQL Connector/J to stream rows one at a time instead of buffering the result
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    
+    // Card-level columns for list pages; leaves out the description TEXT column
+    private static final String SUMMARY_COLUMNS =
+                    "id, title, address, neighborhood, region, propertyType, listingDate, currentPrice, status";
+    
+    private static final String ANALYTICS_COLUMNS =
+                    "id, neighborhood, region, propertyType, listingDate, currentPrice, status, soldDate, updatedAt";
+    
+    private static final int PRICE_LOCK_STRIPES = 64;
+    // IN-list sizes used by findByIds, so a handful of statements cover every list length
+    private static final int[] ID_LOOKUP_SIZES = {10, 100, 500};
+    
+    private final List<PropertyChangeListener> listeners = new CopyOnWriteArrayList<>();
+    
+    // Serializes price writes per property so history entries are queued in commit order
+    private final ReentrantLock[] priceLocks = new ReentrantLock[PRICE_LOCK_STRIPES];
+    private volatile PriceHistoryRecorder priceHistoryRecorder;
+    
+    public PropertyDAO() {
+        for (int i = 0; i < priceLocks.length; i++) {
+            priceLocks[i] = new ReentrantLock();
+        }
+    }
+    
+    /**
+     * Register a listener for committed property writes
+     * @param listener Listener to add
+     */
+    public void addChangeListener(PropertyChangeListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Unregister a property write listener
+     * @param listener Listener to remove
+     */
+    public void removeChangeListener(PropertyChangeListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Record listing, price update and sale prices to propertyPriceHistory
+     * @param recorder Recorder to use, or null to stop recording
+     */
+    public void setPriceHistoryRecorder(PriceHistoryRecorder recorder) {
+        this.priceHistoryRecorder = recorder;
+    }
+    
+    /**
+     * Create a new property
+     * @param property Property to create
+     * @return Created property with ID
+     */
+    public Optional<Property> create(Property property) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.create");
+        try (timer) {
+            String sql = "INSERT INTO Property (title, description, address, neighborhood, region, propertyType, " +
+                        "listingDate, currentPrice, status, createdAt, updatedAt) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())";
+            
+            boolean created = false;
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                stmt.setString(1, property.getTitle());
+                stmt.setString(2, property.getDescription());
+                stmt.setString(3, property.getAddress());
+                stmt.setString(4, property.getNeighborhood());
+                stmt.setString(5, property.getRegion());
+                stmt.setString(6, property.getPropertyType().getValue());
+                stmt.setTimestamp(7, Timestamp.valueOf(property.getListingDate()));
+                stmt.setLong(8, property.getCurrentPrice());
+                stmt.setString(9, property.getStatus().getValue());
+                
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows > 0) {
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            property.setId(rs.getInt(1));
+                            connection.commit();
+                            created = true;
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error creating property: " + e.getMessage());
+            }
+            if (!created) {
+                return Optional.empty();
+            }
+            // Queued only once the connection is back, as the recorder may need one to make room
+            recordPrice(property.getId(), property.getCurrentPrice(), PriceHistory.PriceType.LISTING);
+            publish(listener -> listener.propertyCreated(property));
+            return Optional.of(property);
+        }
+    }
+    
+    /**
+     * Create many properties using JDBC batching, committing once per chunk
+     * @param properties Properties to create
+     * @return Created properties (with IDs) and per-row failures
+     */
+    public BulkInsertResult createAll(Collection<Property> properties) {
+        return createAll(properties, DEFAULT_BATCH_SIZE);
+    }
+    
+    /**
+     * Create many properties using JDBC batching, committing once per chunk.
+     * If a chunk fails as a whole it is retried row by row, so one bad row only
+     * fails itself instead of the entire load.
+     * @param properties Properties to create
+     * @param batchSize Rows per batch and per commit
+     * @return Created properties (with IDs) and per-row failures
+     */
+    public BulkInsertResult createAll(Collection<Property> properties, int batchSize) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.createAll");
+        try (timer) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+            }
+            String sql = "INSERT INTO Property (title, description, address, neighborhood, region, propertyType, " +
+                        "listingDate, currentPrice, status, createdAt, updatedAt) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())";
+            List<Property> created = new ArrayList<>(properties.size());
+            List<BulkInsertResult.RowFailure> failures = new ArrayList<>();
+            List<Property> all = new ArrayList<>(properties);
+            int processed = 0;
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                
+                for (int chunkStart = 0; chunkStart < all.size(); chunkStart += batchSize) {
+                    int chunkEnd = Math.min(chunkStart + batchSize, all.size());
+                    List<Property> chunkCreated = insertChunk(connection, stmt, all, chunkStart, chunkEnd, failures);
+                    created.addAll(chunkCreated);
+                    processed = chunkEnd;
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error bulk creating properties: " + e.getMessage());
+                // The chunk in flight was rolled back; everything from it onwards failed
+                int firstUnprocessed = processed;
+                failures.removeIf(failure -> failure.getIndex() >= firstUnprocessed);
+                for (int i = firstUnprocessed; i < all.size(); i++) {
+                    failures.add(new BulkInsertResult.RowFailure(i, all.get(i), e.getMessage()));
+                }
+            }
+            for (Property property : created) {
+                recordPrice(property.getId(), property.getCurrentPrice(), PriceHistory.PriceType.LISTING);
+                publish(listener -> listener.propertyCreated(property));
+            }
+            return new BulkInsertResult(created, failures);
+        }
+    }
+    
+    /**
+     * Find property by ID
+     * @param id Property ID
+     * @return Optional containing property if found
+     */
+    public Optional<Property> findById(int id) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findById");
+        try (timer) {
+            String sql = "SELECT * FROM Property WHERE id = ?";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setInt(1, id);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        Metrics.recordRow();
+                        Property property = ResultSetMappers.property(rs).map(rs);
+                        return Optional.of(property);
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding property by ID " + id + ": " + e.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Find properties by ID, a few hundred per query. Each query uses one of
+     * a few fixed IN-list sizes, padded with a repeated ID, so the statement
+     * text stays the same across calls.
+     * @param ids Property IDs
+     * @return Properties found, in the order of the given IDs
+     */
+    public List<Property> findByIds(List<Integer> ids) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findByIds");
+        try (timer) {
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            int maxChunk = ID_LOOKUP_SIZES[ID_LOOKUP_SIZES.length - 1];
+            Map<Integer, Property> byId = new HashMap<>();
+            for (int chunkStart = 0; chunkStart < ids.size(); chunkStart += maxChunk) {
+                List<Integer> chunk = ids.subList(chunkStart, Math.min(chunkStart + maxChunk, ids.size()));
+                int size = maxChunk;
+                for (int candidate : ID_LOOKUP_SIZES) {
+                    if (candidate >= chunk.size()) {
+                        size = candidate;
+                        break;
+                    }
+                }
+                int inListSize = size;
+                String placeholders = String.join(", ", Collections.nCopies(inListSize, "?"));
+                String sql = "SELECT * FROM Property WHERE id IN (" + placeholders + ")";
+                
+                List<Property> rows = queryList(sql, stmt -> {
+                    for (int i = 0; i < inListSize; i++) {
+                        stmt.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                    }
+                }, ResultSetMappers::property, "Error finding " + chunk.size() + " properties by ID");
+                for (Property property : rows) {
+                    byId.put(property.getId(), property);
+                }
+            }
+            List<Property> properties = new ArrayList<>(byId.size());
+            for (int id : ids) {
+                Property property = byId.get(id);
+                if (property != null) {
+                    properties.add(property);
+                }
+            }
+            return properties;
+        }
+    }
+    
+    /**
+     * Find all properties
+     * @return List of all properties
+     */
+    public List<Property> findAll() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findAll");
+        try (timer) {
+            String sql = "SELECT * FROM Property ORDER BY listingDate DESC";
+            List<Property> properties = new ArrayList<>();
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                RowMapper<Property> mapper = ResultSetMappers.property(rs);
+                while (rs.next()) {
+                    Metrics.recordRow();
+                    properties.add(mapper.map(rs));
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding all properties: " + e.getMessage());
+            }
+            return properties;
+        }
+    }
+    
+    /**
+     * Find active listings
+     * @return List of available properties
+     */
+    public List<Property> findActiveListings() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findActiveListings");
+        try (timer) {
+            String sql = "SELECT * FROM Property WHERE status = 'available' ORDER BY listingDate DESC";
+            List<Property> properties = new ArrayList<>();
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                RowMapper<Property> mapper = ResultSetMappers.property(rs);
+                while (rs.next()) {
+                    Metrics.recordRow();
+                    properties.add(mapper.map(rs));
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding active listings: " + e.getMessage());
+            }
+            return properties;
+        }
+    }
+    
+    /**
+     * Find properties by neighborhood
+     * @param neighborhood Neighborhood to search
+     * @return List of properties in neighborhood
+     */
+    public List<Property> findByNeighborhood(String neighborhood) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findByNeighborhood");
+        try (timer) {
+            String sql = "SELECT * FROM Property WHERE neighborhood = ? ORDER BY listingDate DESC";
+            List<Property> properties = new ArrayList<>();
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setString(1, neighborhood);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<Property> mapper = ResultSetMappers.property(rs);
+                    while (rs.next()) {
+                        Metrics.recordRow();
+                        properties.add(mapper.map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding properties by neighborhood '" + neighborhood + "': " + e.getMessage());
+            }
+            return properties;
+        }
+    }
+    
+    /**
+     * Find properties by property type
+     * @param propertyType Property type to search
+     * @return List of properties of specified type
+     */
+    public List<Property> findByPropertyType(Property.PropertyType propertyType) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findByPropertyType");
+        try (timer) {
+            String sql = "SELECT * FROM Property WHERE propertyType = ? ORDER BY listingDate DESC";
+            List<Property> properties = new ArrayList<>();
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setString(1, propertyType.getValue());
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<Property> mapper = ResultSetMappers.property(rs);
+                    while (rs.next()) {
+                        Metrics.recordRow();
+                        properties.add(mapper.map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding properties by type '" + propertyType + "': " + e.getMessage());
+            }
+            return properties;
+        }
+    }
+    
+    /**
+     * Find the IDs of properties in a neighborhood, for callers that resolve rows through a cache
+     * @param neighborhood Neighborhood to search
+     * @return Property IDs, newest listing first
+     */
+    public List<Integer> findIdsByNeighborhood(String neighborhood) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findIdsByNeighborhood");
+        try (timer) {
+            String sql = "SELECT id FROM Property WHERE neighborhood = ? ORDER BY listingDate DESC";
+            return queryList(sql, stmt -> stmt.setString(1, neighborhood), rs -> row -> row.getInt(1),
+                    "Error finding property IDs by neighborhood '" + neighborhood + "'");
+        }
+    }
+    
+    /**
+     * Find the IDs of properties of a type, for callers that resolve rows through a cache
+     * @param propertyType Property type to search
+     * @return Property IDs, newest listing first
+     */
+    public List<Integer> findIdsByPropertyType(Property.PropertyType propertyType) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findIdsByPropertyType");
+        try (timer) {
+            String sql = "SELECT id FROM Property WHERE propertyType = ? ORDER BY listingDate DESC";
+            return queryList(sql, stmt -> stmt.setString(1, propertyType.getValue()), rs -> row -> row.getInt(1),
+                    "Error finding property IDs by type '" + propertyType + "'");
+        }
+    }
+    
+    /**
+     * Search properties by text (full-text search)
+     * @param searchText Text to search for
+     * @return List of matching properties
+     */
+    public List<Property> searchByText(String searchText) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.searchByText");
+        try (timer) {
+            String sql = "SELECT * FROM Property WHERE MATCH(title, description, neighborhood, region) AGAINST(? IN BOOLEAN MODE) " +
+                        "ORDER BY listingDate DESC";
+            List<Property> properties = new ArrayList<>();
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setString(1, searchText);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<Property> mapper = ResultSetMappers.property(rs);
+                    while (rs.next()) {
+                        Metrics.recordRow();
+                        properties.add(mapper.map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error searching properties by text '" + searchText + "': " + e.getMessage());
+            }
+            return properties;
+        }
+    }
+    
+    /**
+     * Find properties by price range
+     * @param minPrice Minimum price
+     * @param maxPrice Maximum price
+     * @return List of properties in price range
+     */
+    public List<Property> findByPriceRange(long minPrice, long maxPrice) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findByPriceRange");
+        try (timer) {
+            String sql = "SELECT * FROM Property WHERE currentPrice BETWEEN ? AND ? ORDER BY currentPrice ASC";
+            List<Property> properties = new ArrayList<>();
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setLong(1, minPrice);
+                stmt.setLong(2, maxPrice);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    RowMapper<Property> mapper = ResultSetMappers.property(rs);
+                    while (rs.next()) {
+                        Metrics.recordRow();
+                        properties.add(mapper.map(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding properties by price range " + minPrice + " - " + maxPrice + ": " + e.getMessage());
+            }
+            return properties;
+        }
+    }
+    
+    // ==================== KEYSET PAGINATION ====================
+    
+    /**
+     * Find one page of all properties, newest listing first.
+     * Pass the listingDate and id of the last row of the previous page to fetch the next one.
+     * @param afterListingDate listingDate of the last row seen, or null for the first page
+     * @param afterId id of the last row seen
+     * @param limit Maximum rows to return
+     * @return Page of properties
+     */
+    public List<Property> findAllPage(LocalDateTime afterListingDate, int afterId, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findAllPage");
+        try (timer) {
+            String sql = afterListingDate == null
+                    ? "SELECT * FROM Property ORDER BY listingDate DESC, id DESC LIMIT ?"
+                    : "SELECT * FROM Property WHERE (listingDate, id) < (?, ?) ORDER BY listingDate DESC, id DESC LIMIT ?";
+            
+            return queryList(sql, stmt -> bindListingCursor(stmt, 1, afterListingDate, afterId, limit),
+                    ResultSetMappers::property, "Error finding properties page");
+        }
+    }
+    
+    /**
+     * Find one page of active listings, newest listing first (served from idxPropertyStatusListingDate)
+     * @param afterListingDate listingDate of the last row seen, or null for the first page
+     * @param afterId id of the last row seen
+     * @param limit Maximum rows to return
+     * @return Page of available properties
+     */
+    public List<Property> findActiveListingsPage(LocalDateTime afterListingDate, int afterId, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findActiveListingsPage");
+        try (timer) {
+            String sql = afterListingDate == null
+                    ? "SELECT * FROM Property WHERE status = 'available' ORDER BY listingDate DESC, id DESC LIMIT ?"
+                    : "SELECT * FROM Property WHERE status = 'available' AND (listingDate, id) < (?, ?) " +
+                      "ORDER BY listingDate DESC, id DESC LIMIT ?";
+            
+            return queryList(sql, stmt -> bindListingCursor(stmt, 1, afterListingDate, afterId, limit),
+                    ResultSetMappers::property, "Error finding active listings page");
+        }
+    }
+    
+    /**
+     * Find one page of properties in a neighborhood, newest listing first
+     * @param neighborhood Neighborhood to search
+     * @param afterListingDate listingDate of the last row seen, or null for the first page
+     * @param afterId id of the last row seen
+     * @param limit Maximum rows to return
+     * @return Page of properties in neighborhood
+     */
+    public List<Property> findByNeighborhoodPage(String neighborhood, LocalDateTime afterListingDate, int afterId, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findByNeighborhoodPage");
+        try (timer) {
+            String sql = afterListingDate == null
+                    ? "SELECT * FROM Property WHERE neighborhood = ? ORDER BY listingDate DESC, id DESC LIMIT ?"
+                    : "SELECT * FROM Property WHERE neighborhood = ? AND (listingDate, id) < (?, ?) " +
+                      "ORDER BY listingDate DESC, id DESC LIMIT ?";
+            
+            return queryList(sql, stmt -> {
+                stmt.setString(1, neighborhood);
+                bindListingCursor(stmt, 2, afterListingDate, afterId, limit);
+            }, ResultSetMappers::property, "Error finding properties page by neighborhood '" + neighborhood + "'");
+        }
+    }
+    
+    /**
+     * Find one page of properties of a type, newest listing first
+     * @param propertyType Property type to search
+     * @param afterListingDate listingDate of the last row seen, or null for the first page
+     * @param afterId id of the last row seen
+     * @param limit Maximum rows to return
+     * @return Page of properties of specified type
+     */
+    public List<Property> findByPropertyTypePage(Property.PropertyType propertyType, LocalDateTime afterListingDate,
+                                                 int afterId, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findByPropertyTypePage");
+        try (timer) {
+            String sql = afterListingDate == null
+                    ? "SELECT * FROM Property WHERE propertyType = ? ORDER BY listingDate DESC, id DESC LIMIT ?"
+                    : "SELECT * FROM Property WHERE propertyType = ? AND (listingDate, id) < (?, ?) " +
+                      "ORDER BY listingDate DESC, id DESC LIMIT ?";
+            
+            return queryList(sql, stmt -> {
+                stmt.setString(1, propertyType.getValue());
+                bindListingCursor(stmt, 2, afterListingDate, afterId, limit);
+            }, ResultSetMappers::property, "Error finding properties page by type '" + propertyType + "'");
+        }
+    }
+    
+    /**
+     * Find one page of properties in a price range, cheapest first (served from idxPropertyPrice)
+     * @param minPrice Minimum price
+     * @param maxPrice Maximum price
+     * @param afterPrice currentPrice of the last row seen, or null for the first page
+     * @param afterId id of the last row seen
+     * @param limit Maximum rows to return
+     * @return Page of properties in price range
+     */
+    public List<Property> findByPriceRangePage(long minPrice, long maxPrice, Long afterPrice, int afterId, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findByPriceRangePage");
+        try (timer) {
+            String sql = afterPrice == null
+                    ? "SELECT * FROM Property WHERE currentPrice BETWEEN ? AND ? ORDER BY currentPrice ASC, id ASC LIMIT ?"
+                    : "SELECT * FROM Property WHERE currentPrice BETWEEN ? AND ? AND (currentPrice, id) > (?, ?) " +
+                      "ORDER BY currentPrice ASC, id ASC LIMIT ?";
+            
+            return queryList(sql, stmt -> {
+                stmt.setLong(1, minPrice);
+                stmt.setLong(2, maxPrice);
+                int index = 3;
+                if (afterPrice != null) {
+                    stmt.setLong(index++, afterPrice);
+                    stmt.setInt(index++, afterId);
+                }
+                stmt.setInt(index, limit);
+            }, ResultSetMappers::property, "Error finding properties page by price range " + minPrice + " - " + maxPrice);
+        }
+    }
+    
+    /**
+     * Find one batch of the columns used by analytics (ID, neighborhood, region, type,
+     * listing date, price, status, sold date, updatedAt) in ID order, for loading in-memory
+     * snapshots. Other fields are left unset.
+     * @param afterId ID of the last row seen, or 0 for the first batch
+     * @param limit Maximum rows to return
+     * @return Batch of partially populated properties
+     */
+    public List<Property> findAnalyticsEntries(int afterId, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findAnalyticsEntries");
+        try (timer) {
+            String sql = "SELECT " + ANALYTICS_COLUMNS + " FROM Property WHERE id > ? ORDER BY id ASC LIMIT ?";
+            
+            return queryList(sql, stmt -> {
+                stmt.setInt(1, afterId);
+                stmt.setInt(2, limit);
+            }, ResultSetMappers::property, "Error finding analytics entries after ID " + afterId);
+        }
+    }
+    
+    /**
+     * Find one batch of analytics columns for rows written at or after a time, in ID order
+     * (served from idxPropertyUpdatedAt)
+     * @param since Earliest updatedAt to include
+     * @param afterId ID of the last row seen, or 0 for the first batch
+     * @param limit Maximum rows to return
+     * @return Batch of partially populated properties
+     */
+    public List<Property> findAnalyticsEntriesUpdatedSince(LocalDateTime since, int afterId, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findAnalyticsEntriesUpdatedSince");
+        try (timer) {
+            String sql = "SELECT " + ANALYTICS_COLUMNS + " FROM Property WHERE updatedAt >= ? AND id > ? " +
+                        "ORDER BY id ASC LIMIT ?";
+            
+            return queryList(sql, stmt -> {
+                stmt.setTimestamp(1, Timestamp.valueOf(since));
+                stmt.setInt(2, afterId);
+                stmt.setInt(3, limit);
+            }, ResultSetMappers::property, "Error finding analytics entries updated since " + since);
+        }
+    }
+    
+    /**
+     * Get the latest updatedAt over all properties (served from idxPropertyUpdatedAt)
+     * @return Latest write time, or empty if the table is empty or the query failed
+     */
+    public Optional<LocalDateTime> findLatestUpdate() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findLatestUpdate");
+        try (timer) {
+            String sql = "SELECT MAX(updatedAt) as latestUpdate FROM Property";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                if (rs.next()) {
+                    Metrics.recordRow();
+                    return Optional.ofNullable(rs.getObject("latestUpdate", LocalDateTime.class));
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding latest property update: " + e.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Count all properties
+     * @return Number of properties, or -1 if the query failed
+     */
+    public int count() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.count");
+        try (timer) {
+            String sql = "SELECT COUNT(*) as total FROM Property";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                if (rs.next()) {
+                    Metrics.recordRow();
+                    return rs.getInt("total");
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error counting properties: " + e.getMessage());
+            }
+            return -1;
+        }
+    }
+    
+    // ==================== SUMMARY PROJECTIONS ====================
+    
+    /**
+     * Find active listing summaries (no description column)
+     * @return List of available property summaries
+     */
+    public List<PropertySummary> findActiveListingSummaries() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findActiveListingSummaries");
+        try (timer) {
+            String sql = "SELECT " + SUMMARY_COLUMNS + " FROM Property WHERE status = 'available' ORDER BY listingDate DESC";
+            return queryList(sql, stmt -> {}, ResultSetMappers::propertySummary, "Error finding active listing summaries");
+        }
+    }
+    
+    /**
+     * Find property summaries by neighborhood
+     * @param neighborhood Neighborhood to search
+     * @return List of property summaries in neighborhood
+     */
+    public List<PropertySummary> findSummariesByNeighborhood(String neighborhood) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findSummariesByNeighborhood");
+        try (timer) {
+            String sql = "SELECT " + SUMMARY_COLUMNS + " FROM Property WHERE neighborhood = ? ORDER BY listingDate DESC";
+            return queryList(sql, stmt -> stmt.setString(1, neighborhood), ResultSetMappers::propertySummary,
+                    "Error finding property summaries by neighborhood '" + neighborhood + "'");
+        }
+    }
+    
+    /**
+     * Find property summaries by property type
+     * @param propertyType Property type to search
+     * @return List of property summaries of specified type
+     */
+    public List<PropertySummary> findSummariesByPropertyType(Property.PropertyType propertyType) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findSummariesByPropertyType");
+        try (timer) {
+            String sql = "SELECT " + SUMMARY_COLUMNS + " FROM Property WHERE propertyType = ? ORDER BY listingDate DESC";
+            return queryList(sql, stmt -> stmt.setString(1, propertyType.getValue()), ResultSetMappers::propertySummary,
+                    "Error finding property summaries by type '" + propertyType + "'");
+        }
+    }
+    
+    /**
+     * Find property summaries by price range
+     * @param minPrice Minimum price
+     * @param maxPrice Maximum price
+     * @return List of property summaries in price range
+     */
+    public List<PropertySummary> findSummariesByPriceRange(long minPrice, long maxPrice) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findSummariesByPriceRange");
+        try (timer) {
+            String sql = "SELECT " + SUMMARY_COLUMNS + " FROM Property WHERE currentPrice BETWEEN ? AND ? ORDER BY currentPrice ASC";
+            return queryList(sql, stmt -> {
+                stmt.setLong(1, minPrice);
+                stmt.setLong(2, maxPrice);
+            }, ResultSetMappers::propertySummary, "Error finding property summaries by price range " + minPrice + " - " + maxPrice);
+        }
+    }
+    
+    /**
+     * Search property summaries by text (full-text search)
+     * @param searchText Text to search for
+     * @return List of matching property summaries
+     */
+    public List<PropertySummary> searchSummariesByText(String searchText) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.searchSummariesByText");
+        try (timer) {
+            String sql = "SELECT " + SUMMARY_COLUMNS + " FROM Property " +
+                        "WHERE MATCH(title, description, neighborhood, region) AGAINST(? IN BOOLEAN MODE) " +
+                        "ORDER BY listingDate DESC";
+            return queryList(sql, stmt -> stmt.setString(1, searchText), ResultSetMappers::propertySummary,
+                    "Error searching property summaries by text '" + searchText + "'");
+        }
+    }
+    
+    /**
+     * Load the description of a single property on demand
+     * @param id Property ID
+     * @return Description if the property exists
+     */
+    public Optional<String> findDescription(int id) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findDescription");
+        try (timer) {
+            String sql = "SELECT description FROM Property WHERE id = ?";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setInt(1, id);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        Metrics.recordRow();
+                        return Optional.ofNullable(rs.getString("description"));
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error finding description for property " + id + ": " + e.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+    
+    // ==================== CHANGE CAPTURE ====================
+    
+    /**
+     * Find one page of properties written in a time window, in (updatedAt, id) order
+     * (served from idxPropertyUpdatedAt)
+     * @param afterUpdatedAt updatedAt of the last row seen
+     * @param afterId id of the last row seen
+     * @param before Exclusive upper bound on updatedAt
+     * @param limit Maximum rows to return
+     * @return Page of changed properties
+     */
+    public List<Property> findUpdatedPage(LocalDateTime afterUpdatedAt, int afterId, LocalDateTime before, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findUpdatedPage");
+        try (timer) {
+            String sql = "SELECT * FROM Property WHERE (updatedAt, id) > (?, ?) AND updatedAt < ? " +
+                        "ORDER BY updatedAt ASC, id ASC LIMIT ?";
+            
+            return queryList(sql, stmt -> {
+                stmt.setTimestamp(1, Timestamp.valueOf(afterUpdatedAt));
+                stmt.setInt(2, afterId);
+                stmt.setTimestamp(3, Timestamp.valueOf(before));
+                stmt.setInt(4, limit);
+            }, ResultSetMappers::property, "Error finding properties updated after " + afterUpdatedAt);
+        }
+    }
+    
+    /**
+     * Find one page of delete tombstones in a time window, in (deletedAt, id) order
+     * @param afterDeletedAt deletedAt of the last tombstone seen
+     * @param afterId id of the last tombstone seen
+     * @param before Exclusive upper bound on deletedAt
+     * @param limit Maximum tombstones to return
+     * @return Page of tombstones
+     */
+    public List<Tombstone> findTombstonePage(LocalDateTime afterDeletedAt, long afterId, LocalDateTime before, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findTombstonePage");
+        try (timer) {
+            String sql = "SELECT id, propertyId, deletedAt FROM propertyTombstone " +
+                        "WHERE (deletedAt, id) > (?, ?) AND deletedAt < ? ORDER BY deletedAt ASC, id ASC LIMIT ?";
+            
+            return queryList(sql, stmt -> {
+                stmt.setTimestamp(1, Timestamp.valueOf(afterDeletedAt));
+                stmt.setLong(2, afterId);
+                stmt.setTimestamp(3, Timestamp.valueOf(before));
+                stmt.setInt(4, limit);
+            }, rs -> row -> new Tombstone(
+                    row.getLong(1),
+                    row.getInt(2),
+                    row.getObject(3, LocalDateTime.class)
+            ), "Error finding property tombstones after " + afterDeletedAt);
+        }
+    }
+    
+    /**
+     * Delete tombstones older than a cutoff
+     * @param before Exclusive upper bound on deletedAt
+     * @return Number of tombstones deleted
+     */
+    public int purgeTombstones(LocalDateTime before) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.purgeTombstones");
+        try (timer) {
+            String sql = "DELETE FROM propertyTombstone WHERE deletedAt < ?";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setTimestamp(1, Timestamp.valueOf(before));
+                int deleted = stmt.executeUpdate();
+                connection.commit();
+                return deleted;
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error purging property tombstones: " + e.getMessage());
+            }
+            return 0;
+        }
+    }
+    
+    /**
+     * Get the database clock, so change windows are not skewed by the application clock
+     * @return Current database time, or empty if the query failed
+     */
+    public Optional<LocalDateTime> findDatabaseTime() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.findDatabaseTime");
+        try (timer) {
+            String sql = "SELECT NOW() as databaseTime";
+            
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                if (rs.next()) {
+                    Metrics.recordRow();
+                    return Optional.ofNullable(rs.getObject("databaseTime", LocalDateTime.class));
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error reading database time: " + e.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Publish a property written by another node to the change listeners
+     * @param property Property as read from the database
+     */
+    void publishUpdated(Property property) {
+        publish(listener -> listener.propertyUpdated(property));
+    }
+    
+    /**
+     * Publish a property deleted by another node to the change listeners
+     * @param propertyId Property ID
+     */
+    void publishDeleted(int propertyId) {
+        publish(listener -> listener.propertyDeleted(propertyId));
+    }
+    
+    // ==================== STREAMING ====================
+    
+    /**
+     * Stream all properties, newest listing first, in constant memory.
+     * Rows are read from a MySQL streaming result set while the stream is consumed;
+     * the stream holds a pooled connection and must be closed.
+     * @return Stream of properties
+     * @throws UncheckedSQLException if the query fails, or a row cannot be read while the stream is consumed
+     */
+    public Stream<Property> streamAll() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.streamAll");
+        try (timer) {
+            return streamQuery("SELECT * FROM Property ORDER BY listingDate DESC", stmt -> {},
+                    "Error streaming all properties");
+        }
+    }
+    
+    /**
+     * Stream active listings, newest listing first, in constant memory.
+     * The stream holds a pooled connection and must be closed.
+     * @return Stream of available properties
+     * @throws UncheckedSQLException if the query fails, or a row cannot be read while the stream is consumed
+     */
+    public Stream<Property> streamActiveListings() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.streamActiveListings");
+        try (timer) {
+            return streamQuery("SELECT * FROM Property WHERE status = 'available' ORDER BY listingDate DESC", stmt -> {},
+                    "Error streaming active listings");
+        }
+    }
+    
+    /**
+     * Stream properties in a price range, cheapest first, in constant memory.
+     * The stream holds a pooled connection and must be closed.
+     * @param minPrice Minimum price
+     * @param maxPrice Maximum price
+     * @return Stream of properties in price range
+     * @throws UncheckedSQLException if the query fails, or a row cannot be read while the stream is consumed
+     */
+    public Stream<Property> streamByPriceRange(long minPrice, long maxPrice) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.streamByPriceRange");
+        try (timer) {
+            return streamQuery("SELECT * FROM Property WHERE currentPrice BETWEEN ? AND ? ORDER BY currentPrice ASC", stmt -> {
+                stmt.setLong(1, minPrice);
+                stmt.setLong(2, maxPrice);
+            }, "Error streaming properties by price range " + minPrice + " - " + maxPrice);
+        }
+    }
+
+    /**
+     * Stream the ID, price and status of every property, cheapest first (ties by ID),
+     * for loading in-memory price indexes. Other fields are left unset.
+     * The stream holds a pooled connection and must be closed.
+     * @return Stream of partially populated properties
+     * @throws UncheckedSQLException if the query fails, or a row cannot be read while the stream is consumed
+     */
+    public Stream<Property> streamPriceEntries() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.streamPriceEntries");
+        try (timer) {
+            return streamQuery("SELECT id, currentPrice, status FROM Property ORDER BY currentPrice ASC, id ASC", stmt -> {},
+                    "Error streaming property prices");
+        }
+    }
+
+    /**
+     * Visit every property, newest listing first, without materializing the table
+     * @param consumer Callback invoked once per property
+     * @return Number of properties visited
+     * @throws UncheckedSQLException if the table cannot be read to the end
+     */
+    public long forEachProperty(Consumer<Property> consumer) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.forEachProperty");
+        try (timer) {
+            long count = 0;
+            try (Stream<Property> properties = streamAll()) {
+                Iterator<Property> it = properties.iterator();
+                while (it.hasNext()) {
+                    consumer.accept(it.next());
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+    
+    /**
+     * Update property, recording a price history entry if the price changed
+     * @param property Property to update
+     * @return true if update successful
+     */
+    public boolean update(Property property) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.update");
+        try (timer) {
+            String selectSql = "SELECT currentPrice FROM Property WHERE id = ? FOR UPDATE";
+            String sql = "UPDATE Property SET title = ?, description = ?, address = ?, neighborhood = ?, " +
+                        "region = ?, propertyType = ?, currentPrice = ?, status = ?, updatedAt = NOW() " +
+                        "WHERE id = ?";
+            
+            // A price change here is ordered and recorded like one made through updatePrice
+            ReentrantLock priceLock = priceLock(property.getId());
+            boolean updated = false;
+            PriceHistory history = null;
+            priceLock.lock();
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement selectStmt = connection.prepareStatement(selectSql);
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                selectStmt.setInt(1, property.getId());
+                long previousPrice;
+                try (ResultSet rs = selectStmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    Metrics.recordRow();
+                    previousPrice = rs.getLong(1);
+                }
+                
+                stmt.setString(1, property.getTitle());
+                stmt.setString(2, property.getDescription());
+                stmt.setString(3, property.getAddress());
+                stmt.setString(4, property.getNeighborhood());
+                stmt.setString(5, property.getRegion());
+                stmt.setString(6, property.getPropertyType().getValue());
+                stmt.setLong(7, property.getCurrentPrice());
+                stmt.setString(8, property.getStatus().getValue());
+                stmt.setInt(9, property.getId());
+                
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows > 0) {
+                    connection.commit();
+                    if (property.getCurrentPrice() != previousPrice) {
+                        history = new PriceHistory(property.getId(), property.getCurrentPrice(),
+                                PriceHistory.PriceType.UPDATED, null);
+                    }
+                    updated = true;
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error updating property " + property.getId() + ": " + e.getMessage());
+            } finally {
+                // The connection is already closed; queuing and notifying before unlocking keeps both in commit order
+                if (history != null) {
+                    enqueue(history);
+                }
+                if (updated) {
+                    publish(listener -> listener.propertyUpdated(property));
+                }
+                priceLock.unlock();
+            }
+            return updated;
+        }
+    }
+    
+    /**
+     * Update property status
+     * @param propertyId Property ID
+     * @param status New status
+     * @return true if update successful
+     */
+    public boolean updateStatus(int propertyId, Property.PropertyStatus status) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.updateStatus");
+        try (timer) {
+            String sql = "UPDATE Property SET status = ?, updatedAt = NOW() WHERE id = ?";
+            
+            boolean updated = false;
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setString(1, status.getValue());
+                stmt.setInt(2, propertyId);
+                
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows > 0) {
+                    connection.commit();
+                    updated = true;
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error updating property status " + propertyId + ": " + e.getMessage());
+            }
+            if (updated) {
+                publish(listener -> listener.statusChanged(propertyId, status));
+            }
+            return updated;
+        }
+    }
+    
+    /**
+     * Update property price
+     * @param propertyId Property ID
+     * @param newPrice New price
+     * @return true if update successful
+     */
+    public boolean updatePrice(int propertyId, long newPrice) {
+        return updatePrice(propertyId, newPrice, null, false);
+    }
+    
+    /**
+     * Update property price, optionally writing its history entry in the same transaction
+     * @param propertyId Property ID
+     * @param newPrice New price
+     * @param changedBy Agent making the change, or null for the property's primary agent
+     * @param durableHistory true to insert the history entry before commit instead of write-behind
+     * @return true if update successful
+     */
+    public boolean updatePrice(int propertyId, long newPrice, Integer changedBy, boolean durableHistory) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.updatePrice");
+        try (timer) {
+            String sql = "UPDATE Property SET currentPrice = ?, updatedAt = NOW() WHERE id = ?";
+            PriceHistory entry = new PriceHistory(propertyId, newPrice, PriceHistory.PriceType.UPDATED, changedBy);
+            
+            ReentrantLock priceLock = priceLock(propertyId);
+            boolean updated = false;
+            priceLock.lock();
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setLong(1, newPrice);
+                stmt.setInt(2, propertyId);
+                
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows > 0) {
+                    commit(connection, entry, durableHistory);
+                    updated = true;
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error updating property price " + propertyId + ": " + e.getMessage());
+            } finally {
+                // The connection is already closed; queuing and notifying before unlocking keeps both in commit order
+                if (updated) {
+                    if (!durableHistory) {
+                        enqueue(entry);
+                    }
+                    publish(listener -> listener.priceChanged(propertyId, newPrice));
+                }
+                priceLock.unlock();
+            }
+            return updated;
+        }
+    }
+    
     /**
-     * Create a new property
-     * @param property Property to create
-     * @return Created property with ID
+     * Mark property as sold, stamping soldDate and daysOnMarket
+     * @param propertyId Property ID
+     * @return Days on market if the property was marked sold, empty otherwise
      */
-    public Optional<Property> create(Property property) {
-        String sql = "INSERT INTO Property (title, description, address, neighborhood, region, propertyType, " +
-                    "listingDate, currentPrice, status, createdAt, updatedAt) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(), NOW())";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setString(1, property.getTitle());
-            stmt.setString(2, property.getDescription());
-            stmt.setString(3, property.getAddress());
-            stmt.setString(4, property.getNeighborhood());
-            stmt.setString(5, property.getRegion());
-            stmt.setString(6, property.getPropertyType().getValue());
-            stmt.setTimestamp(7, Timestamp.valueOf(property.getListingDate()));
-            stmt.setLong(8, property.getCurrentPrice());
-            stmt.setString(9, property.getStatus().getValue());
-            
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet rs = stmt.getGeneratedKeys()) {
+    public OptionalLong markSold(int propertyId) {
+        return markSold(propertyId, null, false);
+    }
+    
+    /**
+     * Mark property as sold, stamping soldDate and daysOnMarket and recording the sale price
+     * @param propertyId Property ID
+     * @param changedBy Agent closing the sale, or null for the property's primary agent
+     * @param durableHistory true to insert the history entry before commit instead of write-behind
+     * @return Days on market if the property was marked sold, empty otherwise
+     */
+    public OptionalLong markSold(int propertyId, Integer changedBy, boolean durableHistory) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.markSold");
+        try (timer) {
+            String updateSql = "UPDATE Property SET status = 'sold', soldDate = NOW(), " +
+                        "daysOnMarket = TIMESTAMPDIFF(DAY, listingDate, NOW()), updatedAt = NOW() " +
+                        "WHERE id = ? AND status <> 'sold'";
+            String selectSql = "SELECT daysOnMarket, currentPrice FROM Property WHERE id = ?";
+            
+            ReentrantLock priceLock = priceLock(propertyId);
+            OptionalLong sold = OptionalLong.empty();
+            PriceHistory entry = null;
+            priceLock.lock();
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement updateStmt = connection.prepareStatement(updateSql);
+                 PreparedStatement selectStmt = connection.prepareStatement(selectSql)) {
+                
+                updateStmt.setInt(1, propertyId);
+                if (updateStmt.executeUpdate() == 0) {
+                    return OptionalLong.empty();
+                }
+                
+                selectStmt.setInt(1, propertyId);
+                long daysOnMarket = 0;
+                long soldPrice = 0;
+                try (ResultSet rs = selectStmt.executeQuery()) {
                     if (rs.next()) {
-                        property.setId(rs.getInt(1));
-                        connection.commit();
-                        return Optional.of(property);
+                        Metrics.recordRow();
+                        daysOnMarket = rs.getLong("daysOnMarket");
+                        soldPrice = rs.getLong("currentPrice");
+                    }
+                }
+                entry = new PriceHistory(propertyId, soldPrice, PriceHistory.PriceType.SOLD, changedBy);
+                commit(connection, entry, durableHistory);
+                sold = OptionalLong.of(daysOnMarket);
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error marking property sold " + propertyId + ": " + e.getMessage());
+            } finally {
+                // The connection is already closed; queuing and notifying before unlocking keeps both in commit order
+                if (sold.isPresent()) {
+                    if (!durableHistory) {
+                        enqueue(entry);
                     }
+                    publish(listener -> listener.statusChanged(propertyId, Property.PropertyStatus.SOLD));
                 }
+                priceLock.unlock();
             }
-        } catch (SQLException e) {
-            System.err.println("Error creating property: " + e.getMessage());
+            return sold;
         }
-        return Optional.empty();
     }
     
     /**
-     * Find property by ID
+     * Delete property by ID
      * @param id Property ID
-     * @return Optional containing property if found
+     * @return true if deletion successful
      */
-    public Optional<Property> findById(int id) {
-        String sql = "SELECT * FROM Property WHERE id = ?";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
+    public boolean delete(int id) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.delete");
+        try (timer) {
+            String sql = "DELETE FROM Property WHERE id = ?";
+            // Written in the same transaction so other nodes' change pollers see the delete
+            String tombstoneSql = "INSERT INTO propertyTombstone (propertyId, deletedAt) VALUES (?, NOW())";
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Property property = mapResultSetToProperty(rs);
-                    return Optional.of(property);
+            boolean deleted = false;
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 PreparedStatement tombstoneStmt = connection.prepareStatement(tombstoneSql)) {
+                
+                stmt.setInt(1, id);
+                
+                int affectedRows = stmt.executeUpdate();
+                if (affectedRows > 0) {
+                    tombstoneStmt.setInt(1, id);
+                    tombstoneStmt.executeUpdate();
+                    connection.commit();
+                    deleted = true;
                 }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error deleting property " + id + ": " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error finding property by ID " + id + ": " + e.getMessage());
+            if (deleted) {
+                publish(listener -> listener.propertyDeleted(id));
+            }
+            return deleted;
         }
-        return Optional.empty();
     }
     
     /**
-     * Find all properties
-     * @return List of all properties
+     * Get property statistics
+     * @return Property statistics
      */
-    public List<Property> findAll() {
-        String sql = "SELECT * FROM Property ORDER BY listingDate DESC";
-        List<Property> properties = new ArrayList<>();
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+    public PropertyStatistics getStatistics() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.getStatistics");
+        try (timer) {
+            String sql = "SELECT " + STATISTICS_COLUMNS + " FROM Property";
             
-            while (rs.next()) {
-                properties.add(mapResultSetToProperty(rs));
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                if (rs.next()) {
+                    Metrics.recordRow();
+                    return mapResultSetToStatistics(rs);
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error getting property statistics: " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error finding all properties: " + e.getMessage());
+            return new PropertyStatistics(0, 0, 0, 0, 0, 0, 0);
         }
-        return properties;
     }
     
     /**
-     * Find active listings
-     * @return List of available properties
+     * Get property statistics for a single region
+     * @param region Region to aggregate
+     * @return Property statistics for region
      */
-    public List<Property> findActiveListings() {
-        String sql = "SELECT * FROM Property WHERE status = 'available' ORDER BY listingDate DESC";
-        List<Property> properties = new ArrayList<>();
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+    public PropertyStatistics getStatisticsByRegion(String region) {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.getStatisticsByRegion");
+        try (timer) {
+            // Served from idxPropertyRegion
+            String sql = "SELECT " + STATISTICS_COLUMNS + " FROM Property WHERE region = ?";
             
-            while (rs.next()) {
-                properties.add(mapResultSetToProperty(rs));
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql)) {
+                
+                stmt.setString(1, region);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        Metrics.recordRow();
+                        return mapResultSetToStatistics(rs);
+                    }
+                }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error getting property statistics for region '" + region + "': " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error finding active listings: " + e.getMessage());
+            return new PropertyStatistics(0, 0, 0, 0, 0, 0, 0);
         }
-        return properties;
     }
     
     /**
-     * Find properties by neighborhood
-     * @param neighborhood Neighborhood to search
-     * @return List of properties in neighborhood
+     * Get property statistics for every region in a single query
+     * @return Property statistics keyed by region, in region order
      */
-    public List<Property> findByNeighborhood(String neighborhood) {
-        String sql = "SELECT * FROM Property WHERE neighborhood = ? ORDER BY listingDate DESC";
-        List<Property> properties = new ArrayList<>();
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
+    public Map<String, PropertyStatistics> getStatisticsForAllRegions() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.getStatisticsForAllRegions");
+        try (timer) {
+            String sql = "SELECT region, " + STATISTICS_COLUMNS + " FROM Property GROUP BY region ORDER BY region";
+            Map<String, PropertyStatistics> statistics = new LinkedHashMap<>();
             
-            stmt.setString(1, neighborhood);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
                 while (rs.next()) {
-                    properties.add(mapResultSetToProperty(rs));
+                    Metrics.recordRow();
+                    statistics.put(rs.getString("region"), mapResultSetToStatistics(rs));
                 }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error getting property statistics by region: " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error finding properties by neighborhood '" + neighborhood + "': " + e.getMessage());
+            return statistics;
         }
-        return properties;
     }
     
     /**
-     * Find properties by property type
-     * @param propertyType Property type to search
-     * @return List of properties of specified type
+     * Get total days on market over sold properties, computed in the database
+     * @return Sold count and total days on market
      */
-    public List<Property> findByPropertyType(Property.PropertyType propertyType) {
-        String sql = "SELECT * FROM Property WHERE propertyType = ? ORDER BY listingDate DESC";
-        List<Property> properties = new ArrayList<>();
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
+    public TimeOnMarketStatistics getTimeOnMarketStatistics() {
+        Metrics.Timer timer = Metrics.start(Metrics.DAO, "PropertyDAO.getTimeOnMarketStatistics");
+        try (timer) {
+            // Range scan on idxPropertySoldDate; never touches the description column
+            String sql = "SELECT COUNT(*) as soldCount, " +
+                        "COALESCE(SUM(TIMESTAMPDIFF(DAY, listingDate, soldDate)), 0) as totalDays " +
+                        "FROM Property WHERE soldDate IS NOT NULL AND status = 'sold'";
             
-            stmt.setString(1, propertyType.getValue());
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    properties.add(mapResultSetToProperty(rs));
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                
+                if (rs.next()) {
+                    Metrics.recordRow();
+                    return new TimeOnMarketStatistics(rs.getLong("soldCount"), rs.getLong("totalDays"));
                 }
+            } catch (SQLException e) {
+                Metrics.recordError();
+                System.err.println("Error getting time on market statistics: " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error finding properties by type '" + propertyType + "': " + e.getMessage());
+            return new TimeOnMarketStatistics(0, 0);
         }
-        return properties;
     }
     
     /**
-     * Search properties by text (full-text search)
-     * @param searchText Text to search for
-     * @return List of matching properties
+     * Insert rows [start, end) as one batch and commit; fall back to row-by-row on batch failure
+     * @return Properties created from this chunk
      */
-    public List<Property> searchByText(String searchText) {
-        String sql = "SELECT * FROM Property WHERE MATCH(title, description, neighborhood, region) AGAINST(? IN BOOLEAN MODE) " +
-                    "ORDER BY listingDate DESC";
-        List<Property> properties = new ArrayList<>();
+    private List<Property> insertChunk(Connection connection, PreparedStatement stmt, List<Property> all,
+                                       int start, int end, List<BulkInsertResult.RowFailure> failures) throws SQLException {
+        List<Property> batched = new ArrayList<>(end - start);
+        List<Integer> batchedIndexes = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            Property property = all.get(i);
+            try {
+                bindInsert(stmt, property);
+            } catch (RuntimeException e) {
+                // Missing type, status or listing date: reject the row, keep the batch
+                stmt.clearParameters();
+                failures.add(new BulkInsertResult.RowFailure(i, property, "Invalid property: " + e));
+                continue;
+            }
+            stmt.addBatch();
+            batched.add(property);
+            batchedIndexes.add(i);
+        }
+        if (batched.isEmpty()) {
+            return batched;
+        }
         
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setString(1, searchText);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    properties.add(mapResultSetToProperty(rs));
+        try {
+            stmt.executeBatch();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                for (Property property : batched) {
+                    if (keys.next()) {
+                        property.setId(keys.getInt(1));
+                    }
                 }
             }
+            connection.commit();
+            return batched;
         } catch (SQLException e) {
-            System.err.println("Error searching properties by text '" + searchText + "': " + e.getMessage());
+            connection.rollback();
+            stmt.clearBatch();
+        }
+        
+        // Retry one row at a time so only the offending rows fail
+        List<Property> created = new ArrayList<>();
+        for (int j = 0; j < batched.size(); j++) {
+            Property property = batched.get(j);
+            try {
+                bindInsert(stmt, property);
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        property.setId(keys.getInt(1));
+                    }
+                }
+                created.add(property);
+            } catch (SQLException e) {
+                failures.add(new BulkInsertResult.RowFailure(batchedIndexes.get(j), property, e.getMessage()));
+            }
         }
-        return properties;
+        connection.commit();
+        return created;
+    }
+    
+    private static void bindInsert(PreparedStatement stmt, Property property) throws SQLException {
+        stmt.setString(1, property.getTitle());
+        stmt.setString(2, property.getDescription());
+        stmt.setString(3, property.getAddress());
+        stmt.setString(4, property.getNeighborhood());
+        stmt.setString(5, property.getRegion());
+        stmt.setString(6, property.getPropertyType().getValue());
+        stmt.setTimestamp(7, Timestamp.valueOf(property.getListingDate()));
+        stmt.setLong(8, property.getCurrentPrice());
+        stmt.setString(9, property.getStatus().getValue());
     }
     
     /**
-     * Find properties by price range
-     * @param minPrice Minimum price
-     * @param maxPrice Maximum price
-     * @return List of properties in price range
+     * Run a query and map every row
+     * @param sql SQL text
+     * @param binder Sets the statement parameters
+     * @param mapperFactory Builds the row mapper for the result set
+     * @param errorMessage Message logged on failure
+     * @return Mapped rows
      */
-    public List<Property> findByPriceRange(long minPrice, long maxPrice) {
-        String sql = "SELECT * FROM Property WHERE currentPrice BETWEEN ? AND ? ORDER BY currentPrice ASC";
-        List<Property> properties = new ArrayList<>();
+    private <T> List<T> queryList(String sql, ParameterBinder binder, MapperFactory<T> mapperFactory, String errorMessage) {
+        List<T> rows = new ArrayList<>();
         
         try (Connection connection = DatabaseConnection.getConnection();
              PreparedStatement stmt = connection.prepareStatement(sql)) {
             
-            stmt.setLong(1, minPrice);
-            stmt.setLong(2, maxPrice);
+            binder.bind(stmt);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RowMapper<T> mapper = mapperFactory.create(rs);
                 while (rs.next()) {
-                    properties.add(mapResultSetToProperty(rs));
+                    Metrics.recordRow();
+                    rows.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error finding properties by price range " + minPrice + " - " + maxPrice + ": " + e.getMessage());
+            Metrics.recordError();
+            System.err.println(errorMessage + ": " + e.getMessage());
         }
-        return properties;
+        return rows;
     }
     
     /**
-     * Update property
-     * @param property Property to update
-     * @return true if update successful
+     * Bind an optional (listingDate, id) keyset cursor followed by the page size
+     * @return Next free parameter index
      */
-    public boolean update(Property property) {
-        String sql = "UPDATE Property SET title = ?, description = ?, address = ?, neighborhood = ?, " +
-                    "region = ?, propertyType = ?, currentPrice = ?, status = ?, updatedAt = NOW() " +
-                    "WHERE id = ?";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setString(1, property.getTitle());
-            stmt.setString(2, property.getDescription());
-            stmt.setString(3, property.getAddress());
-            stmt.setString(4, property.getNeighborhood());
-            stmt.setString(5, property.getRegion());
-            stmt.setString(6, property.getPropertyType().getValue());
-            stmt.setLong(7, property.getCurrentPrice());
-            stmt.setString(8, property.getStatus().getValue());
-            stmt.setInt(9, property.getId());
-            
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                connection.commit();
-                return true;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error updating property " + property.getId() + ": " + e.getMessage());
+    private static int bindListingCursor(PreparedStatement stmt, int index, LocalDateTime afterListingDate,
+                                         int afterId, int limit) throws SQLException {
+        if (afterListingDate != null) {
+            stmt.setTimestamp(index++, Timestamp.valueOf(afterListingDate));
+            stmt.setInt(index++, afterId);
         }
-        return false;
+        stmt.setInt(index++, limit);
+        return index;
     }
     
     /**
-     * Update property status
-     * @param propertyId Property ID
-     * @param status New status
-     * @return true if update successful
+     * Open a streaming query whose rows are mapped lazily as the stream is consumed
+     * @param sql SQL text
+     * @param binder Sets the statement parameters
+     * @param errorMessage Message logged on failure
+     * @return Stream that releases the connection when closed
      */
-    public boolean updateStatus(int propertyId, Property.PropertyStatus status) {
-        String sql = "UPDATE Property SET status = ?, updatedAt = NOW() WHERE id = ?";
+    private Stream<Property> streamQuery(String sql, ParameterBinder binder, String errorMessage) {
+        Connection connection = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        RowMapper<Property> mapper;
+        try {
+            connection = DatabaseConnection.getConnection();
+            // Three-argument prepareStatement bypasses the statement cache, so the fetch size does not leak
+            stmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(STREAMING_FETCH_SIZE);
+            binder.bind(stmt);
+            rs = stmt.executeQuery();
+            mapper = ResultSetMappers.property(rs);
+        } catch (SQLException e) {
+            Metrics.recordError();
+            closeQuietly(rs, stmt, connection);
+            throw new UncheckedSQLException(errorMessage, e);
+        }
         
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setString(1, status.getValue());
-            stmt.setInt(2, propertyId);
-            
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                connection.commit();
-                return true;
+        final Connection streamConnection = connection;
+        final PreparedStatement streamStmt = stmt;
+        final ResultSet streamRs = rs;
+        Spliterator<Property> rows = new Spliterators.AbstractSpliterator<Property>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Property> action) {
+                try {
+                    if (!streamRs.next()) {
+                        return false;
+                    }
+                    // Credited to whichever operation is consuming the stream
+                    Metrics.recordRow();
+                    action.accept(mapper.map(streamRs));
+                    return true;
+                } catch (SQLException e) {
+                    Metrics.recordError();
+                    throw new UncheckedSQLException(errorMessage, e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false)
+                .onClose(() -> closeQuietly(streamRs, streamStmt, streamConnection));
+    }
+    
+    private static void closeQuietly(ResultSet rs, Statement stmt, Connection connection) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (stmt != null) {
+                stmt.close();
             }
         } catch (SQLException e) {
-            System.err.println("Error updating property status " + propertyId + ": " + e.getMessage());
+            System.err.println("Error closing streaming query: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(connection);
         }
-        return false;
     }
     
     /**
-     * Update property price
-     * @param propertyId Property ID
-     * @param newPrice New price
-     * @return true if update successful
+     * Sets the parameters of a prepared statement
      */
-    public boolean updatePrice(int propertyId, long newPrice) {
-        String sql = "UPDATE Property SET currentPrice = ?, updatedAt = NOW() WHERE id = ?";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setLong(1, newPrice);
-            stmt.setInt(2, propertyId);
-            
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                connection.commit();
-                return true;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error updating property price " + propertyId + ": " + e.getMessage());
-        }
-        return false;
+    @FunctionalInterface
+    private interface ParameterBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
     }
     
     /**
-     * Delete property by ID
-     * @param id Property ID
-     * @return true if deletion successful
+     * Builds a row mapper once the result set's columns are known
      */
-    public boolean delete(int id) {
-        String sql = "DELETE FROM Property WHERE id = ?";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                connection.commit();
-                return true;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error deleting property " + id + ": " + e.getMessage());
-        }
-        return false;
+    @FunctionalInterface
+    private interface MapperFactory<T> {
+        RowMapper<T> create(ResultSet rs) throws SQLException;
+    }
+    
+    private ReentrantLock priceLock(int propertyId) {
+        return priceLocks[Math.floorMod(propertyId, PRICE_LOCK_STRIPES)];
+    }
+    
+    private void recordPrice(int propertyId, long price, PriceHistory.PriceType priceType) {
+        enqueue(new PriceHistory(propertyId, price, priceType, null));
     }
     
     /**
-     * Get property statistics
-     * @return Property statistics
+     * Queue a history entry for write-behind. Callers must have returned their connection.
      */
-    public PropertyStatistics getStatistics() {
-        String sql = "SELECT " +
-                    "COUNT(*) as totalProperties, " +
-                    "COUNT(CASE WHEN status = 'available' THEN 1 END) as availableProperties, " +
-                    "COUNT(CASE WHEN status = 'under_offer' THEN 1 END) as underOfferProperties, " +
-                    "COUNT(CASE WHEN status = 'sold' THEN 1 END) as soldProperties, " +
-                    "AVG(currentPrice) as avgPrice, " +
-                    "MIN(currentPrice) as minPrice, " +
-                    "MAX(currentPrice) as maxPrice " +
-                    "FROM Property";
-        
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-            
-            if (rs.next()) {
-                return new PropertyStatistics(
-                    rs.getInt("totalProperties"),
-                    rs.getInt("availableProperties"),
-                    rs.getInt("underOfferProperties"),
-                    rs.getInt("soldProperties"),
-                    rs.getLong("avgPrice"),
-                    rs.getLong("minPrice"),
-                    rs.getLong("maxPrice")
-                );
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting property statistics: " + e.getMessage());
+    private void enqueue(PriceHistory entry) {
+        PriceHistoryRecorder recorder = priceHistoryRecorder;
+        if (recorder != null) {
+            recorder.enqueue(entry);
         }
-        return new PropertyStatistics(0, 0, 0, 0, 0, 0, 0);
     }
     
     /**
-     * Map ResultSet to Property object
-     * @param rs ResultSet
-     * @return Property object
-     * @throws SQLException if mapping fails
+     * Commit a price-changing write, with its history entry in the same transaction when durable
      */
-    private Property mapResultSetToProperty(ResultSet rs) throws SQLException {
-        Property property = new Property();
-        property.setId(rs.getInt("id"));
-        property.setTitle(rs.getString("title"));
-        property.setDescription(rs.getString("description"));
-        property.setAddress(rs.getString("address"));
-        property.setNeighborhood(rs.getString("neighborhood"));
-        property.setRegion(rs.getString("region"));
-        property.setPropertyType(Property.PropertyType.fromString(rs.getString("propertyType")));
-        property.setCurrentPrice(rs.getLong("currentPrice"));
-        property.setStatus(Property.PropertyStatus.fromString(rs.getString("status")));
-        
-        Timestamp listingDate = rs.getTimestamp("listingDate");
-        if (listingDate != null) {
-            property.setListingDate(listingDate.toLocalDateTime());
-        }
-        
-        Timestamp soldDate = rs.getTimestamp("soldDate");
-        if (soldDate != null) {
-            property.setSoldDate(soldDate.toLocalDateTime());
+    private void commit(Connection connection, PriceHistory entry, boolean durableHistory) throws SQLException {
+        PriceHistoryRecorder recorder = priceHistoryRecorder;
+        if (durableHistory && recorder != null) {
+            recorder.commitInTransaction(connection, entry);
+        } else {
+            connection.commit();
         }
-        
-        Timestamp createdAt = rs.getTimestamp("createdAt");
-        if (createdAt != null) {
-            property.setCreatedAt(createdAt.toLocalDateTime());
+    }
+    
+    /**
+     * Deliver an event to every listener. Writers call this only once their
+     * connection is back in the pool, so a listener that reads the database
+     * never waits on a second connection while holding the first.
+     * @param event Listener invocation
+     */
+    private void publish(Consumer<PropertyChangeListener> event) {
+        for (PropertyChangeListener listener : listeners) {
+            notifyListener(() -> event.accept(listener));
         }
-        
-        Timestamp updatedAt = rs.getTimestamp("updatedAt");
-        if (updatedAt != null) {
-            property.setUpdatedAt(updatedAt.toLocalDateTime());
+    }
+    
+    /**
+     * Run a listener callback, isolating the write path from listener failures
+     * @param callback Listener invocation
+     */
+    private void notifyListener(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            System.err.println("Property change listener failed: " + e.getMessage());
         }
-        
-        return property;
+    }
+    
+    /**
+     * Map aggregate row to PropertyStatistics
+     * @param rs ResultSet positioned on a row selecting STATISTICS_COLUMNS
+     * @return Property statistics
+     * @throws SQLException if mapping fails
+     */
+    private PropertyStatistics mapResultSetToStatistics(ResultSet rs) throws SQLException {
+        return new PropertyStatistics(
+            rs.getInt("totalProperties"),
+            rs.getInt("availableProperties"),
+            rs.getInt("underOfferProperties"),
+            rs.getInt("soldProperties"),
+            rs.getLong("avgPrice"),
+            rs.getLong("minPrice"),
+            rs.getLong("maxPrice")
+        );
     }
     
     /**
@@ -439,6 +1669,44 @@ public class PropertyDAO {
         public long getMinPrice() { return minPrice; }
         public long getMaxPrice() { return maxPrice; }
         
+        /**
+         * Compute statistics over properties already in memory, in a single pass
+         * @param properties Properties to aggregate
+         * @return Property statistics
+         */
+        public static PropertyStatistics of(Iterable<Property> properties) {
+            int total = 0;
+            int available = 0;
+            int underOffer = 0;
+            int sold = 0;
+            long totalPrice = 0;
+            long minPrice = Long.MAX_VALUE;
+            long maxPrice = Long.MIN_VALUE;
+            
+            for (Property property : properties) {
+                long price = property.getCurrentPrice();
+                total++;
+                totalPrice += price;
+                if (price < minPrice) {
+                    minPrice = price;
+                }
+                if (price > maxPrice) {
+                    maxPrice = price;
+                }
+                switch (property.getStatus()) {
+                    case AVAILABLE: available++; break;
+                    case UNDER_OFFER: underOffer++; break;
+                    case SOLD: sold++; break;
+                    default: break;
+                }
+            }
+            
+            if (total == 0) {
+                return new PropertyStatistics(0, 0, 0, 0, 0, 0, 0);
+            }
+            return new PropertyStatistics(total, available, underOffer, sold, totalPrice / total, minPrice, maxPrice);
+        }
+        
         @Override
         public String toString() {
             return "PropertyStatistics{" +
@@ -452,4 +1720,113 @@ public class PropertyDAO {
                     '}';
         }
     }
+    
+    /**
+     * Time on market statistics class
+     */
+    public static class TimeOnMarketStatistics {
+        private final long soldCount;
+        private final long totalDays;
+        
+        public TimeOnMarketStatistics(long soldCount, long totalDays) {
+            this.soldCount = soldCount;
+            this.totalDays = totalDays;
+        }
+        
+        public long getSoldCount() { return soldCount; }
+        public long getTotalDays() { return totalDays; }
+        
+        public double getAverageDays() {
+            return soldCount == 0 ? 0.0 : (double) totalDays / soldCount;
+        }
+        
+        @Override
+        public String toString() {
+            return "TimeOnMarketStatistics{" +
+                    "soldCount=" + soldCount +
+                    ", totalDays=" + totalDays +
+                    ", averageDays=" + getAverageDays() +
+                    '}';
+        }
+    }
+    
+    /**
+     * Record of a deleted property, kept for other nodes' change pollers
+     */
+    public static class Tombstone {
+        private final long id;
+        private final int propertyId;
+        private final LocalDateTime deletedAt;
+        
+        public Tombstone(long id, int propertyId, LocalDateTime deletedAt) {
+            this.id = id;
+            this.propertyId = propertyId;
+            this.deletedAt = deletedAt;
+        }
+        
+        public long getId() { return id; }
+        public int getPropertyId() { return propertyId; }
+        public LocalDateTime getDeletedAt() { return deletedAt; }
+        
+        @Override
+        public String toString() {
+            return "Tombstone{" +
+                    "id=" + id +
+                    ", propertyId=" + propertyId +
+                    ", deletedAt=" + deletedAt +
+                    '}';
+        }
+    }    
+    /**
+     * Bulk insert result class
+     */
+    public static class BulkInsertResult {
+        private final List<Property> created;
+        private final List<RowFailure> failures;
+        
+        public BulkInsertResult(List<Property> created, List<RowFailure> failures) {
+            this.created = created;
+            this.failures = failures;
+        }
+        
+        public List<Property> getCreated() { return created; }
+        public List<RowFailure> getFailures() { return failures; }
+        public boolean hasFailures() { return !failures.isEmpty(); }
+        
+        @Override
+        public String toString() {
+            return "BulkInsertResult{" +
+                    "created=" + created.size() +
+                    ", failed=" + failures.size() +
+                    '}';
+        }
+        
+        /**
+         * A row that could not be inserted
+         */
+        public static class RowFailure {
+            private final int index;
+            private final Property property;
+            private final String message;
+            
+            public RowFailure(int index, Property property, String message) {
+                this.index = index;
+                this.property = property;
+                this.message = message;
+            }
+            
+            public int getIndex() { return index; }
+            public Property getProperty() { return property; }
+            public String getMessage() { return message; }
+            
+            @Override
+            public String toString() {
+                return "RowFailure{" +
+                        "index=" + index +
+                        ", title='" + (property != null ? property.getTitle() : null) + '\'' +
+                        ", message='" + message + '\'' +
+                        '}';
+            }
+        }
+    }
 } 
\ No newline at end of file
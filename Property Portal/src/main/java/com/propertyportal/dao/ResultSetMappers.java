@@ -0,0 +1,373 @@
+package com.propertyportal.dao;
+
+import com.propertyportal.model.Agency;
+import com.propertyportal.model.Agent;
+import com.propertyportal.model.AgentPerformance;
+import com.propertyportal.model.Buyer;
+import com.propertyportal.model.Feature;
+import com.propertyportal.model.Inquiry;
+import com.propertyportal.model.Offer;
+import com.propertyportal.model.PriceHistory;
+import com.propertyportal.model.Property;
+import com.propertyportal.model.PropertySummary;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Row mappers for the model entities.
+ * Each factory resolves column positions once from the result set's metadata
+ * and returns a mapper that reads every row by index. Enum columns are decoded
+ * through the enums' lookup tables, and temporal columns are read directly as
+ * java.time values.
+ * Create one mapper per executed query and reuse it for all of its rows.
+ * Columns the query does not select are left at their defaults.
+ */
+public final class ResultSetMappers {
+
+    private ResultSetMappers() {}
+
+    public static RowMapper<Property> property(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.index("id");
+        int title = columns.index("title");
+        int description = columns.index("description");
+        int address = columns.index("address");
+        int neighborhood = columns.index("neighborhood");
+        int region = columns.index("region");
+        int propertyType = columns.index("propertyType");
+        int listingDate = columns.index("listingDate");
+        int currentPrice = columns.index("currentPrice");
+        int status = columns.index("status");
+        int soldDate = columns.index("soldDate");
+        int daysOnMarket = columns.index("daysOnMarket");
+        int createdAt = columns.index("createdAt");
+        int updatedAt = columns.index("updatedAt");
+
+        return row -> {
+            Property property = new Property();
+            property.setId(getInt(row, id));
+            property.setTitle(getString(row, title));
+            property.setDescription(getString(row, description));
+            property.setAddress(getString(row, address));
+            property.setNeighborhood(getString(row, neighborhood));
+            property.setRegion(getString(row, region));
+            if (propertyType > 0) {
+                property.setPropertyType(Property.PropertyType.fromString(row.getString(propertyType)));
+            }
+            property.setListingDate(getDateTime(row, listingDate));
+            property.setCurrentPrice(getLong(row, currentPrice));
+            if (status > 0) {
+                property.setStatus(Property.PropertyStatus.fromString(row.getString(status)));
+            }
+            property.setSoldDate(getDateTime(row, soldDate));
+            property.setDaysOnMarket(getInt(row, daysOnMarket));
+            property.setCreatedAt(getDateTime(row, createdAt));
+            property.setUpdatedAt(getDateTime(row, updatedAt));
+            return property;
+        };
+    }
+
+    public static RowMapper<PropertySummary> propertySummary(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.index("id");
+        int title = columns.index("title");
+        int address = columns.index("address");
+        int neighborhood = columns.index("neighborhood");
+        int region = columns.index("region");
+        int propertyType = columns.index("propertyType");
+        int listingDate = columns.index("listingDate");
+        int currentPrice = columns.index("currentPrice");
+        int status = columns.index("status");
+
+        return row -> {
+            PropertySummary summary = new PropertySummary();
+            summary.setId(getInt(row, id));
+            summary.setTitle(getString(row, title));
+            summary.setAddress(getString(row, address));
+            summary.setNeighborhood(getString(row, neighborhood));
+            summary.setRegion(getString(row, region));
+            if (propertyType > 0) {
+                summary.setPropertyType(Property.PropertyType.fromString(row.getString(propertyType)));
+            }
+            summary.setListingDate(getDateTime(row, listingDate));
+            summary.setCurrentPrice(getLong(row, currentPrice));
+            if (status > 0) {
+                summary.setStatus(Property.PropertyStatus.fromString(row.getString(status)));
+            }
+            return summary;
+        };
+    }
+
+    public static RowMapper<Agency> agency(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.index("id");
+        int name = columns.index("name");
+        int address = columns.index("address");
+        int phone = columns.index("phone");
+        int createdAt = columns.index("createdAt");
+        int updatedAt = columns.index("updatedAt");
+
+        return row -> {
+            Agency agency = new Agency();
+            agency.setId(getInt(row, id));
+            agency.setName(getString(row, name));
+            agency.setAddress(getString(row, address));
+            agency.setPhone(getString(row, phone));
+            agency.setCreatedAt(getDateTime(row, createdAt));
+            agency.setUpdatedAt(getDateTime(row, updatedAt));
+            return agency;
+        };
+    }
+
+    public static RowMapper<Agent> agent(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.index("id");
+        int agencyId = columns.index("agencyId");
+        int name = columns.index("name");
+        int email = columns.index("email");
+        int phone = columns.index("phone");
+        int isActive = columns.index("isActive");
+        int totalDealsClosed = columns.index("totalDealsClosed");
+        int avgResponseTimeMinutes = columns.index("avgResponseTimeMinutes");
+        int createdAt = columns.index("createdAt");
+        int updatedAt = columns.index("updatedAt");
+
+        return row -> {
+            Agent agent = new Agent();
+            agent.setId(getInt(row, id));
+            agent.setAgencyId(getInt(row, agencyId));
+            agent.setName(getString(row, name));
+            agent.setEmail(getString(row, email));
+            agent.setPhone(getString(row, phone));
+            agent.setActive(isActive > 0 && row.getBoolean(isActive));
+            agent.setTotalDealsClosed(getInt(row, totalDealsClosed));
+            agent.setAvgResponseTimeMinutes(getInt(row, avgResponseTimeMinutes));
+            agent.setCreatedAt(getDateTime(row, createdAt));
+            agent.setUpdatedAt(getDateTime(row, updatedAt));
+            return agent;
+        };
+    }
+
+    public static RowMapper<Buyer> buyer(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.index("id");
+        int name = columns.index("name");
+        int email = columns.index("email");
+        int phone = columns.index("phone");
+        int isActive = columns.index("isActive");
+        int createdAt = columns.index("createdAt");
+        int updatedAt = columns.index("updatedAt");
+
+        return row -> {
+            Buyer buyer = new Buyer();
+            buyer.setId(getInt(row, id));
+            buyer.setName(getString(row, name));
+            buyer.setEmail(getString(row, email));
+            buyer.setPhone(getString(row, phone));
+            buyer.setActive(isActive > 0 && row.getBoolean(isActive));
+            buyer.setCreatedAt(getDateTime(row, createdAt));
+            buyer.setUpdatedAt(getDateTime(row, updatedAt));
+            return buyer;
+        };
+    }
+
+    public static RowMapper<Feature> feature(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.index("id");
+        int name = columns.index("name");
+        int category = columns.index("category");
+        int description = columns.index("description");
+        int createdAt = columns.index("createdAt");
+
+        return row -> {
+            Feature feature = new Feature();
+            feature.setId(getInt(row, id));
+            feature.setName(getString(row, name));
+            if (category > 0) {
+                feature.setCategory(Feature.FeatureCategory.fromString(row.getString(category)));
+            }
+            feature.setDescription(getString(row, description));
+            feature.setCreatedAt(getDateTime(row, createdAt));
+            return feature;
+        };
+    }
+
+    public static RowMapper<Offer> offer(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.index("id");
+        int agentId = columns.index("agentId");
+        int buyerId = columns.index("buyerId");
+        int propertyId = columns.index("propertyId");
+        int offerAmount = columns.index("offerAmount");
+        int offerDate = columns.index("offerDate");
+        int status = columns.index("status");
+        int responseDate = columns.index("responseDate");
+        int notes = columns.index("notes");
+        int createdAt = columns.index("createdAt");
+        int updatedAt = columns.index("updatedAt");
+
+        return row -> {
+            Offer offer = new Offer();
+            offer.setId(getInt(row, id));
+            offer.setAgentId(getInt(row, agentId));
+            offer.setBuyerId(getInt(row, buyerId));
+            offer.setPropertyId(getInt(row, propertyId));
+            offer.setOfferAmount(getLong(row, offerAmount));
+            offer.setOfferDate(getDateTime(row, offerDate));
+            if (status > 0) {
+                offer.setStatus(Offer.OfferStatus.fromString(row.getString(status)));
+            }
+            offer.setResponseDate(getDateTime(row, responseDate));
+            offer.setNotes(getString(row, notes));
+            offer.setCreatedAt(getDateTime(row, createdAt));
+            offer.setUpdatedAt(getDateTime(row, updatedAt));
+            return offer;
+        };
+    }
+
+    public static RowMapper<Inquiry> inquiry(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.index("id");
+        int createdAt = columns.index("createdAt");
+        int message = columns.index("message");
+        int status = columns.index("status");
+        int agentId = columns.index("agentId");
+        int buyerId = columns.index("buyerId");
+        int propertyId = columns.index("propertyId");
+        int respondedAt = columns.index("respondedAt");
+        int closedAt = columns.index("closedAt");
+        int responseTimeMinutes = columns.index("responseTimeMinutes");
+        int inquiryType = columns.index("inquiryType");
+        int priority = columns.index("priority");
+        int updatedAt = columns.index("updatedAt");
+
+        return row -> {
+            Inquiry inquiry = new Inquiry();
+            inquiry.setId(getInt(row, id));
+            inquiry.setCreatedAt(getDateTime(row, createdAt));
+            inquiry.setMessage(getString(row, message));
+            if (status > 0) {
+                inquiry.setStatus(Inquiry.InquiryStatus.fromString(row.getString(status)));
+            }
+            inquiry.setAgentId(getInt(row, agentId));
+            inquiry.setBuyerId(getInt(row, buyerId));
+            inquiry.setPropertyId(getInt(row, propertyId));
+            inquiry.setRespondedAt(getDateTime(row, respondedAt));
+            inquiry.setClosedAt(getDateTime(row, closedAt));
+            inquiry.setResponseTimeMinutes(getNullableInt(row, responseTimeMinutes));
+            if (inquiryType > 0) {
+                inquiry.setInquiryType(Inquiry.InquiryType.fromString(row.getString(inquiryType)));
+            }
+            if (priority > 0) {
+                inquiry.setPriority(Inquiry.InquiryPriority.fromString(row.getString(priority)));
+            }
+            inquiry.setUpdatedAt(getDateTime(row, updatedAt));
+            return inquiry;
+        };
+    }
+
+    public static RowMapper<AgentPerformance> agentPerformance(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.index("id");
+        int agentId = columns.index("agentId");
+        int monthYear = columns.index("monthYear");
+        int totalInquiries = columns.index("totalInquiries");
+        int respondedInquiries = columns.index("respondedInquiries");
+        int avgResponseTimeMinutes = columns.index("avgResponseTimeMinutes");
+        int closedDeals = columns.index("closedDeals");
+        int totalRevenue = columns.index("totalRevenue");
+        int createdAt = columns.index("createdAt");
+        int updatedAt = columns.index("updatedAt");
+
+        return row -> {
+            AgentPerformance performance = new AgentPerformance();
+            performance.setId(getInt(row, id));
+            performance.setAgentId(getInt(row, agentId));
+            performance.setMonthYear(monthYear > 0 ? row.getObject(monthYear, LocalDate.class) : null);
+            performance.setTotalInquiries(getInt(row, totalInquiries));
+            performance.setRespondedInquiries(getInt(row, respondedInquiries));
+            performance.setAvgResponseTimeMinutes(getInt(row, avgResponseTimeMinutes));
+            performance.setClosedDeals(getInt(row, closedDeals));
+            performance.setTotalRevenue(getLong(row, totalRevenue));
+            performance.setCreatedAt(getDateTime(row, createdAt));
+            performance.setUpdatedAt(getDateTime(row, updatedAt));
+            return performance;
+        };
+    }
+
+    public static RowMapper<PriceHistory> priceHistory(ResultSet rs) throws SQLException {
+        Columns columns = new Columns(rs);
+        int id = columns.index("id");
+        int propertyId = columns.index("propertyId");
+        int price = columns.index("price");
+        int changedAt = columns.index("changedAt");
+        int priceType = columns.index("priceType");
+        int changedBy = columns.index("changedBy");
+
+        return row -> {
+            PriceHistory entry = new PriceHistory();
+            entry.setId(getInt(row, id));
+            entry.setPropertyId(getInt(row, propertyId));
+            entry.setPrice(getLong(row, price));
+            entry.setChangedAt(getDateTime(row, changedAt));
+            if (priceType > 0) {
+                entry.setPriceType(PriceHistory.PriceType.fromString(row.getString(priceType)));
+            }
+            entry.setChangedBy(getNullableInt(row, changedBy));
+            return entry;
+        };
+    }
+
+    // Index 0 means the query did not select the column
+
+    private static int getInt(ResultSet rs, int index) throws SQLException {
+        return index > 0 ? rs.getInt(index) : 0;
+    }
+
+    private static Integer getNullableInt(ResultSet rs, int index) throws SQLException {
+        if (index == 0) {
+            return null;
+        }
+        int value = rs.getInt(index);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static long getLong(ResultSet rs, int index) throws SQLException {
+        return index > 0 ? rs.getLong(index) : 0L;
+    }
+
+    private static String getString(ResultSet rs, int index) throws SQLException {
+        return index > 0 ? rs.getString(index) : null;
+    }
+
+    private static LocalDateTime getDateTime(ResultSet rs, int index) throws SQLException {
+        return index > 0 ? rs.getObject(index, LocalDateTime.class) : null;
+    }
+
+    /**
+     * Column label to position for one result set
+     */
+    private static final class Columns {
+        private final Map<String, Integer> positions;
+
+        Columns(ResultSet rs) throws SQLException {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int count = metaData.getColumnCount();
+            positions = new HashMap<>(count * 2);
+            for (int i = 1; i <= count; i++) {
+                positions.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        int index(String label) {
+            return positions.getOrDefault(label.toLowerCase(Locale.ROOT), 0);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.propertyportal.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a result set to an object
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Map the row the result set is positioned on
+     * @param rs ResultSet positioned on a row
+     * @return Mapped object
+     * @throws SQLException if a column cannot be read
+     */
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,22 @@
+package com.propertyportal.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps a SQLException thrown while a streamed result set is being
+ * consumed, so a failed read ends the stream with an error instead of
+ * looking like the last row
+ */
+public class UncheckedSQLException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(String message, SQLException cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
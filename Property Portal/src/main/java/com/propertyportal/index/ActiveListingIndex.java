@@ -0,0 +1,374 @@
+package com.propertyportal.index;
+
+import com.propertyportal.dao.PropertyChangeListener;
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.model.Property;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of AVAILABLE properties, bucketed by neighborhood
+ * (case-insensitive) and property type. Each bucket is kept in
+ * findActiveListings() order (newest listing first), so a filter query walks
+ * the smaller matching bucket and checks the other criterion inline.
+ * The index is loaded on first use and kept current from PropertyDAO writes.
+ * A property put back on the market arrives as a bare status change, so its
+ * row is re-read on a background thread rather than in the writer's callback.
+ */
+public class ActiveListingIndex implements PropertyChangeListener, SharedScanIndex {
+
+    // Same order as PropertyDAO.findActiveListings(): listingDate DESC
+    private static final Comparator<Property> LISTING_ORDER = Comparator
+            .comparing(Property::getListingDate, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(Comparator.comparingInt(Property::getId).reversed());
+
+    private final PropertyDAO propertyDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Property> byId = new HashMap<>();
+    private final NavigableSet<Property> all = new TreeSet<>(LISTING_ORDER);
+    private final Map<String, NavigableSet<Property>> byNeighborhood = new HashMap<>();
+    private final Map<Property.PropertyType, NavigableSet<Property>> byType = new EnumMap<>(Property.PropertyType.class);
+    // Properties whose row is being re-read, with the ticket of the latest request; a later event drops the ticket
+    private final Map<Integer, Long> pendingRefreshes = new HashMap<>();
+    private final ExecutorService refresher;
+    private long refreshTickets;
+    // Changes seen while a rebuild is reading, replayed onto the reloaded index
+    private List<Runnable> pendingChanges;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public ActiveListingIndex(PropertyDAO propertyDAO) {
+        this.propertyDAO = propertyDAO;
+        this.refresher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "active-listing-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        propertyDAO.addChangeListener(this);
+    }
+
+    /**
+     * Find available properties matching the optional filters
+     * @param neighborhood Neighborhood filter, case-insensitive (optional)
+     * @param propertyType Property type filter (optional)
+     * @return Matching properties, newest listing first
+     */
+    public List<Property> find(String neighborhood, Property.PropertyType propertyType) {
+        ensureLoaded();
+        boolean filterNeighborhood = neighborhood != null && !neighborhood.trim().isEmpty();
+
+        lock.readLock().lock();
+        try {
+            NavigableSet<Property> candidates = all;
+            if (filterNeighborhood) {
+                candidates = byNeighborhood.getOrDefault(key(neighborhood), Collections.emptyNavigableSet());
+            }
+            if (propertyType != null) {
+                NavigableSet<Property> typeBucket = byType.getOrDefault(propertyType, Collections.emptyNavigableSet());
+                if (typeBucket.size() < candidates.size()) {
+                    candidates = typeBucket;
+                }
+            }
+
+            String neighborhoodKey = filterNeighborhood ? key(neighborhood) : null;
+            List<Property> result = new ArrayList<>(Math.min(candidates.size(), 1024));
+            for (Property property : candidates) {
+                if (neighborhoodKey != null && !neighborhoodKey.equals(key(property.getNeighborhood()))) {
+                    continue;
+                }
+                if (propertyType != null && property.getPropertyType() != propertyType) {
+                    continue;
+                }
+                result.add(new Property(property));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count available properties matching the optional filters without copying them
+     * @param neighborhood Neighborhood filter, case-insensitive (optional)
+     * @param propertyType Property type filter (optional)
+     * @return Number of matching properties
+     */
+    public int count(String neighborhood, Property.PropertyType propertyType) {
+        ensureLoaded();
+        boolean filterNeighborhood = neighborhood != null && !neighborhood.trim().isEmpty();
+
+        lock.readLock().lock();
+        try {
+            if (!filterNeighborhood) {
+                return propertyType == null ? all.size() : byType.getOrDefault(propertyType, Collections.emptyNavigableSet()).size();
+            }
+            NavigableSet<Property> bucket = byNeighborhood.getOrDefault(key(neighborhood), Collections.emptyNavigableSet());
+            if (propertyType == null) {
+                return bucket.size();
+            }
+            int count = 0;
+            for (Property property : bucket) {
+                if (property.getPropertyType() == propertyType) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reload the index from the database. Queries keep using the current
+     * index while the listings are read, and writes made meanwhile are
+     * replayed onto the reloaded one.
+     */
+    public void rebuild() {
+        Load load = beginLoad();
+        List<Property> listings;
+        try {
+            listings = propertyDAO.findActiveListings();
+        } catch (RuntimeException e) {
+            load.abort();
+            throw e;
+        }
+        for (Property property : listings) {
+            load.accept(property);
+        }
+        load.finish();
+    }
+
+    @Override
+    public Load beginLoad() {
+        rebuildLock.lock();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Property> listings = new ArrayList<>();
+
+        return new Load() {
+            @Override
+            public void accept(Property property) {
+                if (property.getStatus() == Property.PropertyStatus.AVAILABLE) {
+                    listings.add(new Property(property));
+                }
+            }
+
+            @Override
+            public void finish() {
+                lock.writeLock().lock();
+                try {
+                    clear();
+                    for (Property property : listings) {
+                        add(property);
+                    }
+                    for (Runnable change : pendingChanges) {
+                        change.run();
+                    }
+                    pendingChanges = null;
+                    loaded = true;
+                } finally {
+                    lock.writeLock().unlock();
+                    rebuildLock.unlock();
+                }
+            }
+
+            @Override
+            public void abort() {
+                lock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                    rebuildLock.unlock();
+                }
+            }
+        };
+    }
+
+    /**
+     * Number of indexed available properties
+     */
+    public int size() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void propertyCreated(Property property) {
+        Property copy = new Property(property);
+        apply(() -> put(copy));
+    }
+
+    @Override
+    public void propertyUpdated(Property property) {
+        Property copy = new Property(property);
+        apply(() -> put(copy));
+    }
+
+    @Override
+    public void statusChanged(int propertyId, Property.PropertyStatus status) {
+        apply(() -> {
+            if (status == Property.PropertyStatus.AVAILABLE) {
+                // Back on the market: the event carries no row, so re-read it off the writer's thread
+                requestRefresh(propertyId);
+            } else {
+                discard(propertyId);
+            }
+        });
+    }
+
+    @Override
+    public void priceChanged(int propertyId, long newPrice) {
+        apply(() -> {
+            // Price is not part of the ordering, so it can change in place
+            Property indexed = byId.get(propertyId);
+            if (indexed != null) {
+                indexed.setCurrentPrice(newPrice);
+            } else if (pendingRefreshes.containsKey(propertyId)) {
+                // The pending read may predate this price
+                requestRefresh(propertyId);
+            }
+        });
+    }
+
+    @Override
+    public void propertyDeleted(int propertyId) {
+        apply(() -> discard(propertyId));
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuildLock.lock();
+            try {
+                // A shared load may have finished while this thread waited
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply a change to the loaded index, and record it for replay while a rebuild is reading
+     */
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-read a property and index it if it is still available, unless a
+     * later event for it arrived in the meantime
+     */
+    private void refresh(int propertyId, long ticket) {
+        Optional<Property> property = propertyDAO.findById(propertyId);
+        apply(() -> {
+            Long latest = pendingRefreshes.get(propertyId);
+            if (latest == null || latest != ticket) {
+                return;
+            }
+            if (pendingChanges == null) {
+                // Kept during a rebuild so the replay can apply the result again
+                pendingRefreshes.remove(propertyId);
+            }
+            remove(propertyId);
+            if (property.isPresent() && property.get().getStatus() == Property.PropertyStatus.AVAILABLE) {
+                add(new Property(property.get()));
+            }
+        });
+    }
+
+    // Callers must hold the write lock
+
+    private void put(Property property) {
+        pendingRefreshes.remove(property.getId());
+        remove(property.getId());
+        if (property.getStatus() == Property.PropertyStatus.AVAILABLE) {
+            add(new Property(property));
+        }
+    }
+
+    private void discard(int propertyId) {
+        pendingRefreshes.remove(propertyId);
+        remove(propertyId);
+    }
+
+    private void requestRefresh(int propertyId) {
+        long ticket = ++refreshTickets;
+        pendingRefreshes.put(propertyId, ticket);
+        refresher.execute(() -> refresh(propertyId, ticket));
+    }
+
+    private void add(Property property) {
+        byId.put(property.getId(), property);
+        all.add(property);
+        byNeighborhood.computeIfAbsent(key(property.getNeighborhood()), k -> new TreeSet<>(LISTING_ORDER)).add(property);
+        byType.computeIfAbsent(property.getPropertyType(), k -> new TreeSet<>(LISTING_ORDER)).add(property);
+    }
+
+    private void remove(int propertyId) {
+        Property existing = byId.remove(propertyId);
+        if (existing == null) {
+            return;
+        }
+        all.remove(existing);
+        String neighborhoodKey = key(existing.getNeighborhood());
+        NavigableSet<Property> neighborhoodBucket = byNeighborhood.get(neighborhoodKey);
+        if (neighborhoodBucket != null) {
+            neighborhoodBucket.remove(existing);
+            if (neighborhoodBucket.isEmpty()) {
+                byNeighborhood.remove(neighborhoodKey);
+            }
+        }
+        NavigableSet<Property> typeBucket = byType.get(existing.getPropertyType());
+        if (typeBucket != null) {
+            typeBucket.remove(existing);
+        }
+    }
+
+    private void clear() {
+        byId.clear();
+        all.clear();
+        byNeighborhood.clear();
+        byType.clear();
+    }
+
+    private static String key(String neighborhood) {
+        return neighborhood == null ? "" : neighborhood.toLowerCase(Locale.ROOT);
+    }
+}
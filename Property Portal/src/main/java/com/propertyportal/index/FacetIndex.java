@@ -0,0 +1,462 @@
+package com.propertyportal.index;
+
+import com.propertyportal.dao.PropertyChangeListener;
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.dao.UncheckedSQLException;
+import com.propertyportal.model.Property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Facet counts over all properties from per-value ID bitmaps: one
+ * {@link IdBitmap} per neighborhood (case-insensitive), property type,
+ * status and price bucket. A count is the cardinality of a facet value's
+ * bitmap intersected with the filter, so no GROUP BY query is needed.
+ * Each facet is counted against the filters on the other facets only, so
+ * a selected neighborhood still shows how many listings its siblings have.
+ * The index is loaded on first use and kept current from PropertyDAO writes.
+ */
+public class FacetIndex implements PropertyChangeListener, SharedScanIndex {
+
+    private final PropertyDAO propertyDAO;
+    // Ascending lower bounds of the price buckets; the first must be 0 and the last bucket is open-ended
+    private final long[] priceBucketBounds;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Facets> byId = new HashMap<>();
+    private IdBitmap all = new IdBitmap();
+    private final Map<String, IdBitmap> byNeighborhood = new HashMap<>();
+    // Display name per neighborhood key, as last written
+    private final Map<String, String> neighborhoodNames = new HashMap<>();
+    private final Map<Property.PropertyType, IdBitmap> byType = new EnumMap<>(Property.PropertyType.class);
+    private final Map<Property.PropertyStatus, IdBitmap> byStatus = new EnumMap<>(Property.PropertyStatus.class);
+    private final IdBitmap[] byPriceBucket;
+    // Changes seen while a rebuild is reading, replayed onto the reloaded index
+    private List<Runnable> pendingChanges;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public FacetIndex(PropertyDAO propertyDAO, long[] priceBucketBounds) {
+        if (priceBucketBounds.length == 0 || priceBucketBounds[0] != 0) {
+            throw new IllegalArgumentException("Price buckets must start at 0: " + Arrays.toString(priceBucketBounds));
+        }
+        for (int i = 1; i < priceBucketBounds.length; i++) {
+            if (priceBucketBounds[i] <= priceBucketBounds[i - 1]) {
+                throw new IllegalArgumentException("Price bucket bounds must ascend: " + Arrays.toString(priceBucketBounds));
+            }
+        }
+        this.propertyDAO = propertyDAO;
+        this.priceBucketBounds = priceBucketBounds.clone();
+        this.byPriceBucket = new IdBitmap[priceBucketBounds.length];
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new IdBitmap();
+        }
+        propertyDAO.addChangeListener(this);
+    }
+
+    /**
+     * Count properties per facet value for a filter
+     * @param neighborhood Neighborhood filter, case-insensitive (optional)
+     * @param propertyType Property type filter (optional)
+     * @param status Status filter (optional)
+     * @param priceBucket Price bucket filter, an index into the configured bounds (optional)
+     * @return Facet counts; values with no matching properties are omitted
+     */
+    public FacetCounts count(String neighborhood, Property.PropertyType propertyType,
+                             Property.PropertyStatus status, Integer priceBucket) {
+        ensureLoaded();
+        if (priceBucket != null && (priceBucket < 0 || priceBucket >= byPriceBucket.length)) {
+            throw new IllegalArgumentException("No price bucket " + priceBucket);
+        }
+        boolean filterNeighborhood = neighborhood != null && !neighborhood.trim().isEmpty();
+
+        lock.readLock().lock();
+        try {
+            IdBitmap neighborhoodFilter = filterNeighborhood ? bitmap(byNeighborhood, key(neighborhood)) : null;
+            IdBitmap typeFilter = propertyType != null ? bitmap(byType, propertyType) : null;
+            IdBitmap statusFilter = status != null ? bitmap(byStatus, status) : null;
+            IdBitmap priceFilter = priceBucket != null ? byPriceBucket[priceBucket] : null;
+
+            IdBitmap matching = intersect(neighborhoodFilter, typeFilter, statusFilter, priceFilter);
+
+            Map<String, Integer> neighborhoods = new TreeMap<>();
+            IdBitmap base = intersect(typeFilter, statusFilter, priceFilter);
+            for (Map.Entry<String, IdBitmap> entry : byNeighborhood.entrySet()) {
+                putCount(neighborhoods, neighborhoodNames.get(entry.getKey()), entry.getValue(), base);
+            }
+
+            Map<Property.PropertyType, Integer> types = new EnumMap<>(Property.PropertyType.class);
+            base = intersect(neighborhoodFilter, statusFilter, priceFilter);
+            for (Map.Entry<Property.PropertyType, IdBitmap> entry : byType.entrySet()) {
+                putCount(types, entry.getKey(), entry.getValue(), base);
+            }
+
+            Map<Property.PropertyStatus, Integer> statuses = new EnumMap<>(Property.PropertyStatus.class);
+            base = intersect(neighborhoodFilter, typeFilter, priceFilter);
+            for (Map.Entry<Property.PropertyStatus, IdBitmap> entry : byStatus.entrySet()) {
+                putCount(statuses, entry.getKey(), entry.getValue(), base);
+            }
+
+            Map<String, Integer> priceBuckets = new LinkedHashMap<>();
+            base = intersect(neighborhoodFilter, typeFilter, statusFilter);
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                putCount(priceBuckets, priceBucketLabel(i), byPriceBucket[i], base);
+            }
+
+            return new FacetCounts(matching == null ? all.cardinality() : matching.cardinality(),
+                    neighborhoods, types, statuses, priceBuckets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Label of a price bucket, e.g. "250000-499999" or "1000000+"
+     * @param priceBucket Bucket index
+     * @return Bucket label
+     */
+    public String priceBucketLabel(int priceBucket) {
+        if (priceBucket == priceBucketBounds.length - 1) {
+            return priceBucketBounds[priceBucket] + "+";
+        }
+        return priceBucketBounds[priceBucket] + "-" + (priceBucketBounds[priceBucket + 1] - 1);
+    }
+
+    /**
+     * Number of price buckets
+     */
+    public int priceBucketCount() {
+        return priceBucketBounds.length;
+    }
+
+    /**
+     * Reload the index from the database. Queries keep using the current
+     * index while the table is read, and writes made meanwhile are replayed
+     * onto the reloaded one.
+     * @throws UncheckedSQLException if the table cannot be read; the current index is kept
+     */
+    public void rebuild() {
+        Load load = beginLoad();
+        try {
+            propertyDAO.forEachProperty(load::accept);
+        } catch (RuntimeException e) {
+            load.abort();
+            throw e;
+        }
+        load.finish();
+    }
+
+    @Override
+    public Load beginLoad() {
+        rebuildLock.lock();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Facets> rows = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+
+        return new Load() {
+            @Override
+            public void accept(Property property) {
+                Facets facets = facets(property);
+                rows.add(facets);
+                names.put(facets.neighborhood, displayName(property));
+            }
+
+            @Override
+            public void finish() {
+                lock.writeLock().lock();
+                try {
+                    clear();
+                    for (Facets facets : rows) {
+                        add(facets);
+                    }
+                    neighborhoodNames.putAll(names);
+                    for (Runnable change : pendingChanges) {
+                        change.run();
+                    }
+                    pendingChanges = null;
+                    loaded = true;
+                } finally {
+                    lock.writeLock().unlock();
+                    rebuildLock.unlock();
+                }
+            }
+
+            @Override
+            public void abort() {
+                lock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                    rebuildLock.unlock();
+                }
+            }
+        };
+    }
+
+    /**
+     * Approximate heap footprint of all facet bitmaps
+     * @return Bytes used by bitmap storage
+     */
+    public long sizeInBytes() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            long bytes = all.sizeInBytes();
+            for (IdBitmap bitmap : byNeighborhood.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            for (IdBitmap bitmap : byType.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            for (IdBitmap bitmap : byStatus.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+            for (IdBitmap bitmap : byPriceBucket) {
+                bytes += bitmap.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void propertyCreated(Property property) {
+        Facets facets = facets(property);
+        String name = displayName(property);
+        apply(() -> put(facets, name));
+    }
+
+    @Override
+    public void propertyUpdated(Property property) {
+        Facets facets = facets(property);
+        String name = displayName(property);
+        apply(() -> put(facets, name));
+    }
+
+    @Override
+    public void statusChanged(int propertyId, Property.PropertyStatus status) {
+        apply(() -> {
+            Facets facets = byId.get(propertyId);
+            if (facets != null && facets.status != status) {
+                byStatus.get(facets.status).remove(propertyId);
+                byStatus.computeIfAbsent(status, k -> new IdBitmap()).add(propertyId);
+                facets.status = status;
+            }
+        });
+    }
+
+    @Override
+    public void priceChanged(int propertyId, long newPrice) {
+        int bucket = priceBucket(newPrice);
+        apply(() -> {
+            Facets facets = byId.get(propertyId);
+            if (facets != null && facets.priceBucket != bucket) {
+                byPriceBucket[facets.priceBucket].remove(propertyId);
+                byPriceBucket[bucket].add(propertyId);
+                facets.priceBucket = bucket;
+            }
+        });
+    }
+
+    @Override
+    public void propertyDeleted(int propertyId) {
+        apply(() -> remove(propertyId));
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuildLock.lock();
+            try {
+                // A shared load may have finished while this thread waited
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply a change to the loaded index, and record it for replay while a rebuild is reading
+     */
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Facets facets(Property property) {
+        return new Facets(property.getId(), key(property.getNeighborhood()), property.getPropertyType(),
+                property.getStatus(), priceBucket(property.getCurrentPrice()));
+    }
+
+    // Callers must hold the write lock
+
+    private void put(Facets facets, String neighborhoodName) {
+        remove(facets.id);
+        // Replays share one Facets instance, so each application indexes its own copy
+        add(new Facets(facets.id, facets.neighborhood, facets.type, facets.status, facets.priceBucket));
+        neighborhoodNames.put(facets.neighborhood, neighborhoodName);
+    }
+
+    private void add(Facets facets) {
+        int id = facets.id;
+        byId.put(id, facets);
+        all.add(id);
+        byNeighborhood.computeIfAbsent(facets.neighborhood, k -> new IdBitmap()).add(id);
+        byType.computeIfAbsent(facets.type, k -> new IdBitmap()).add(id);
+        byStatus.computeIfAbsent(facets.status, k -> new IdBitmap()).add(id);
+        byPriceBucket[facets.priceBucket].add(id);
+    }
+
+    private void remove(int propertyId) {
+        Facets facets = byId.remove(propertyId);
+        if (facets == null) {
+            return;
+        }
+        all.remove(propertyId);
+        IdBitmap neighborhoodBitmap = byNeighborhood.get(facets.neighborhood);
+        neighborhoodBitmap.remove(propertyId);
+        if (neighborhoodBitmap.isEmpty()) {
+            byNeighborhood.remove(facets.neighborhood);
+            neighborhoodNames.remove(facets.neighborhood);
+        }
+        byType.get(facets.type).remove(propertyId);
+        byStatus.get(facets.status).remove(propertyId);
+        byPriceBucket[facets.priceBucket].remove(propertyId);
+    }
+
+    private void clear() {
+        byId.clear();
+        all = new IdBitmap();
+        byNeighborhood.clear();
+        neighborhoodNames.clear();
+        byType.clear();
+        byStatus.clear();
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new IdBitmap();
+        }
+    }
+
+    private int priceBucket(long price) {
+        int index = Arrays.binarySearch(priceBucketBounds, price);
+        // Negative prices fall into the first bucket
+        return index >= 0 ? index : Math.max(0, -index - 2);
+    }
+
+    private static <K> IdBitmap bitmap(Map<K, IdBitmap> bitmaps, K key) {
+        IdBitmap bitmap = bitmaps.get(key);
+        return bitmap != null ? bitmap : new IdBitmap();
+    }
+
+    /**
+     * Intersect the non-null filters
+     * @return Intersection, or null if every filter is null
+     */
+    private static IdBitmap intersect(IdBitmap... filters) {
+        IdBitmap result = null;
+        for (IdBitmap filter : filters) {
+            if (filter != null) {
+                result = result == null ? filter : result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static <K> void putCount(Map<K, Integer> counts, K value, IdBitmap bitmap, IdBitmap base) {
+        int count = base == null ? bitmap.cardinality() : bitmap.andCardinality(base);
+        if (count > 0) {
+            counts.put(value, count);
+        }
+    }
+
+    private static String displayName(Property property) {
+        return property.getNeighborhood() == null ? "" : property.getNeighborhood();
+    }
+
+    private static String key(String neighborhood) {
+        return neighborhood == null ? "" : neighborhood.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Facet values currently indexed for one property
+     */
+    private static class Facets {
+        final int id;
+        final String neighborhood;
+        final Property.PropertyType type;
+        Property.PropertyStatus status;
+        int priceBucket;
+
+        Facets(int id, String neighborhood, Property.PropertyType type, Property.PropertyStatus status, int priceBucket) {
+            this.id = id;
+            this.neighborhood = neighborhood;
+            this.type = type;
+            this.status = status;
+            this.priceBucket = priceBucket;
+        }
+    }
+
+    /**
+     * Facet counts for one filter
+     */
+    public static class FacetCounts {
+        private final int total;
+        private final Map<String, Integer> neighborhoods;
+        private final Map<Property.PropertyType, Integer> propertyTypes;
+        private final Map<Property.PropertyStatus, Integer> statuses;
+        private final Map<String, Integer> priceBuckets;
+
+        public FacetCounts(int total, Map<String, Integer> neighborhoods, Map<Property.PropertyType, Integer> propertyTypes,
+                           Map<Property.PropertyStatus, Integer> statuses, Map<String, Integer> priceBuckets) {
+            this.total = total;
+            this.neighborhoods = Collections.unmodifiableMap(neighborhoods);
+            this.propertyTypes = Collections.unmodifiableMap(propertyTypes);
+            this.statuses = Collections.unmodifiableMap(statuses);
+            this.priceBuckets = Collections.unmodifiableMap(priceBuckets);
+        }
+
+        public int getTotal() { return total; }
+        public Map<String, Integer> getNeighborhoods() { return neighborhoods; }
+        public Map<Property.PropertyType, Integer> getPropertyTypes() { return propertyTypes; }
+        public Map<Property.PropertyStatus, Integer> getStatuses() { return statuses; }
+        public Map<String, Integer> getPriceBuckets() { return priceBuckets; }
+
+        @Override
+        public String toString() {
+            return "FacetCounts{" +
+                    "total=" + total +
+                    ", neighborhoods=" + neighborhoods +
+                    ", propertyTypes=" + propertyTypes +
+                    ", statuses=" + statuses +
+                    ", priceBuckets=" + priceBuckets +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.propertyportal.index;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative int IDs, laid out like a Roaring bitmap.
+ * IDs are split by their high 16 bits into chunks of up to 65536 values.
+ * A chunk holding at most 4096 IDs is a sorted char array (2 bytes per ID);
+ * a denser chunk is a fixed 8 KB bitset. Sparse and dense ID ranges both stay
+ * compact, and intersections work chunk by chunk without expanding either side.
+ * Not thread-safe.
+ */
+public final class IdBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    // Dense chunks shrink back to arrays well below ARRAY_MAX so add/remove at the boundary does not flap
+    private static final int ARRAY_SHRINK = ARRAY_MAX / 2;
+    private static final int BITMAP_WORDS = 1024;
+
+    private char[] keys = new char[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int chunkCount;
+
+    /**
+     * Add an ID
+     * @param id Non-negative ID
+     * @return true if the ID was not already present
+     */
+    public boolean add(int id) {
+        char key = (char) (id >>> 16);
+        int index = Arrays.binarySearch(keys, 0, chunkCount, key);
+        if (index < 0) {
+            index = -index - 1;
+            if (chunkCount == keys.length) {
+                keys = Arrays.copyOf(keys, chunkCount * 2);
+                chunks = Arrays.copyOf(chunks, chunkCount * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+            System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+            keys[index] = key;
+            chunks[index] = new Chunk();
+            chunkCount++;
+        }
+        return chunks[index].add((char) id);
+    }
+
+    /**
+     * Remove an ID
+     * @param id ID
+     * @return true if the ID was present
+     */
+    public boolean remove(int id) {
+        int index = Arrays.binarySearch(keys, 0, chunkCount, (char) (id >>> 16));
+        if (index < 0 || !chunks[index].remove((char) id)) {
+            return false;
+        }
+        if (chunks[index].cardinality == 0) {
+            System.arraycopy(keys, index + 1, keys, index, chunkCount - index - 1);
+            System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+            chunks[--chunkCount] = null;
+        }
+        return true;
+    }
+
+    public boolean contains(int id) {
+        int index = Arrays.binarySearch(keys, 0, chunkCount, (char) (id >>> 16));
+        return index >= 0 && chunks[index].contains((char) id);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < chunkCount; i++) {
+            cardinality += chunks[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return chunkCount == 0;
+    }
+
+    /**
+     * Intersect with another bitmap
+     * @param other Bitmap to intersect with
+     * @return New bitmap holding the IDs present in both
+     */
+    public IdBitmap and(IdBitmap other) {
+        IdBitmap result = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Chunk chunk = chunks[i].and(other.chunks[j]);
+                if (chunk != null) {
+                    if (result.chunkCount == result.keys.length) {
+                        result.keys = Arrays.copyOf(result.keys, result.chunkCount * 2);
+                        result.chunks = Arrays.copyOf(result.chunks, result.chunkCount * 2);
+                    }
+                    result.keys[result.chunkCount] = keys[i];
+                    result.chunks[result.chunkCount++] = chunk;
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Count the IDs present in both bitmaps without building the intersection
+     * @param other Bitmap to intersect with
+     * @return Size of the intersection
+     */
+    public int andCardinality(IdBitmap other) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < chunkCount && j < other.chunkCount) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                cardinality += chunks[i].andCardinality(other.chunks[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Approximate heap footprint of the ID data
+     * @return Bytes used by chunk storage
+     */
+    public long sizeInBytes() {
+        long bytes = keys.length * 2L;
+        for (int i = 0; i < chunkCount; i++) {
+            bytes += chunks[i].bits != null ? BITMAP_WORDS * 8L : chunks[i].values.length * 2L;
+        }
+        return bytes;
+    }
+
+    /**
+     * The low 16 bits of the IDs in one chunk, as a sorted array or a bitset
+     */
+    private static final class Chunk {
+        private char[] values = new char[4];
+        private long[] bits;
+        private int cardinality;
+
+        boolean add(char value) {
+            if (bits != null) {
+                long mask = 1L << value;
+                if ((bits[value >>> 6] & mask) != 0) {
+                    return false;
+                }
+                bits[value >>> 6] |= mask;
+                cardinality++;
+                return true;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_MAX) {
+                toBitmap();
+                return add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return true;
+        }
+
+        boolean remove(char value) {
+            if (bits != null) {
+                long mask = 1L << value;
+                if ((bits[value >>> 6] & mask) == 0) {
+                    return false;
+                }
+                bits[value >>> 6] &= ~mask;
+                if (--cardinality <= ARRAY_SHRINK) {
+                    toArray();
+                }
+                return true;
+            }
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return true;
+        }
+
+        boolean contains(char value) {
+            if (bits != null) {
+                return (bits[value >>> 6] & (1L << value)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        int andCardinality(Chunk other) {
+            if (bits != null && other.bits != null) {
+                int count = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    count += Long.bitCount(bits[w] & other.bits[w]);
+                }
+                return count;
+            }
+            if (bits != null) {
+                return other.andCardinality(this);
+            }
+            int count = 0;
+            if (other.bits != null) {
+                for (int k = 0; k < cardinality; k++) {
+                    if (other.contains(values[k])) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            int i = 0;
+            int j = 0;
+            while (i < cardinality && j < other.cardinality) {
+                if (values[i] < other.values[j]) {
+                    i++;
+                } else if (values[i] > other.values[j]) {
+                    j++;
+                } else {
+                    count++;
+                    i++;
+                    j++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * @return Intersection, or null if it is empty
+         */
+        Chunk and(Chunk other) {
+            Chunk result = new Chunk();
+            if (bits != null && other.bits != null) {
+                result.bits = new long[BITMAP_WORDS];
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    result.bits[w] = bits[w] & other.bits[w];
+                    result.cardinality += Long.bitCount(result.bits[w]);
+                }
+                if (result.cardinality <= ARRAY_MAX) {
+                    result.toArray();
+                }
+            } else if (bits != null) {
+                return other.and(this);
+            } else {
+                result.values = new char[Math.min(cardinality, other.cardinality)];
+                if (other.bits != null) {
+                    for (int k = 0; k < cardinality; k++) {
+                        if (other.contains(values[k])) {
+                            result.values[result.cardinality++] = values[k];
+                        }
+                    }
+                } else {
+                    int i = 0;
+                    int j = 0;
+                    while (i < cardinality && j < other.cardinality) {
+                        if (values[i] < other.values[j]) {
+                            i++;
+                        } else if (values[i] > other.values[j]) {
+                            j++;
+                        } else {
+                            result.values[result.cardinality++] = values[i];
+                            i++;
+                            j++;
+                        }
+                    }
+                }
+            }
+            return result.cardinality == 0 ? null : result;
+        }
+
+        private void toBitmap() {
+            bits = new long[BITMAP_WORDS];
+            for (int k = 0; k < cardinality; k++) {
+                bits[values[k] >>> 6] |= 1L << values[k];
+            }
+            values = null;
+        }
+
+        private void toArray() {
+            char[] array = new char[Math.max(4, cardinality)];
+            int k = 0;
+            for (int w = 0; w < BITMAP_WORDS; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    array[k++] = (char) ((w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            values = array;
+            bits = null;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.propertyportal.index;
+
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.dao.UncheckedSQLException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads several in-memory indexes from one pass over the Property table,
+ * so a restarted node reads the table once instead of once per index
+ */
+public final class IndexLoader {
+
+    private IndexLoader() {
+    }
+
+    /**
+     * Reload every index from a single table scan
+     * @param propertyDAO Property DAO
+     * @param indexes Indexes to reload
+     * @return Number of properties read
+     * @throws UncheckedSQLException if the table cannot be read; every index keeps its current contents
+     */
+    public static long loadAll(PropertyDAO propertyDAO, List<? extends SharedScanIndex> indexes) {
+        List<SharedScanIndex.Load> loads = new ArrayList<>(indexes.size());
+        long count;
+        try {
+            for (SharedScanIndex index : indexes) {
+                loads.add(index.beginLoad());
+            }
+            count = propertyDAO.forEachProperty(property -> {
+                for (SharedScanIndex.Load load : loads) {
+                    load.accept(property);
+                }
+            });
+        } catch (RuntimeException e) {
+            for (SharedScanIndex.Load load : loads) {
+                load.abort();
+            }
+            throw e;
+        }
+        for (int i = 0; i < loads.size(); i++) {
+            try {
+                loads.get(i).finish();
+            } catch (RuntimeException e) {
+                for (SharedScanIndex.Load unfinished : loads.subList(i + 1, loads.size())) {
+                    unfinished.abort();
+                }
+                throw e;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,656 @@
+package com.propertyportal.index;
+
+import com.propertyportal.dao.PropertyChangeListener;
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.dao.UncheckedSQLException;
+import com.propertyportal.model.Property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of every property's current price, ordered by
+ * (price, id) like PropertyDAO.findByPriceRangePage(). One ordered list
+ * covers all properties and one covers each status, so a status filter is
+ * a lookup in a smaller list rather than a scan.
+ * Each list stores prices and IDs in primitive arrays split into blocks of
+ * up to 1024 entries, with a Fenwick tree over the block sizes. Range
+ * counts take O(log n), pages are read straight from the blocks, and a
+ * price change moves one entry without a rebuild.
+ * The index is loaded on first use and kept current from PropertyDAO writes.
+ */
+public class PriceIndex implements PropertyChangeListener, SharedScanIndex {
+
+    private static final Property.PropertyStatus[] STATUSES = Property.PropertyStatus.values();
+    private static final byte NOT_INDEXED = -1;
+
+    private final PropertyDAO propertyDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private SortedPriceList all = new SortedPriceList();
+    private SortedPriceList[] byStatus = newStatusLists();
+    // Current price and status ordinal by property ID; IDs are dense auto-increment values
+    private long[] priceById = new long[0];
+    private byte[] statusById = new byte[0];
+    // Changes seen while a rebuild is reading, replayed onto the reloaded index
+    private List<Runnable> pendingChanges;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public PriceIndex(PropertyDAO propertyDAO) {
+        this.propertyDAO = propertyDAO;
+        propertyDAO.addChangeListener(this);
+    }
+
+    /**
+     * Count properties in a price range
+     * @param minPrice Minimum price, inclusive
+     * @param maxPrice Maximum price, inclusive
+     * @param status Status filter (optional)
+     * @return Number of matching properties
+     */
+    public int count(long minPrice, long maxPrice, Property.PropertyStatus status) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return list(status).countRange(minPrice, maxPrice);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get one page of property IDs in a price range, cheapest first
+     * @param minPrice Minimum price, inclusive
+     * @param maxPrice Maximum price, inclusive
+     * @param status Status filter (optional)
+     * @param afterPrice Price of the last property on the previous page, or null for the first page
+     * @param afterId ID of the last property on the previous page
+     * @param limit Maximum IDs to return
+     * @return Property IDs ordered by price, then ID
+     */
+    public List<Integer> page(long minPrice, long maxPrice, Property.PropertyStatus status,
+                              Long afterPrice, int afterId, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return list(status).page(minPrice, maxPrice, afterPrice, afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reload the index from the database. Queries keep using the current
+     * index while the prices are read into new lists, and writes made
+     * meanwhile are replayed onto them.
+     * @throws UncheckedSQLException if the prices cannot be read; the current index is kept
+     */
+    public void rebuild() {
+        Load load = beginLoad();
+        try (Stream<Property> entries = propertyDAO.streamPriceEntries()) {
+            for (Iterator<Property> it = entries.iterator(); it.hasNext(); ) {
+                load.accept(it.next());
+            }
+        } catch (RuntimeException e) {
+            load.abort();
+            throw e;
+        }
+        load.finish();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Properties may arrive in any order; they are sorted by (price, id)
+     * on finish unless they already arrived that way.
+     */
+    @Override
+    public Load beginLoad() {
+        rebuildLock.lock();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return new Load() {
+            private long[] prices = new long[1024];
+            private int[] ids = new int[1024];
+            private byte[] statuses = new byte[1024];
+            private int size;
+            private boolean sorted = true;
+
+            @Override
+            public void accept(Property property) {
+                if (size == ids.length) {
+                    prices = Arrays.copyOf(prices, size * 2);
+                    ids = Arrays.copyOf(ids, size * 2);
+                    statuses = Arrays.copyOf(statuses, size * 2);
+                }
+                prices[size] = property.getCurrentPrice();
+                ids[size] = property.getId();
+                statuses[size] = (byte) property.getStatus().ordinal();
+                if (size > 0 && SortedPriceList.compare(prices[size - 1], ids[size - 1], prices[size], ids[size]) > 0) {
+                    sorted = false;
+                }
+                size++;
+            }
+
+            @Override
+            public void finish() {
+                SortedPriceList loadedAll = new SortedPriceList();
+                SortedPriceList[] loadedByStatus = newStatusLists();
+                long[] loadedPrices;
+                byte[] loadedStatuses;
+                try {
+                    int maxId = -1;
+                    for (int i = 0; i < size; i++) {
+                        maxId = Math.max(maxId, ids[i]);
+                    }
+                    loadedPrices = new long[maxId + 1];
+                    loadedStatuses = new byte[maxId + 1];
+                    Arrays.fill(loadedStatuses, NOT_INDEXED);
+                    for (int i = 0; i < size; i++) {
+                        loadedPrices[ids[i]] = prices[i];
+                        loadedStatuses[ids[i]] = statuses[i];
+                    }
+                    if (!sorted) {
+                        sortByPrice(prices, ids, size);
+                    }
+                    // Pairs are now in (price, id) order, so every list can be filled by appending
+                    for (int i = 0; i < size; i++) {
+                        loadedAll.append(prices[i], ids[i]);
+                        loadedByStatus[loadedStatuses[ids[i]]].append(prices[i], ids[i]);
+                    }
+                    loadedAll.finishAppend();
+                    for (SortedPriceList list : loadedByStatus) {
+                        list.finishAppend();
+                    }
+                } catch (RuntimeException e) {
+                    abort();
+                    throw e;
+                }
+
+                lock.writeLock().lock();
+                try {
+                    all = loadedAll;
+                    byStatus = loadedByStatus;
+                    priceById = loadedPrices;
+                    statusById = loadedStatuses;
+                    for (Runnable change : pendingChanges) {
+                        change.run();
+                    }
+                    pendingChanges = null;
+                    loaded = true;
+                } finally {
+                    lock.writeLock().unlock();
+                    rebuildLock.unlock();
+                }
+            }
+
+            @Override
+            public void abort() {
+                lock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                    rebuildLock.unlock();
+                }
+            }
+        };
+    }
+
+    /**
+     * Number of indexed properties
+     */
+    public int size() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return all.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void propertyCreated(Property property) {
+        int propertyId = property.getId();
+        long price = property.getCurrentPrice();
+        Property.PropertyStatus status = property.getStatus();
+        apply(() -> put(propertyId, price, status));
+    }
+
+    @Override
+    public void propertyUpdated(Property property) {
+        int propertyId = property.getId();
+        long price = property.getCurrentPrice();
+        Property.PropertyStatus status = property.getStatus();
+        apply(() -> put(propertyId, price, status));
+    }
+
+    @Override
+    public void statusChanged(int propertyId, Property.PropertyStatus status) {
+        apply(() -> {
+            if (indexed(propertyId)) {
+                long price = priceById[propertyId];
+                byStatus[statusById[propertyId]].remove(price, propertyId);
+                byStatus[status.ordinal()].insert(price, propertyId);
+                statusById[propertyId] = (byte) status.ordinal();
+            }
+        });
+    }
+
+    @Override
+    public void priceChanged(int propertyId, long newPrice) {
+        apply(() -> {
+            if (indexed(propertyId)) {
+                Property.PropertyStatus status = STATUSES[statusById[propertyId]];
+                remove(propertyId);
+                add(propertyId, newPrice, status);
+            }
+        });
+    }
+
+    @Override
+    public void propertyDeleted(int propertyId) {
+        apply(() -> remove(propertyId));
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuildLock.lock();
+            try {
+                // A shared load may have finished while this thread waited
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Apply a change to the loaded index, and record it for replay while a rebuild is reading
+     */
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Callers must hold the write lock
+
+    private void put(int propertyId, long price, Property.PropertyStatus status) {
+        remove(propertyId);
+        add(propertyId, price, status);
+    }
+
+    private void add(int propertyId, long price, Property.PropertyStatus status) {
+        track(propertyId, price, status);
+        all.insert(price, propertyId);
+        byStatus[status.ordinal()].insert(price, propertyId);
+    }
+
+    private void remove(int propertyId) {
+        if (!indexed(propertyId)) {
+            return;
+        }
+        long price = priceById[propertyId];
+        all.remove(price, propertyId);
+        byStatus[statusById[propertyId]].remove(price, propertyId);
+        statusById[propertyId] = NOT_INDEXED;
+    }
+
+    private void track(int propertyId, long price, Property.PropertyStatus status) {
+        if (propertyId >= priceById.length) {
+            int length = Math.max(propertyId + 1, priceById.length + (priceById.length >> 1));
+            int oldLength = statusById.length;
+            priceById = Arrays.copyOf(priceById, length);
+            statusById = Arrays.copyOf(statusById, length);
+            Arrays.fill(statusById, oldLength, length, NOT_INDEXED);
+        }
+        priceById[propertyId] = price;
+        statusById[propertyId] = (byte) status.ordinal();
+    }
+
+    private boolean indexed(int propertyId) {
+        return propertyId >= 0 && propertyId < statusById.length && statusById[propertyId] != NOT_INDEXED;
+    }
+
+    private SortedPriceList list(Property.PropertyStatus status) {
+        return status == null ? all : byStatus[status.ordinal()];
+    }
+
+    /**
+     * Sort parallel (price, id) arrays by price, then ID, with a bottom-up merge sort
+     */
+    private static void sortByPrice(long[] prices, int[] ids, int size) {
+        long[] priceBuffer = new long[size];
+        int[] idBuffer = new int[size];
+        long[] fromPrices = prices;
+        int[] fromIds = ids;
+        long[] toPrices = priceBuffer;
+        int[] toIds = idBuffer;
+        for (int width = 1; width < size; width *= 2) {
+            for (int low = 0; low < size; low += 2 * width) {
+                int mid = Math.min(low + width, size);
+                int high = Math.min(low + 2 * width, size);
+                int left = low;
+                int right = mid;
+                for (int out = low; out < high; out++) {
+                    if (right == high || (left < mid
+                            && SortedPriceList.compare(fromPrices[left], fromIds[left], fromPrices[right], fromIds[right]) <= 0)) {
+                        toPrices[out] = fromPrices[left];
+                        toIds[out] = fromIds[left++];
+                    } else {
+                        toPrices[out] = fromPrices[right];
+                        toIds[out] = fromIds[right++];
+                    }
+                }
+            }
+            long[] swapPrices = fromPrices;
+            fromPrices = toPrices;
+            toPrices = swapPrices;
+            int[] swapIds = fromIds;
+            fromIds = toIds;
+            toIds = swapIds;
+        }
+        if (fromPrices != prices) {
+            System.arraycopy(fromPrices, 0, prices, 0, size);
+            System.arraycopy(fromIds, 0, ids, 0, size);
+        }
+    }
+
+    private static SortedPriceList[] newStatusLists() {
+        SortedPriceList[] lists = new SortedPriceList[STATUSES.length];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new SortedPriceList();
+        }
+        return lists;
+    }
+
+    /**
+     * (price, id) pairs in ascending order, held in blocks of parallel
+     * primitive arrays. Blocks split when full and merge with a neighbor when
+     * they run low; the Fenwick tree over block sizes turns a position within
+     * a block into a position within the whole list.
+     */
+    private static final class SortedPriceList {
+        private static final int BLOCK_CAPACITY = 1024;
+        private static final int BLOCK_FILL = BLOCK_CAPACITY / 2;
+
+        private long[][] prices = new long[4][];
+        private int[][] ids = new int[4][];
+        private int[] sizes = new int[4];
+        private int blockCount = 1;
+        // 1-based Fenwick tree over sizes
+        private int[] fenwick = new int[5];
+        private int size;
+
+        SortedPriceList() {
+            prices[0] = new long[BLOCK_CAPACITY];
+            ids[0] = new int[BLOCK_CAPACITY];
+        }
+
+        void insert(long price, int id) {
+            int block = findBlock(price, id);
+            int position = lowerBound(block, price, id);
+            int blockSize = sizes[block];
+            System.arraycopy(prices[block], position, prices[block], position + 1, blockSize - position);
+            System.arraycopy(ids[block], position, ids[block], position + 1, blockSize - position);
+            prices[block][position] = price;
+            ids[block][position] = id;
+            sizes[block]++;
+            size++;
+            if (sizes[block] == BLOCK_CAPACITY) {
+                split(block);
+            } else {
+                fenwickAdd(block, 1);
+            }
+        }
+
+        boolean remove(long price, int id) {
+            int block = findBlock(price, id);
+            int position = lowerBound(block, price, id);
+            if (position == sizes[block] || prices[block][position] != price || ids[block][position] != id) {
+                return false;
+            }
+            int blockSize = sizes[block];
+            System.arraycopy(prices[block], position + 1, prices[block], position, blockSize - position - 1);
+            System.arraycopy(ids[block], position + 1, ids[block], position, blockSize - position - 1);
+            sizes[block]--;
+            size--;
+            if (!mergeIfSparse(block)) {
+                fenwickAdd(block, -1);
+            }
+            return true;
+        }
+
+        /**
+         * Append a pair no smaller than the last one, filling blocks halfway so later inserts do not split at once.
+         * Call {@link #finishAppend()} when done.
+         */
+        void append(long price, int id) {
+            int block = blockCount - 1;
+            if (sizes[block] == BLOCK_FILL) {
+                block = addBlock(blockCount);
+            }
+            prices[block][sizes[block]] = price;
+            ids[block][sizes[block]] = id;
+            sizes[block]++;
+            size++;
+        }
+
+        void finishAppend() {
+            rebuildFenwick();
+        }
+
+        int countRange(long minPrice, long maxPrice) {
+            if (minPrice > maxPrice || size == 0) {
+                return 0;
+            }
+            return rank(maxPrice, Integer.MAX_VALUE, true) - rank(minPrice, Integer.MIN_VALUE, false);
+        }
+
+        List<Integer> page(long minPrice, long maxPrice, Long afterPrice, int afterId, int limit) {
+            List<Integer> page = new ArrayList<>(Math.min(limit, 256));
+            if (minPrice > maxPrice || size == 0 || limit <= 0) {
+                return page;
+            }
+            int block;
+            int position;
+            if (afterPrice != null && compare(afterPrice, afterId, minPrice, Integer.MIN_VALUE) >= 0) {
+                block = findBlock(afterPrice, afterId);
+                position = upperBound(block, afterPrice, afterId);
+            } else {
+                block = findBlock(minPrice, Integer.MIN_VALUE);
+                position = lowerBound(block, minPrice, Integer.MIN_VALUE);
+            }
+            while (block < blockCount && page.size() < limit) {
+                if (position == sizes[block]) {
+                    block++;
+                    position = 0;
+                    continue;
+                }
+                if (prices[block][position] > maxPrice) {
+                    break;
+                }
+                page.add(ids[block][position]);
+                position++;
+            }
+            return page;
+        }
+
+        /**
+         * Number of pairs before (price, id), or up to and including it when inclusive
+         */
+        private int rank(long price, int id, boolean inclusive) {
+            int block = findBlock(price, id);
+            int position = inclusive ? upperBound(block, price, id) : lowerBound(block, price, id);
+            return prefix(block) + position;
+        }
+
+        /**
+         * Last block whose first pair is not greater than (price, id), or block 0
+         */
+        private int findBlock(long price, int id) {
+            int low = 1;
+            int high = blockCount - 1;
+            int found = 0;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (compare(prices[mid][0], ids[mid][0], price, id) <= 0) {
+                    found = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        private int lowerBound(int block, long price, int id) {
+            int low = 0;
+            int high = sizes[block];
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(prices[block][mid], ids[block][mid], price, id) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int upperBound(int block, long price, int id) {
+            int low = 0;
+            int high = sizes[block];
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(prices[block][mid], ids[block][mid], price, id) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void split(int block) {
+            int half = sizes[block] / 2;
+            int next = addBlock(block + 1);
+            int moved = sizes[block] - half;
+            System.arraycopy(prices[block], half, prices[next], 0, moved);
+            System.arraycopy(ids[block], half, ids[next], 0, moved);
+            sizes[next] = moved;
+            sizes[block] = half;
+            rebuildFenwick();
+        }
+
+        /**
+         * Fold a block that has dropped below a quarter full into a neighbor
+         * @return true if blocks were merged (and the Fenwick tree rebuilt)
+         */
+        private boolean mergeIfSparse(int block) {
+            if (blockCount == 1 || sizes[block] >= BLOCK_CAPACITY / 4) {
+                return false;
+            }
+            if (sizes[block] == 0) {
+                // findBlock() reads each block's first pair, so only block 0 may be empty
+                removeBlock(block);
+                rebuildFenwick();
+                return true;
+            }
+            int left = block > 0 ? block - 1 : block;
+            int right = left + 1;
+            if (sizes[left] + sizes[right] >= BLOCK_CAPACITY) {
+                return false;
+            }
+            System.arraycopy(prices[right], 0, prices[left], sizes[left], sizes[right]);
+            System.arraycopy(ids[right], 0, ids[left], sizes[left], sizes[right]);
+            sizes[left] += sizes[right];
+            removeBlock(right);
+            rebuildFenwick();
+            return true;
+        }
+
+        private int addBlock(int index) {
+            if (blockCount == sizes.length) {
+                int length = blockCount * 2;
+                prices = Arrays.copyOf(prices, length);
+                ids = Arrays.copyOf(ids, length);
+                sizes = Arrays.copyOf(sizes, length);
+            }
+            System.arraycopy(prices, index, prices, index + 1, blockCount - index);
+            System.arraycopy(ids, index, ids, index + 1, blockCount - index);
+            System.arraycopy(sizes, index, sizes, index + 1, blockCount - index);
+            prices[index] = new long[BLOCK_CAPACITY];
+            ids[index] = new int[BLOCK_CAPACITY];
+            sizes[index] = 0;
+            blockCount++;
+            return index;
+        }
+
+        private void removeBlock(int index) {
+            System.arraycopy(prices, index + 1, prices, index, blockCount - index - 1);
+            System.arraycopy(ids, index + 1, ids, index, blockCount - index - 1);
+            System.arraycopy(sizes, index + 1, sizes, index, blockCount - index - 1);
+            blockCount--;
+            prices[blockCount] = null;
+            ids[blockCount] = null;
+        }
+
+        private int prefix(int block) {
+            int sum = 0;
+            for (int i = block; i > 0; i -= i & -i) {
+                sum += fenwick[i];
+            }
+            return sum;
+        }
+
+        private void fenwickAdd(int block, int delta) {
+            for (int i = block + 1; i <= blockCount; i += i & -i) {
+                fenwick[i] += delta;
+            }
+        }
+
+        private void rebuildFenwick() {
+            if (fenwick.length < blockCount + 1) {
+                fenwick = new int[sizes.length + 1];
+            } else {
+                Arrays.fill(fenwick, 0);
+            }
+            for (int i = 1; i <= blockCount; i++) {
+                fenwick[i] += sizes[i - 1];
+                int parent = i + (i & -i);
+                if (parent <= blockCount) {
+                    fenwick[parent] += fenwick[i];
+                }
+            }
+        }
+
+        private static int compare(long price, int id, long otherPrice, int otherId) {
+            if (price != otherPrice) {
+                return price < otherPrice ? -1 : 1;
+            }
+            return Integer.compare(id, otherId);
+        }
+    }
+}
@@ -0,0 +1,791 @@
+package com.propertyportal.index;
+
+import com.propertyportal.dao.PropertyChangeListener;
+import com.propertyportal.dao.PropertyChangePoller;
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.model.Property;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Column-oriented in-memory copy of the Property fields the analytics read.
+ * Each property occupies the slot at its ID in a set of primitive arrays:
+ * price, status and type codes, listing date as an epoch day, days on market
+ * for sold properties, and dictionary codes for neighborhood and region.
+ * Aggregations are single passes over those arrays with no per-row objects.
+ * The snapshot is loaded in ID-ordered batches on first use, kept current
+ * from PropertyDAO writes, and reloaded on a background thread once it is
+ * older than its maximum age to pick up writes made by other nodes.
+ * Given a file, the snapshot is also written there periodically and on
+ * close. The first load then maps that file, fetches only the rows
+ * written since its updatedAt high-water mark and drops the rows tombstoned
+ * since then, so a restarted node is warm without re-reading the whole
+ * table. A file older than the tombstone retention is loaded in full.
+ */
+public class PropertySnapshot implements PropertyChangeListener {
+
+    private static final Property.PropertyStatus[] STATUSES = Property.PropertyStatus.values();
+    private static final byte ABSENT = -1;
+    private static final int NOT_SOLD = -1;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Snapshot file layout, little-endian: 32-byte header, the columns for slots [0, slots), the two
+    // dictionaries, then a CRC32 of everything before it
+    private static final int FILE_MAGIC = 0x31535050; // "PPS1"
+    private static final int FILE_FORMAT_VERSION = 1;
+    private static final int FILE_HEADER_BYTES = 32;
+    private static final int FILE_BYTES_PER_SLOT = 8 + 4 * 4 + 2;
+    private static final long NO_WATERMARK = Long.MIN_VALUE;
+
+    private final PropertyDAO propertyDAO;
+    private final long maxAgeNanos;
+    private final Path file;
+    private final ScheduledExecutorService writer;
+    private final ExecutorService refresher;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private final Object persistLock = new Object();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    // Bumped on every load and applied write; the file is rewritten only when it has moved
+    private final AtomicLong changes = new AtomicLong();
+    private long persistedChanges = -1;
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    // Writes seen while a rebuild is loading, replayed onto the new columns in order
+    private List<Consumer<Columns>> pendingChanges;
+    private volatile boolean loaded;
+    private volatile long loadedAtNanos;
+
+    public PropertySnapshot(PropertyDAO propertyDAO, Duration maxAge) {
+        this(propertyDAO, maxAge, null, null);
+    }
+
+    /**
+     * Create a snapshot backed by a file for warm restarts
+     * @param propertyDAO Property DAO
+     * @param maxAge Age after which the snapshot is reloaded from the database
+     * @param file Snapshot file, or null to keep the snapshot in memory only
+     * @param persistInterval Time between writes of the file
+     */
+    public PropertySnapshot(PropertyDAO propertyDAO, Duration maxAge, Path file, Duration persistInterval) {
+        this.propertyDAO = propertyDAO;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.file = file;
+        this.refresher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "property-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (file != null) {
+            this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "property-snapshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = Math.max(1, persistInterval.toMillis());
+            writer.scheduleWithFixedDelay(this::persist, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.writer = null;
+        }
+        propertyDAO.addChangeListener(this);
+    }
+
+    /**
+     * Price and status statistics over the properties matching the filters
+     * @param region Region filter, compared case-insensitively (optional)
+     * @param propertyType Property type filter (optional)
+     * @return Property statistics
+     */
+    public PropertyDAO.PropertyStatistics statistics(String region, Property.PropertyType propertyType) {
+        ensureFresh();
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            int regionCode = region == null ? -1 : c.regions.find(region);
+            if (region != null && regionCode < 0) {
+                return new PropertyDAO.PropertyStatistics(0, 0, 0, 0, 0, 0, 0);
+            }
+            int typeCode = propertyType == null ? -1 : propertyType.ordinal();
+
+            int[] statusCounts = new int[STATUSES.length];
+            int total = 0;
+            long totalPrice = 0;
+            long minPrice = Long.MAX_VALUE;
+            long maxPrice = Long.MIN_VALUE;
+            for (int i = 0; i < c.slots; i++) {
+                byte status = c.status[i];
+                if (status == ABSENT || (regionCode >= 0 && c.region[i] != regionCode)
+                        || (typeCode >= 0 && c.type[i] != typeCode)) {
+                    continue;
+                }
+                long price = c.price[i];
+                total++;
+                totalPrice += price;
+                minPrice = Math.min(minPrice, price);
+                maxPrice = Math.max(maxPrice, price);
+                statusCounts[status]++;
+            }
+            return toStatistics(total, statusCounts, 0, totalPrice, minPrice, maxPrice);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Price and status statistics per region, ordered by region
+     * @return Property statistics keyed by region
+     */
+    public Map<String, PropertyDAO.PropertyStatistics> statisticsByRegion() {
+        ensureFresh();
+        lock.readLock().lock();
+        try {
+            return groupStatistics(columns, columns.region, columns.regions);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Price and status statistics per neighborhood, ordered by neighborhood
+     * @return Property statistics keyed by neighborhood
+     */
+    public Map<String, PropertyDAO.PropertyStatistics> statisticsByNeighborhood() {
+        ensureFresh();
+        lock.readLock().lock();
+        try {
+            return groupStatistics(columns, columns.neighborhood, columns.neighborhoods);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Average days between listing and sale over sold properties
+     * @return Average days on market, or 0 if nothing has sold
+     */
+    public double averageDaysOnMarket() {
+        ensureFresh();
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            byte sold = (byte) Property.PropertyStatus.SOLD.ordinal();
+            long soldCount = 0;
+            long totalDays = 0;
+            for (int i = 0; i < c.slots; i++) {
+                if (c.status[i] == sold && c.daysOnMarket[i] != NOT_SOLD) {
+                    soldCount++;
+                    totalDays += c.daysOnMarket[i];
+                }
+            }
+            return soldCount == 0 ? 0.0 : (double) totalDays / soldCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reload the snapshot from the database. Writes made while loading are
+     * replayed onto the new snapshot before it replaces the current one.
+     * @return Number of properties in the snapshot
+     */
+    public int rebuild() {
+        return reload(false);
+    }
+
+    /**
+     * Write the snapshot to its file, replacing the previous file atomically
+     * @return true if the file was written or was already current
+     */
+    public boolean persist() {
+        if (file == null || !loaded) {
+            return false;
+        }
+        synchronized (persistLock) {
+            long changeCount;
+            ByteBuffer encoded;
+            lock.readLock().lock();
+            try {
+                changeCount = changes.get();
+                if (changeCount == persistedChanges) {
+                    return true;
+                }
+                encoded = columns.encode();
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                Path directory = file.toAbsolutePath().getParent();
+                if (directory != null) {
+                    Files.createDirectories(directory);
+                }
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    while (encoded.hasRemaining()) {
+                        channel.write(encoded);
+                    }
+                    channel.force(true);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                persistedChanges = changeCount;
+                return true;
+            } catch (IOException e) {
+                System.err.println("Error writing property snapshot " + file + ": " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Stop background refreshes and periodic writes, and write the file one last time
+     * @return true if there was nothing to write or the final write succeeded
+     */
+    public boolean close() {
+        refresher.shutdown();
+        if (writer == null) {
+            return true;
+        }
+        writer.shutdown();
+        return !loaded || persist();
+    }
+
+    private int reload(boolean warmStart) {
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Columns rebuilt;
+            try {
+                rebuilt = warmStart ? loadFromFile() : null;
+                if (rebuilt == null) {
+                    rebuilt = loadFromDatabase();
+                }
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Consumer<Columns> change : pendingChanges) {
+                    change.accept(rebuilt);
+                }
+                pendingChanges = null;
+                columns = rebuilt;
+                changes.incrementAndGet();
+                loadedAtNanos = System.nanoTime();
+                loaded = true;
+                return rebuilt.size;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Number of properties in the snapshot
+     */
+    public int size() {
+        ensureFresh();
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void propertyCreated(Property property) {
+        apply(c -> c.put(property));
+    }
+
+    @Override
+    public void propertyUpdated(Property property) {
+        apply(c -> c.put(property));
+    }
+
+    @Override
+    public void statusChanged(int propertyId, Property.PropertyStatus status) {
+        apply(c -> c.setStatus(propertyId, status));
+    }
+
+    @Override
+    public void priceChanged(int propertyId, long newPrice) {
+        apply(c -> c.setPrice(propertyId, newPrice));
+    }
+
+    @Override
+    public void propertyDeleted(int propertyId) {
+        apply(c -> c.remove(propertyId));
+    }
+
+    private void apply(Consumer<Columns> change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            if (loaded) {
+                change.accept(columns);
+                changes.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureFresh() {
+        if (!loaded) {
+            synchronized (rebuildLock) {
+                if (!loaded) {
+                    reload(file != null);
+                }
+            }
+        } else if (System.nanoTime() - loadedAtNanos > maxAgeNanos && refreshing.compareAndSet(false, true)) {
+            // Reloaded off the caller's thread; queries keep reading the current snapshot meanwhile
+            refresher.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    System.err.println("Error refreshing property snapshot: " + e.getMessage());
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+    }
+
+    private Columns loadFromDatabase() {
+        Columns target = new Columns(INITIAL_CAPACITY);
+        // Read before the first batch, so any row written while loading is at or after the watermark
+        target.watermark = propertyDAO.findLatestUpdate().orElse(null);
+        loadBatches(target, afterId -> propertyDAO.findAnalyticsEntries(afterId, LOAD_BATCH_SIZE));
+        return target;
+    }
+
+    /**
+     * Map the snapshot file and catch it up with the rows written since its watermark
+     * @return Current columns, or null if the file is missing, unreadable or cannot be caught up
+     */
+    private Columns loadFromFile() {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Columns target;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            target = Columns.decode(buffer);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error reading property snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+        if (target.watermark == null) {
+            return null;
+        }
+
+        LocalDateTime since = target.watermark;
+        Optional<LocalDateTime> databaseTime = propertyDAO.findDatabaseTime();
+        // Deletes are only known from tombstones, which the change poller purges after a retention period
+        if (!databaseTime.isPresent() ||
+                since.isBefore(databaseTime.get().minus(PropertyChangePoller.TOMBSTONE_RETENTION))) {
+            return null;
+        }
+        target.watermark = propertyDAO.findLatestUpdate().orElse(null);
+        loadBatches(target, afterId -> propertyDAO.findAnalyticsEntriesUpdatedSince(since, afterId, LOAD_BATCH_SIZE));
+        // IDs are never reused, so a tombstoned row can be removed whether or not it was fetched above
+        LocalDateTime until = propertyDAO.findDatabaseTime().orElse(databaseTime.get()).plusSeconds(1);
+        LocalDateTime afterDeletedAt = since;
+        long afterTombstoneId = 0;
+        List<PropertyDAO.Tombstone> tombstones;
+        do {
+            tombstones = propertyDAO.findTombstonePage(afterDeletedAt, afterTombstoneId, until, LOAD_BATCH_SIZE);
+            for (PropertyDAO.Tombstone tombstone : tombstones) {
+                target.remove(tombstone.getPropertyId());
+                afterDeletedAt = tombstone.getDeletedAt();
+                afterTombstoneId = tombstone.getId();
+            }
+        } while (tombstones.size() == LOAD_BATCH_SIZE);
+        return target;
+    }
+
+    private static void loadBatches(Columns target, IntFunction<List<Property>> nextBatch) {
+        int afterId = 0;
+        List<Property> batch;
+        do {
+            batch = nextBatch.apply(afterId);
+            for (Property property : batch) {
+                target.put(property);
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+    }
+
+    private static Map<String, PropertyDAO.PropertyStatistics> groupStatistics(Columns c, int[] codes,
+                                                                              Dictionary dictionary) {
+        int groups = dictionary.size;
+        int[] totals = new int[groups];
+        // Status counts laid out group-major: statusCounts[code * STATUSES.length + status]
+        int[] statusCounts = new int[groups * STATUSES.length];
+        long[] totalPrices = new long[groups];
+        long[] minPrices = new long[groups];
+        long[] maxPrices = new long[groups];
+        Arrays.fill(minPrices, Long.MAX_VALUE);
+        Arrays.fill(maxPrices, Long.MIN_VALUE);
+
+        for (int i = 0; i < c.slots; i++) {
+            byte status = c.status[i];
+            if (status == ABSENT) {
+                continue;
+            }
+            int code = codes[i];
+            long price = c.price[i];
+            totals[code]++;
+            totalPrices[code] += price;
+            minPrices[code] = Math.min(minPrices[code], price);
+            maxPrices[code] = Math.max(maxPrices[code], price);
+            statusCounts[code * STATUSES.length + status]++;
+        }
+
+        Integer[] order = new Integer[groups];
+        for (int code = 0; code < groups; code++) {
+            order[code] = code;
+        }
+        Comparator<String> byName = Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER);
+        Arrays.sort(order, (a, b) -> byName.compare(dictionary.names[a], dictionary.names[b]));
+
+        Map<String, PropertyDAO.PropertyStatistics> statistics = new LinkedHashMap<>();
+        for (int code : order) {
+            if (totals[code] > 0) {
+                statistics.put(dictionary.names[code], toStatistics(totals[code], statusCounts,
+                        code * STATUSES.length, totalPrices[code], minPrices[code], maxPrices[code]));
+            }
+        }
+        return statistics;
+    }
+
+    private static PropertyDAO.PropertyStatistics toStatistics(int total, int[] statusCounts, int offset,
+                                                               long totalPrice, long minPrice, long maxPrice) {
+        if (total == 0) {
+            return new PropertyDAO.PropertyStatistics(0, 0, 0, 0, 0, 0, 0);
+        }
+        return new PropertyDAO.PropertyStatistics(total,
+                statusCounts[offset + Property.PropertyStatus.AVAILABLE.ordinal()],
+                statusCounts[offset + Property.PropertyStatus.UNDER_OFFER.ordinal()],
+                statusCounts[offset + Property.PropertyStatus.SOLD.ordinal()],
+                totalPrice / total, minPrice, maxPrice);
+    }
+
+    /**
+     * Parallel primitive arrays indexed by property ID; IDs are dense auto-increment values
+     */
+    private static final class Columns {
+        private long[] price;
+        private byte[] status;
+        private byte[] type;
+        private int[] listingDay;
+        private int[] daysOnMarket;
+        private int[] neighborhood;
+        private int[] region;
+        private final Dictionary neighborhoods = new Dictionary();
+        private final Dictionary regions = new Dictionary();
+        // One past the highest ID stored; aggregations scan slots [0, slots)
+        private int slots;
+        private int size;
+        // Latest database updatedAt when the rows were read; only set by loads, never by write events
+        private LocalDateTime watermark;
+
+        Columns(int capacity) {
+            price = new long[capacity];
+            status = newStatusColumn(capacity);
+            type = new byte[capacity];
+            listingDay = new int[capacity];
+            daysOnMarket = new int[capacity];
+            neighborhood = new int[capacity];
+            region = new int[capacity];
+        }
+
+        void put(Property property) {
+            int id = property.getId();
+            ensureCapacity(id);
+            if (status[id] == ABSENT) {
+                size++;
+            }
+            price[id] = property.getCurrentPrice();
+            status[id] = (byte) property.getStatus().ordinal();
+            type[id] = (byte) property.getPropertyType().ordinal();
+            listingDay[id] = property.getListingDate() == null
+                    ? (int) LocalDate.now().toEpochDay()
+                    : (int) property.getListingDate().toLocalDate().toEpochDay();
+            // Same whole-day count as TIMESTAMPDIFF(DAY, listingDate, soldDate)
+            daysOnMarket[id] = property.getListingDate() == null || property.getSoldDate() == null
+                    ? NOT_SOLD
+                    : (int) ChronoUnit.DAYS.between(property.getListingDate(), property.getSoldDate());
+            neighborhood[id] = neighborhoods.code(property.getNeighborhood());
+            region[id] = regions.code(property.getRegion());
+            slots = Math.max(slots, id + 1);
+        }
+
+        void setStatus(int id, Property.PropertyStatus newStatus) {
+            if (!contains(id)) {
+                return;
+            }
+            if (newStatus == Property.PropertyStatus.SOLD && status[id] != newStatus.ordinal()) {
+                // markSold stamps soldDate = NOW(); counted in calendar days until the next reload
+                daysOnMarket[id] = (int) (LocalDate.now().toEpochDay() - listingDay[id]);
+            }
+            status[id] = (byte) newStatus.ordinal();
+        }
+
+        void setPrice(int id, long newPrice) {
+            if (contains(id)) {
+                price[id] = newPrice;
+            }
+        }
+
+        void remove(int id) {
+            if (contains(id)) {
+                status[id] = ABSENT;
+                size--;
+            }
+        }
+
+        private boolean contains(int id) {
+            return id >= 0 && id < slots && status[id] != ABSENT;
+        }
+
+        private void ensureCapacity(int id) {
+            if (id < price.length) {
+                return;
+            }
+            int oldLength = price.length;
+            int length = Math.max(id + 1, oldLength + (oldLength >> 1));
+            price = Arrays.copyOf(price, length);
+            status = Arrays.copyOf(status, length);
+            Arrays.fill(status, oldLength, length, ABSENT);
+            type = Arrays.copyOf(type, length);
+            listingDay = Arrays.copyOf(listingDay, length);
+            daysOnMarket = Arrays.copyOf(daysOnMarket, length);
+            neighborhood = Arrays.copyOf(neighborhood, length);
+            region = Arrays.copyOf(region, length);
+        }
+
+        /**
+         * Encode the columns in the snapshot file layout
+         * @return Buffer positioned at the start of the encoded file
+         */
+        ByteBuffer encode() {
+            byte[][] neighborhoodNames = neighborhoods.encodeNames();
+            byte[][] regionNames = regions.encodeNames();
+            int length = FILE_HEADER_BYTES + slots * FILE_BYTES_PER_SLOT
+                    + Dictionary.encodedSize(neighborhoodNames) + Dictionary.encodedSize(regionNames) + 8;
+            ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(FILE_MAGIC);
+            buffer.putInt(FILE_FORMAT_VERSION);
+            buffer.putLong(watermark == null ? NO_WATERMARK : watermark.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(watermark == null ? 0 : watermark.getNano());
+            buffer.putInt(slots);
+            buffer.putInt(size);
+            buffer.putInt(0);
+
+            // Longs first so the price column starts 8-byte aligned
+            buffer.asLongBuffer().put(price, 0, slots);
+            buffer.position(buffer.position() + slots * 8);
+            for (int[] column : new int[][] {listingDay, daysOnMarket, neighborhood, region}) {
+                buffer.asIntBuffer().put(column, 0, slots);
+                buffer.position(buffer.position() + slots * 4);
+            }
+            buffer.put(status, 0, slots);
+            buffer.put(type, 0, slots);
+            Dictionary.write(buffer, neighborhoodNames);
+            Dictionary.write(buffer, regionNames);
+
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.array(), 0, buffer.position());
+            buffer.putLong(checksum.getValue());
+            buffer.flip();
+            return buffer;
+        }
+
+        /**
+         * Decode columns from the snapshot file layout
+         * @param buffer Whole file
+         * @return Decoded columns
+         * @throws IOException If the buffer is not a valid snapshot file of this version
+         */
+        static Columns decode(ByteBuffer buffer) throws IOException {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.limit() < FILE_HEADER_BYTES + 8 || buffer.getInt(0) != FILE_MAGIC) {
+                throw new IOException("Not a property snapshot file");
+            }
+            int version = buffer.getInt(4);
+            if (version != FILE_FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format version " + version);
+            }
+            int checksumAt = buffer.limit() - 8;
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.duplicate().position(0).limit(checksumAt));
+            if (checksum.getValue() != buffer.getLong(checksumAt)) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+
+            buffer.position(8);
+            long watermarkSeconds = buffer.getLong();
+            int watermarkNanos = buffer.getInt();
+            int slots = buffer.getInt();
+            int size = buffer.getInt();
+            buffer.getInt();
+
+            Columns columns = new Columns(Math.max(slots, INITIAL_CAPACITY));
+            columns.watermark = watermarkSeconds == NO_WATERMARK
+                    ? null
+                    : LocalDateTime.ofEpochSecond(watermarkSeconds, watermarkNanos, ZoneOffset.UTC);
+            buffer.asLongBuffer().get(columns.price, 0, slots);
+            buffer.position(buffer.position() + slots * 8);
+            for (int[] column : new int[][] {columns.listingDay, columns.daysOnMarket, columns.neighborhood,
+                                             columns.region}) {
+                buffer.asIntBuffer().get(column, 0, slots);
+                buffer.position(buffer.position() + slots * 4);
+            }
+            buffer.get(columns.status, 0, slots);
+            buffer.get(columns.type, 0, slots);
+            columns.neighborhoods.read(buffer);
+            columns.regions.read(buffer);
+            columns.slots = slots;
+            columns.size = size;
+            return columns;
+        }
+
+        private static byte[] newStatusColumn(int length) {
+            byte[] column = new byte[length];
+            Arrays.fill(column, ABSENT);
+            return column;
+        }
+    }
+
+    /**
+     * Dense int codes for distinct strings. Values are compared
+     * case-insensitively, like the database collation, and each code keeps
+     * the spelling it was first seen with.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] names = new String[16];
+        private int size;
+
+        int code(String value) {
+            String key = value == null ? null : value.toLowerCase(Locale.ROOT);
+            Integer code = codes.get(key);
+            if (code == null) {
+                if (size == names.length) {
+                    names = Arrays.copyOf(names, size * 2);
+                }
+                code = size;
+                names[size++] = value;
+                codes.put(key, code);
+            }
+            return code;
+        }
+
+        /**
+         * @return Code for the value, or -1 if it has never been seen
+         */
+        int find(String value) {
+            Integer code = codes.get(value == null ? null : value.toLowerCase(Locale.ROOT));
+            return code == null ? -1 : code;
+        }
+
+        /**
+         * @return UTF-8 bytes of each name in code order, null for a null name
+         */
+        byte[][] encodeNames() {
+            byte[][] encoded = new byte[size][];
+            for (int code = 0; code < size; code++) {
+                encoded[code] = names[code] == null ? null : names[code].getBytes(StandardCharsets.UTF_8);
+            }
+            return encoded;
+        }
+
+        /**
+         * Read names written by {@link #write} into this empty dictionary, keeping their codes
+         */
+        void read(ByteBuffer buffer) {
+            int count = buffer.getInt();
+            for (int code = 0; code < count; code++) {
+                int length = buffer.getInt();
+                String name = null;
+                if (length >= 0) {
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    name = new String(bytes, StandardCharsets.UTF_8);
+                }
+                code(name);
+            }
+        }
+
+        static int encodedSize(byte[][] encodedNames) {
+            int bytes = 4;
+            for (byte[] name : encodedNames) {
+                bytes += 4 + (name == null ? 0 : name.length);
+            }
+            return bytes;
+        }
+
+        // Count, then per name its byte length (-1 for null) and UTF-8 bytes
+        static void write(ByteBuffer buffer, byte[][] encodedNames) {
+            buffer.putInt(encodedNames.length);
+            for (byte[] name : encodedNames) {
+                buffer.putInt(name == null ? -1 : name.length);
+                if (name != null) {
+                    buffer.put(name);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,720 @@
+package com.propertyportal.index;
+
+import com.propertyportal.dao.PropertyChangeListener;
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.dao.UncheckedSQLException;
+import com.propertyportal.model.Property;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over Property title, description, neighborhood
+ * and region, ranked with BM25. Serves the same queries as
+ * PropertyDAO.searchByText without going to MySQL FULLTEXT, and orders
+ * results by relevance instead of listing date.
+ * Every indexed version of a property gets a new document number, so posting
+ * lists only grow at the end and are stored as varint-encoded document gaps
+ * and term frequencies. Replaced and deleted documents are skipped at query
+ * time until they make up a quarter of the index, then the postings are
+ * compacted. Until then their terms still count towards document frequency.
+ * The index is loaded on first use and kept current from PropertyDAO writes.
+ */
+public class PropertyTextIndex implements PropertyChangeListener, SharedScanIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int REBUILD_BATCH_SIZE = 1_000;
+    private static final int MIN_COMPACT_DOCUMENTS = 1_024;
+    private static final double COMPACT_DEAD_RATIO = 0.25;
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "the", "to", "with"));
+
+    private final PropertyDAO propertyDAO;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private Segment segment = new Segment();
+    // Writes seen while a rebuild is loading, replayed onto the new segment; null values are deletes
+    private Map<Integer, Document> pendingChanges;
+    private volatile boolean loaded;
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong searchNanos = new AtomicLong();
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong compactions = new AtomicLong();
+
+    public PropertyTextIndex(PropertyDAO propertyDAO) {
+        this.propertyDAO = propertyDAO;
+        propertyDAO.addChangeListener(this);
+    }
+
+    /**
+     * Find the best matching properties for a search string.
+     * Words are matched individually; a leading + makes a word required and a
+     * leading - excludes properties containing it, as in MySQL boolean mode.
+     * @param query Search text
+     * @param limit Maximum number of hits
+     * @return Hits, best match first
+     */
+    public List<Hit> search(String query, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        ensureLoaded();
+        long start = System.nanoTime();
+
+        Set<String> required = new HashSet<>();
+        Set<String> optional = new HashSet<>();
+        Set<String> excluded = new HashSet<>();
+        parseQuery(query, required, optional, excluded);
+
+        List<Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = segment.search(required, optional, excluded, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        searches.incrementAndGet();
+        searchNanos.addAndGet(System.nanoTime() - start);
+        return hits;
+    }
+
+    /**
+     * Reload the index from the database, analyzing properties on several threads.
+     * Searches keep using the current index until the new one is ready, and
+     * writes made during the rebuild are applied to both.
+     * @param parallelism Number of analyzer threads
+     * @return Number of indexed properties
+     * @throws UncheckedSQLException if the table cannot be read; the current index is kept
+     */
+    public int rebuild(int parallelism) {
+        SegmentLoad load = new SegmentLoad(parallelism);
+        try (Stream<Property> properties = propertyDAO.streamAll()) {
+            for (Iterator<Property> it = properties.iterator(); it.hasNext(); ) {
+                load.accept(it.next());
+            }
+        } catch (RuntimeException e) {
+            load.abort();
+            throw e;
+        }
+        load.finish();
+        return load.indexed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Properties are analyzed on one thread per available processor.
+     */
+    @Override
+    public Load beginLoad() {
+        return new SegmentLoad(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Get index statistics
+     * @return Index statistics
+     */
+    public IndexStats getStats() {
+        lock.readLock().lock();
+        try {
+            long searchCount = searches.get();
+            return new IndexStats(segment.liveDocuments, segment.documentCount - segment.liveDocuments,
+                    segment.postings.size(), segment.postingBytes(), searchCount,
+                    searchCount == 0 ? 0 : searchNanos.get() / searchCount / 1_000, updates.get(), compactions.get());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void propertyCreated(Property property) {
+        put(property);
+    }
+
+    @Override
+    public void propertyUpdated(Property property) {
+        put(property);
+    }
+
+    @Override
+    public void propertyDeleted(int propertyId) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.put(propertyId, null);
+            }
+            if (loaded) {
+                segment.remove(propertyId);
+                compactIfNeeded();
+                updates.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Property property) {
+        Document document = analyze(property);
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.put(property.getId(), document);
+            }
+            if (loaded) {
+                segment.add(document);
+                compactIfNeeded();
+                updates.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            rebuildLock.lock();
+            try {
+                // A shared load may have finished while this thread waited
+                if (!loaded) {
+                    rebuild(Runtime.getRuntime().availableProcessors());
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Loads properties into a new segment; batches are analyzed on worker
+     * threads and merged in submission order so document numbers stay ascending
+     */
+    private class SegmentLoad implements Load {
+        private final Segment rebuilt = new Segment();
+        private final ExecutorService workers;
+        private final Deque<Future<List<Document>>> batches = new ArrayDeque<>();
+        private List<Property> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+        private int indexed;
+
+        SegmentLoad(int parallelism) {
+            rebuildLock.lock();
+            lock.writeLock().lock();
+            try {
+                pendingChanges = new LinkedHashMap<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            this.workers = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+                Thread thread = new Thread(r, "text-index-rebuild");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @Override
+        public void accept(Property property) {
+            batch.add(property);
+            if (batch.size() == REBUILD_BATCH_SIZE) {
+                submitBatch();
+            }
+            while (!batches.isEmpty() && batches.peekFirst().isDone()) {
+                rebuilt.addAll(awaitBatch(batches.pollFirst()));
+            }
+        }
+
+        @Override
+        public void finish() {
+            try {
+                if (!batch.isEmpty()) {
+                    submitBatch();
+                }
+                while (!batches.isEmpty()) {
+                    rebuilt.addAll(awaitBatch(batches.pollFirst()));
+                }
+            } catch (RuntimeException e) {
+                abort();
+                throw e;
+            }
+            workers.shutdown();
+
+            lock.writeLock().lock();
+            try {
+                for (Map.Entry<Integer, Document> change : pendingChanges.entrySet()) {
+                    if (change.getValue() == null) {
+                        rebuilt.remove(change.getKey());
+                    } else {
+                        rebuilt.add(change.getValue());
+                    }
+                }
+                pendingChanges = null;
+                segment = rebuilt;
+                loaded = true;
+                indexed = rebuilt.liveDocuments;
+            } finally {
+                lock.writeLock().unlock();
+                rebuildLock.unlock();
+            }
+        }
+
+        @Override
+        public void abort() {
+            workers.shutdownNow();
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+                rebuildLock.unlock();
+            }
+        }
+
+        private void submitBatch() {
+            List<Property> toAnalyze = batch;
+            batches.add(workers.submit(() -> analyzeAll(toAnalyze)));
+            batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+        }
+    }
+
+    // Callers must hold the write lock
+    private void compactIfNeeded() {
+        int dead = segment.documentCount - segment.liveDocuments;
+        if (segment.documentCount >= MIN_COMPACT_DOCUMENTS && dead >= segment.documentCount * COMPACT_DEAD_RATIO) {
+            segment = segment.compact();
+            compactions.incrementAndGet();
+        }
+    }
+
+    private static List<Document> analyzeAll(List<Property> properties) {
+        List<Document> documents = new ArrayList<>(properties.size());
+        for (Property property : properties) {
+            documents.add(analyze(property));
+        }
+        return documents;
+    }
+
+    private static List<Document> awaitBatch(Future<List<Document>> batch) {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding the text index", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error analyzing properties for the text index", e.getCause());
+        }
+    }
+
+    private static Document analyze(Property property) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String field : new String[] {property.getTitle(), property.getDescription(),
+                                          property.getNeighborhood(), property.getRegion()}) {
+            List<String> terms = new ArrayList<>();
+            tokenize(field, terms);
+            for (String term : terms) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            length += terms.size();
+        }
+        return new Document(property.getId(), frequencies, length);
+    }
+
+    private static void parseQuery(String query, Set<String> required, Set<String> optional, Set<String> excluded) {
+        if (query == null) {
+            return;
+        }
+        for (String word : query.trim().split("\\s+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            Set<String> target = optional;
+            if (word.charAt(0) == '+') {
+                target = required;
+            } else if (word.charAt(0) == '-') {
+                target = excluded;
+            }
+            List<String> terms = new ArrayList<>();
+            tokenize(word, terms);
+            target.addAll(terms);
+        }
+        optional.removeAll(required);
+    }
+
+    /**
+     * Split text into lowercase letter/digit runs, dropping stop words and single characters
+     */
+    private static void tokenize(String text, List<String> terms) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if (term.length() > 0) {
+                if (term.length() >= MIN_TERM_LENGTH) {
+                    String value = term.toString();
+                    if (!STOP_WORDS.contains(value)) {
+                        terms.add(value);
+                    }
+                }
+                term.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * One analyzed property: term frequencies and token count
+     */
+    private static final class Document {
+        private final int propertyId;
+        private final Map<String, Integer> frequencies;
+        private final int length;
+
+        Document(int propertyId, Map<String, Integer> frequencies, int length) {
+            this.propertyId = propertyId;
+            this.frequencies = frequencies;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Postings and per-document data; guarded by the index lock
+     */
+    private static final class Segment {
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private final Map<Integer, Integer> documentByProperty = new HashMap<>();
+        // Property ID per document number, -1 once the document is replaced or deleted
+        private int[] propertyByDocument = new int[1024];
+        private int[] documentLength = new int[1024];
+        private int documentCount;
+        private int liveDocuments;
+        private long totalLength;
+
+        void addAll(List<Document> documents) {
+            for (Document document : documents) {
+                add(document);
+            }
+        }
+
+        void add(Document document) {
+            remove(document.propertyId);
+            if (documentCount == propertyByDocument.length) {
+                propertyByDocument = Arrays.copyOf(propertyByDocument, documentCount * 2);
+                documentLength = Arrays.copyOf(documentLength, documentCount * 2);
+            }
+            int doc = documentCount++;
+            propertyByDocument[doc] = document.propertyId;
+            documentLength[doc] = document.length;
+            documentByProperty.put(document.propertyId, doc);
+            liveDocuments++;
+            totalLength += document.length;
+            for (Map.Entry<String, Integer> entry : document.frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new PostingList()).add(doc, entry.getValue());
+            }
+        }
+
+        void remove(int propertyId) {
+            Integer doc = documentByProperty.remove(propertyId);
+            if (doc == null) {
+                return;
+            }
+            propertyByDocument[doc] = -1;
+            liveDocuments--;
+            totalLength -= documentLength[doc];
+        }
+
+        /**
+         * Copy live documents into a new segment with dense document numbers
+         */
+        Segment compact() {
+            Segment compacted = new Segment();
+            int[] renumbered = new int[documentCount];
+            for (int doc = 0; doc < documentCount; doc++) {
+                if (propertyByDocument[doc] < 0) {
+                    renumbered[doc] = -1;
+                    continue;
+                }
+                int newDoc = compacted.documentCount++;
+                renumbered[doc] = newDoc;
+                if (newDoc == compacted.propertyByDocument.length) {
+                    compacted.propertyByDocument = Arrays.copyOf(compacted.propertyByDocument, newDoc * 2);
+                    compacted.documentLength = Arrays.copyOf(compacted.documentLength, newDoc * 2);
+                }
+                compacted.propertyByDocument[newDoc] = propertyByDocument[doc];
+                compacted.documentLength[newDoc] = documentLength[doc];
+                compacted.documentByProperty.put(propertyByDocument[doc], newDoc);
+            }
+            compacted.liveDocuments = liveDocuments;
+            compacted.totalLength = totalLength;
+
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                PostingList live = new PostingList();
+                PostingCursor cursor = entry.getValue().cursor();
+                while (cursor.next()) {
+                    if (renumbered[cursor.doc] >= 0) {
+                        live.add(renumbered[cursor.doc], cursor.frequency);
+                    }
+                }
+                if (live.documentFrequency > 0) {
+                    compacted.postings.put(entry.getKey(), live);
+                }
+            }
+            return compacted;
+        }
+
+        List<Hit> search(Set<String> required, Set<String> optional, Set<String> excluded, int limit) {
+            List<Hit> hits = new ArrayList<>();
+            if (liveDocuments == 0 || (required.isEmpty() && optional.isEmpty())) {
+                return hits;
+            }
+            for (String term : required) {
+                if (!postings.containsKey(term)) {
+                    return hits;
+                }
+            }
+
+            double averageLength = Math.max(1.0, (double) totalLength / liveDocuments);
+            float[] scores = new float[documentCount];
+            int[] requiredMatches = required.isEmpty() ? null : new int[documentCount];
+            int[] touched = new int[64];
+            int touchedCount = 0;
+
+            for (String term : concat(required, optional)) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                int documentFrequency = Math.min(list.documentFrequency, liveDocuments);
+                double idf = Math.log(1 + (liveDocuments - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                boolean isRequired = required.contains(term);
+                PostingCursor cursor = list.cursor();
+                while (cursor.next()) {
+                    int doc = cursor.doc;
+                    if (propertyByDocument[doc] < 0) {
+                        continue;
+                    }
+                    double norm = K1 * (1 - B + B * documentLength[doc] / averageLength);
+                    if (scores[doc] == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = doc;
+                    }
+                    scores[doc] += (float) (idf * cursor.frequency * (K1 + 1) / (cursor.frequency + norm));
+                    if (isRequired) {
+                        requiredMatches[doc]++;
+                    }
+                }
+            }
+            for (String term : excluded) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                PostingCursor cursor = list.cursor();
+                while (cursor.next()) {
+                    scores[cursor.doc] = Float.NaN;
+                }
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(Math.min(limit, touchedCount) + 1, Hit.WORST_FIRST);
+            for (int i = 0; i < touchedCount; i++) {
+                int doc = touched[i];
+                if (Float.isNaN(scores[doc]) || (requiredMatches != null && requiredMatches[doc] < required.size())) {
+                    continue;
+                }
+                Hit hit = new Hit(propertyByDocument[doc], scores[doc]);
+                if (top.size() < limit) {
+                    top.add(hit);
+                } else if (Hit.WORST_FIRST.compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+            hits.addAll(top);
+            hits.sort(Hit.WORST_FIRST.reversed());
+            return hits;
+        }
+
+        long postingBytes() {
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                bytes += list.length;
+            }
+            return bytes;
+        }
+
+        private static List<String> concat(Set<String> first, Set<String> second) {
+            List<String> all = new ArrayList<>(first.size() + second.size());
+            all.addAll(first);
+            all.addAll(second);
+            return all;
+        }
+    }
+
+    /**
+     * Document numbers and term frequencies as varint pairs: the gap from the
+     * previous document number, then the frequency
+     */
+    private static final class PostingList {
+        private byte[] data = new byte[8];
+        private int length;
+        private int documentFrequency;
+        private int lastDocument = -1;
+
+        void add(int doc, int frequency) {
+            if (length + 10 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+            }
+            length = writeVarInt(data, length, doc - lastDocument);
+            length = writeVarInt(data, length, frequency);
+            lastDocument = doc;
+            documentFrequency++;
+        }
+
+        PostingCursor cursor() {
+            return new PostingCursor(data, length);
+        }
+
+        private static int writeVarInt(byte[] out, int offset, int value) {
+            while ((value & ~0x7F) != 0) {
+                out[offset++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out[offset++] = (byte) value;
+            return offset;
+        }
+    }
+
+    private static final class PostingCursor {
+        private final byte[] data;
+        private final int end;
+        private int offset;
+        private int doc = -1;
+        private int frequency;
+
+        PostingCursor(byte[] data, int end) {
+            this.data = data;
+            this.end = end;
+        }
+
+        boolean next() {
+            if (offset >= end) {
+                return false;
+            }
+            doc += readVarInt();
+            frequency = readVarInt();
+            return true;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[offset++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    /**
+     * A matching property and its BM25 score
+     */
+    public static class Hit {
+        // Lower score first; on equal scores the older (lower) ID ranks lower
+        private static final Comparator<Hit> WORST_FIRST = Comparator
+                .comparingDouble(Hit::getScore)
+                .thenComparingInt(Hit::getPropertyId);
+
+        private final int propertyId;
+        private final double score;
+
+        public Hit(int propertyId, double score) {
+            this.propertyId = propertyId;
+            this.score = score;
+        }
+
+        public int getPropertyId() { return propertyId; }
+        public double getScore() { return score; }
+
+        @Override
+        public String toString() {
+            return "Hit{propertyId=" + propertyId + ", score=" + score + '}';
+        }
+    }
+
+    /**
+     * Text index statistics class
+     */
+    public static class IndexStats {
+        private final int documents;
+        private final int deadDocuments;
+        private final int terms;
+        private final long postingBytes;
+        private final long searches;
+        private final long avgSearchMicros;
+        private final long updates;
+        private final long compactions;
+
+        public IndexStats(int documents, int deadDocuments, int terms, long postingBytes, long searches,
+                          long avgSearchMicros, long updates, long compactions) {
+            this.documents = documents;
+            this.deadDocuments = deadDocuments;
+            this.terms = terms;
+            this.postingBytes = postingBytes;
+            this.searches = searches;
+            this.avgSearchMicros = avgSearchMicros;
+            this.updates = updates;
+            this.compactions = compactions;
+        }
+
+        public int getDocuments() { return documents; }
+        public int getDeadDocuments() { return deadDocuments; }
+        public int getTerms() { return terms; }
+        public long getPostingBytes() { return postingBytes; }
+        public long getSearches() { return searches; }
+        public long getAvgSearchMicros() { return avgSearchMicros; }
+        public long getUpdates() { return updates; }
+        public long getCompactions() { return compactions; }
+
+        @Override
+        public String toString() {
+            return "IndexStats{" +
+                    "documents=" + documents +
+                    ", deadDocuments=" + deadDocuments +
+                    ", terms=" + terms +
+                    ", postingBytes=" + postingBytes +
+                    ", searches=" + searches +
+                    ", avgSearchMicros=" + avgSearchMicros +
+                    ", updates=" + updates +
+                    ", compactions=" + compactions +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.propertyportal.index;
+
+import com.propertyportal.model.Property;
+
+/**
+ * An in-memory index that can be filled from a table scan shared with other
+ * indexes. See {@link IndexLoader}.
+ */
+public interface SharedScanIndex {
+
+    /**
+     * Start reloading the index. Queries keep using the current contents, and
+     * writes made before the load finishes are replayed onto the loaded ones.
+     * Other reloads of the same index wait until this one finishes or aborts.
+     * @return Load to feed every property to, then finish or abort
+     */
+    Load beginLoad();
+
+    /**
+     * One reload in progress. Used by a single thread.
+     */
+    interface Load {
+
+        /**
+         * Add a property read from the table
+         * @param property Property, shared with the other loads of the scan and not to be modified
+         */
+        void accept(Property property);
+
+        /**
+         * Replace the index contents with the loaded properties and the writes made meanwhile
+         */
+        void finish();
+
+        /**
+         * Discard the loaded properties and keep the current contents
+         */
+        void abort();
+    }
+}
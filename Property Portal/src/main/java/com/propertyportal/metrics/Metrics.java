@@ -0,0 +1,210 @@
+package com.propertyportal.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry of per-operation metrics. Each DAO method and
+ * service operation wraps its body in a {@link Timer}; the timer records
+ * latency on close, and database errors, mapped rows and pool waits seen
+ * while it is open are credited to it through a per-thread current-timer
+ * chain. Every operation is registered as an MBean under
+ * com.propertyportal:type=Operation on first use, and
+ * {@link #prometheusText()} dumps them all in Prometheus text format.
+ */
+public final class Metrics {
+
+    public static final String DAO = "dao";
+    public static final String SERVICE = "service";
+
+    private static final String PREFIX = "propertyportal_";
+    private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+
+    private static final ConcurrentHashMap<String, OperationMetrics> OPERATIONS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Timer> CURRENT = new ThreadLocal<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Start timing an operation; close the timer when it returns.
+     * Declare the timer before the block and write {@code try (timer)}: a
+     * resource declared inside try() and never read is flagged by -Xlint:try.
+     * @param layer Layer label, {@link #DAO} or {@link #SERVICE}
+     * @param operation Operation name, e.g. PropertyDAO.findById
+     * @return Timer to close in a try-with-resources block
+     */
+    public static Timer start(String layer, String operation) {
+        OperationMetrics metrics = OPERATIONS.get(operation);
+        if (metrics == null) {
+            metrics = register(layer, operation);
+        }
+        Timer timer = new Timer(metrics, CURRENT.get());
+        CURRENT.set(timer);
+        return timer;
+    }
+
+    /**
+     * Mark the current operation, and every operation that called it, as failed
+     */
+    public static void recordError() {
+        for (Timer timer = CURRENT.get(); timer != null; timer = timer.parent) {
+            timer.failed = true;
+        }
+    }
+
+    /**
+     * Count one mapped row against the current operation
+     */
+    public static void recordRow() {
+        Timer timer = CURRENT.get();
+        if (timer != null) {
+            timer.rows++;
+        }
+    }
+
+    /**
+     * Record time spent waiting for a pooled connection against the current operation
+     * @param nanos Wait in nanoseconds
+     */
+    public static void recordConnectionAcquire(long nanos) {
+        Timer timer = CURRENT.get();
+        if (timer != null) {
+            timer.metrics.recordConnectionAcquire(nanos);
+        }
+    }
+
+    /**
+     * Get the name of the innermost operation running on this thread
+     * @return Operation name, or null outside any timed operation
+     */
+    public static String currentOperation() {
+        Timer timer = CURRENT.get();
+        return timer == null ? null : timer.metrics.getOperation();
+    }
+
+    /**
+     * Get metrics for all operations called so far
+     * @return Operations sorted by name
+     */
+    public static List<OperationMetrics> getOperations() {
+        List<OperationMetrics> operations = new ArrayList<>(OPERATIONS.values());
+        operations.sort(Comparator.comparing(OperationMetrics::getOperation));
+        return operations;
+    }
+
+    /**
+     * Render all operation metrics in the Prometheus text exposition format
+     * @return Metric families for latency, errors, rows and connection acquire time
+     */
+    public static String prometheusText() {
+        List<OperationMetrics> operations = getOperations();
+        List<LatencyHistogram.Snapshot> latencies = new ArrayList<>(operations.size());
+        List<LatencyHistogram.Snapshot> acquires = new ArrayList<>(operations.size());
+        for (OperationMetrics operation : operations) {
+            latencies.add(operation.latencySnapshot());
+            acquires.add(operation.connectionAcquireSnapshot());
+        }
+
+        StringBuilder out = new StringBuilder();
+        writeSummary(out, "operation_duration_seconds", "Operation latency.", operations, latencies);
+
+        family(out, "operation_errors_total", "counter", "Operation calls that hit a database error.");
+        for (OperationMetrics operation : operations) {
+            sample(out, "operation_errors_total", operation, null, operation.getErrors());
+        }
+        family(out, "operation_rows_total", "counter", "Rows mapped from result sets.");
+        for (OperationMetrics operation : operations) {
+            sample(out, "operation_rows_total", operation, null, operation.getRows());
+        }
+
+        writeSummary(out, "connection_acquire_seconds", "Time spent waiting for a pooled connection.",
+                operations, acquires);
+        return out.toString();
+    }
+
+    private static void writeSummary(StringBuilder out, String name, String help,
+                                     List<OperationMetrics> operations, List<LatencyHistogram.Snapshot> snapshots) {
+        family(out, name, "summary", help);
+        for (int i = 0; i < operations.size(); i++) {
+            OperationMetrics operation = operations.get(i);
+            LatencyHistogram.Snapshot snapshot = snapshots.get(i);
+            if (snapshot.getCount() == 0) {
+                continue;
+            }
+            for (double quantile : QUANTILES) {
+                sample(out, name, operation, Double.toString(quantile),
+                        snapshot.valueAtPercentile(quantile * 100) / 1e9);
+            }
+            sample(out, name + "_sum", operation, null, snapshot.getTotalNanos() / 1e9);
+            sample(out, name + "_count", operation, null, snapshot.getCount());
+        }
+    }
+
+    private static void family(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, OperationMetrics operation, String quantile,
+                               Number value) {
+        out.append(PREFIX).append(name)
+                .append("{layer=\"").append(escape(operation.getLayer()))
+                .append("\",operation=\"").append(escape(operation.getOperation())).append('"');
+        if (quantile != null) {
+            out.append(",quantile=\"").append(quantile).append('"');
+        }
+        out.append("} ").append(value).append('\n');
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static OperationMetrics register(String layer, String operation) {
+        OperationMetrics created = new OperationMetrics(layer, operation);
+        OperationMetrics existing = OPERATIONS.putIfAbsent(operation, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            ObjectName name = new ObjectName("com.propertyportal:type=Operation,layer=" + layer
+                    + ",name=" + ObjectName.quote(operation));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(created, name);
+        } catch (JMException e) {
+            System.err.println("Error registering metrics MBean for " + operation + ": " + e.getMessage());
+        }
+        return created;
+    }
+
+    /**
+     * Times one operation call. Not thread-safe; it belongs to the thread that started it.
+     */
+    public static final class Timer implements AutoCloseable {
+        private final OperationMetrics metrics;
+        private final Timer parent;
+        private final long startNanos = System.nanoTime();
+        private long rows;
+        private boolean failed;
+
+        private Timer(OperationMetrics metrics, Timer parent) {
+            this.metrics = metrics;
+            this.parent = parent;
+        }
+
+        @Override
+        public void close() {
+            metrics.recordCall(System.nanoTime() - startNanos, rows, failed);
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
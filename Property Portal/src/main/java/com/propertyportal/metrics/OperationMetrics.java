@@ -0,0 +1,99 @@
+package com.propertyportal.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, error, row and connection-acquire metrics for one DAO method or
+ * service operation
+ */
+public final class OperationMetrics implements OperationMetricsMBean {
+
+    private final String layer;
+    private final String operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram connectionAcquire = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+
+    OperationMetrics(String layer, String operation) {
+        this.layer = layer;
+        this.operation = operation;
+    }
+
+    void recordCall(long nanos, long rowCount, boolean failed) {
+        latency.record(nanos);
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    void recordConnectionAcquire(long nanos) {
+        connectionAcquire.record(nanos);
+    }
+
+    public LatencyHistogram.Snapshot latencySnapshot() {
+        return latency.snapshot();
+    }
+
+    public LatencyHistogram.Snapshot connectionAcquireSnapshot() {
+        return connectionAcquire.snapshot();
+    }
+
+    @Override
+    public String getLayer() { return layer; }
+
+    @Override
+    public String getOperation() { return operation; }
+
+    @Override
+    public long getCalls() { return latency.snapshot().getCount(); }
+
+    @Override
+    public long getErrors() { return errors.sum(); }
+
+    @Override
+    public long getRows() { return rows.sum(); }
+
+    @Override
+    public double getMeanMicros() { return latency.snapshot().getMeanNanos() / 1000.0; }
+
+    @Override
+    public double getP50Micros() { return latency.snapshot().valueAtPercentile(50) / 1000.0; }
+
+    @Override
+    public double getP99Micros() { return latency.snapshot().valueAtPercentile(99) / 1000.0; }
+
+    @Override
+    public double getP999Micros() { return latency.snapshot().valueAtPercentile(99.9) / 1000.0; }
+
+    @Override
+    public double getMaxMicros() { return latency.snapshot().getMaxNanos() / 1000.0; }
+
+    @Override
+    public long getConnectionAcquires() { return connectionAcquire.snapshot().getCount(); }
+
+    @Override
+    public double getConnectionAcquireMeanMicros() { return connectionAcquire.snapshot().getMeanNanos() / 1000.0; }
+
+    @Override
+    public double getConnectionAcquireP99Micros() {
+        return connectionAcquire.snapshot().valueAtPercentile(99) / 1000.0;
+    }
+
+    @Override
+    public String toString() {
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        return "OperationMetrics{" +
+                "operation='" + operation + '\'' +
+                ", calls=" + snapshot.getCount() +
+                ", errors=" + errors.sum() +
+                ", rows=" + rows.sum() +
+                ", p50Micros=" + snapshot.valueAtPercentile(50) / 1000.0 +
+                ", p99Micros=" + snapshot.valueAtPercentile(99) / 1000.0 +
+                ", p999Micros=" + snapshot.valueAtPercentile(99.9) / 1000.0 +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.propertyportal.metrics;
+
+/**
+ * JMX view of one instrumented operation. Durations are in microseconds.
+ */
+public interface OperationMetricsMBean {
+
+    String getLayer();
+
+    String getOperation();
+
+    long getCalls();
+
+    long getErrors();
+
+    long getRows();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    long getConnectionAcquires();
+
+    double getConnectionAcquireMeanMicros();
+
+    double getConnectionAcquireP99Micros();
+}
@@ -1,6 +1,9 @@
 package com.propertyportal.model;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Feature entity class
@@ -20,6 +23,15 @@ public class Feature {
         
         private final String value;
         
+        private static final Map<String, FeatureCategory> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (FeatureCategory category : values()) {
+                BY_VALUE.put(category.value, category);
+                BY_VALUE.put(category.value.toLowerCase(Locale.ROOT), category);
+            }
+        }
+        
         FeatureCategory(String value) {
             this.value = value;
         }
@@ -29,8 +41,12 @@ public class Feature {
         }
         
         public static FeatureCategory fromString(String text) {
-            for (FeatureCategory category : FeatureCategory.values()) {
-                if (category.value.equalsIgnoreCase(text)) {
+            if (text != null) {
+                FeatureCategory category = BY_VALUE.get(text);
+                if (category == null) {
+                    category = BY_VALUE.get(text.toLowerCase(Locale.ROOT));
+                }
+                if (category != null) {
                     return category;
                 }
             }
@@ -1,6 +1,9 @@
 package com.propertyportal.model;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Inquiry entity class
@@ -28,6 +31,15 @@ public class Inquiry {
         
         private final String value;
         
+        private static final Map<String, InquiryStatus> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (InquiryStatus status : values()) {
+                BY_VALUE.put(status.value, status);
+                BY_VALUE.put(status.value.toLowerCase(Locale.ROOT), status);
+            }
+        }
+        
         InquiryStatus(String value) {
             this.value = value;
         }
@@ -37,8 +49,12 @@ public class Inquiry {
         }
         
         public static InquiryStatus fromString(String text) {
-            for (InquiryStatus status : InquiryStatus.values()) {
-                if (status.value.equalsIgnoreCase(text)) {
+            if (text != null) {
+                InquiryStatus status = BY_VALUE.get(text);
+                if (status == null) {
+                    status = BY_VALUE.get(text.toLowerCase(Locale.ROOT));
+                }
+                if (status != null) {
                     return status;
                 }
             }
@@ -54,6 +70,15 @@ public class Inquiry {
         
         private final String value;
         
+        private static final Map<String, InquiryType> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (InquiryType type : values()) {
+                BY_VALUE.put(type.value, type);
+                BY_VALUE.put(type.value.toLowerCase(Locale.ROOT), type);
+            }
+        }
+        
         InquiryType(String value) {
             this.value = value;
         }
@@ -63,8 +88,12 @@ public class Inquiry {
         }
         
         public static InquiryType fromString(String text) {
-            for (InquiryType type : InquiryType.values()) {
-                if (type.value.equalsIgnoreCase(text)) {
+            if (text != null) {
+                InquiryType type = BY_VALUE.get(text);
+                if (type == null) {
+                    type = BY_VALUE.get(text.toLowerCase(Locale.ROOT));
+                }
+                if (type != null) {
                     return type;
                 }
             }
@@ -79,6 +108,15 @@ public class Inquiry {
         
         private final String value;
         
+        private static final Map<String, InquiryPriority> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (InquiryPriority priority : values()) {
+                BY_VALUE.put(priority.value, priority);
+                BY_VALUE.put(priority.value.toLowerCase(Locale.ROOT), priority);
+            }
+        }
+        
         InquiryPriority(String value) {
             this.value = value;
         }
@@ -88,8 +126,12 @@ public class Inquiry {
         }
         
         public static InquiryPriority fromString(String text) {
-            for (InquiryPriority priority : InquiryPriority.values()) {
-                if (priority.value.equalsIgnoreCase(text)) {
+            if (text != null) {
+                InquiryPriority priority = BY_VALUE.get(text);
+                if (priority == null) {
+                    priority = BY_VALUE.get(text.toLowerCase(Locale.ROOT));
+                }
+                if (priority != null) {
                     return priority;
                 }
             }
@@ -1,6 +1,9 @@
 package com.propertyportal.model;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Offer entity class
@@ -27,6 +30,15 @@ public class Offer {
         
         private final String value;
         
+        private static final Map<String, OfferStatus> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (OfferStatus status : values()) {
+                BY_VALUE.put(status.value, status);
+                BY_VALUE.put(status.value.toLowerCase(Locale.ROOT), status);
+            }
+        }
+        
         OfferStatus(String value) {
             this.value = value;
         }
@@ -36,8 +48,12 @@ public class Offer {
         }
         
         public static OfferStatus fromString(String text) {
-            for (OfferStatus status : OfferStatus.values()) {
-                if (status.value.equalsIgnoreCase(text)) {
+            if (text != null) {
+                OfferStatus status = BY_VALUE.get(text);
+                if (status == null) {
+                    status = BY_VALUE.get(text.toLowerCase(Locale.ROOT));
+                }
+                if (status != null) {
                     return status;
                 }
             }
@@ -73,6 +89,11 @@ public class Offer {
         this.updatedAt = updatedAt;
     }
     
+    public Offer(Offer other) {
+        this(other.id, other.agentId, other.buyerId, other.propertyId, other.offerAmount, other.offerDate,
+             other.status, other.responseDate, other.notes, other.createdAt, other.updatedAt);
+    }
+    
     // Getters and Setters
     public int getId() {
         return id;
@@ -0,0 +1,142 @@
+package com.propertyportal.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Price history entry for a property (propertyPriceHistory table)
+ */
+public class PriceHistory {
+    private int id;
+    private int propertyId;
+    private long price;
+    private LocalDateTime changedAt;
+    private PriceType priceType;
+    private Integer changedBy;
+    
+    // Enums
+    public enum PriceType {
+        LISTING("listing"),
+        UPDATED("updated"),
+        SOLD("sold");
+        
+        private final String value;
+        
+        private static final Map<String, PriceType> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (PriceType type : values()) {
+                BY_VALUE.put(type.value, type);
+                BY_VALUE.put(type.value.toLowerCase(Locale.ROOT), type);
+            }
+        }
+        
+        PriceType(String value) {
+            this.value = value;
+        }
+        
+        public String getValue() {
+            return value;
+        }
+        
+        public static PriceType fromString(String text) {
+            if (text != null) {
+                PriceType type = BY_VALUE.get(text);
+                if (type == null) {
+                    type = BY_VALUE.get(text.toLowerCase(Locale.ROOT));
+                }
+                if (type != null) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("No constant with text " + text + " found");
+        }
+    }
+    
+    // Constructors
+    public PriceHistory() {}
+    
+    public PriceHistory(int propertyId, long price, PriceType priceType, Integer changedBy) {
+        this.propertyId = propertyId;
+        this.price = price;
+        this.priceType = priceType;
+        this.changedBy = changedBy;
+        this.changedAt = LocalDateTime.now();
+    }
+    
+    public PriceHistory(int id, int propertyId, long price, LocalDateTime changedAt, 
+                        PriceType priceType, Integer changedBy) {
+        this.id = id;
+        this.propertyId = propertyId;
+        this.price = price;
+        this.changedAt = changedAt;
+        this.priceType = priceType;
+        this.changedBy = changedBy;
+    }
+    
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+    
+    public void setId(int id) {
+        this.id = id;
+    }
+    
+    public int getPropertyId() {
+        return propertyId;
+    }
+    
+    public void setPropertyId(int propertyId) {
+        this.propertyId = propertyId;
+    }
+    
+    public long getPrice() {
+        return price;
+    }
+    
+    public void setPrice(long price) {
+        this.price = price;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+    
+    public PriceType getPriceType() {
+        return priceType;
+    }
+    
+    public void setPriceType(PriceType priceType) {
+        this.priceType = priceType;
+    }
+    
+    /**
+     * Agent who made the change; null means the property's primary agent
+     */
+    public Integer getChangedBy() {
+        return changedBy;
+    }
+    
+    public void setChangedBy(Integer changedBy) {
+        this.changedBy = changedBy;
+    }
+    
+    @Override
+    public String toString() {
+        return "PriceHistory{" +
+                "id=" + id +
+                ", propertyId=" + propertyId +
+                ", price=" + price +
+                ", changedAt=" + changedAt +
+                ", priceType=" + priceType +
+                ", changedBy=" + changedBy +
+                '}';
+    }
+}
@@ -1,6 +1,9 @@
 package com.propertyportal.model;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Property entity class
@@ -32,6 +35,15 @@ public class Property {
         
         private final String value;
         
+        private static final Map<String, PropertyType> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (PropertyType type : values()) {
+                BY_VALUE.put(type.value, type);
+                BY_VALUE.put(type.value.toLowerCase(Locale.ROOT), type);
+            }
+        }
+        
         PropertyType(String value) {
             this.value = value;
         }
@@ -41,8 +53,12 @@ public class Property {
         }
         
         public static PropertyType fromString(String text) {
-            for (PropertyType type : PropertyType.values()) {
-                if (type.value.equalsIgnoreCase(text)) {
+            if (text != null) {
+                PropertyType type = BY_VALUE.get(text);
+                if (type == null) {
+                    type = BY_VALUE.get(text.toLowerCase(Locale.ROOT));
+                }
+                if (type != null) {
                     return type;
                 }
             }
@@ -57,6 +73,15 @@ public class Property {
         
         private final String value;
         
+        private static final Map<String, PropertyStatus> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (PropertyStatus status : values()) {
+                BY_VALUE.put(status.value, status);
+                BY_VALUE.put(status.value.toLowerCase(Locale.ROOT), status);
+            }
+        }
+        
         PropertyStatus(String value) {
             this.value = value;
         }
@@ -66,8 +91,12 @@ public class Property {
         }
         
         public static PropertyStatus fromString(String text) {
-            for (PropertyStatus status : PropertyStatus.values()) {
-                if (status.value.equalsIgnoreCase(text)) {
+            if (text != null) {
+                PropertyStatus status = BY_VALUE.get(text);
+                if (status == null) {
+                    status = BY_VALUE.get(text.toLowerCase(Locale.ROOT));
+                }
+                if (status != null) {
                     return status;
                 }
             }
@@ -110,6 +139,12 @@ public class Property {
         this.updatedAt = updatedAt;
     }
     
+    public Property(Property other) {
+        this(other.id, other.title, other.description, other.address, other.neighborhood, other.region,
+             other.propertyType, other.listingDate, other.currentPrice, other.status, other.soldDate,
+             other.daysOnMarket, other.createdAt, other.updatedAt);
+    }
+    
     // Getters and Setters
     public int getId() {
         return id;
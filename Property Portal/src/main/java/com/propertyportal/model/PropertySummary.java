@@ -0,0 +1,123 @@
+package com.propertyportal.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Card-level projection of a Property, without the description column
+ */
+public class PropertySummary {
+    private int id;
+    private String title;
+    private String address;
+    private String neighborhood;
+    private String region;
+    private Property.PropertyType propertyType;
+    private LocalDateTime listingDate;
+    private long currentPrice;
+    private Property.PropertyStatus status;
+
+    // Constructors
+    public PropertySummary() {}
+
+    public PropertySummary(int id, String title, String address, String neighborhood, String region,
+                           Property.PropertyType propertyType, LocalDateTime listingDate, long currentPrice,
+                           Property.PropertyStatus status) {
+        this.id = id;
+        this.title = title;
+        this.address = address;
+        this.neighborhood = neighborhood;
+        this.region = region;
+        this.propertyType = propertyType;
+        this.listingDate = listingDate;
+        this.currentPrice = currentPrice;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public String getNeighborhood() {
+        return neighborhood;
+    }
+
+    public void setNeighborhood(String neighborhood) {
+        this.neighborhood = neighborhood;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public Property.PropertyType getPropertyType() {
+        return propertyType;
+    }
+
+    public void setPropertyType(Property.PropertyType propertyType) {
+        this.propertyType = propertyType;
+    }
+
+    public LocalDateTime getListingDate() {
+        return listingDate;
+    }
+
+    public void setListingDate(LocalDateTime listingDate) {
+        this.listingDate = listingDate;
+    }
+
+    public long getCurrentPrice() {
+        return currentPrice;
+    }
+
+    public void setCurrentPrice(long currentPrice) {
+        this.currentPrice = currentPrice;
+    }
+
+    public Property.PropertyStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Property.PropertyStatus status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "PropertySummary{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", address='" + address + '\'' +
+                ", neighborhood='" + neighborhood + '\'' +
+                ", region='" + region + '\'' +
+                ", propertyType=" + propertyType +
+                ", listingDate=" + listingDate +
+                ", currentPrice=" + currentPrice +
+                ", status=" + status +
+                '}';
+    }
+}
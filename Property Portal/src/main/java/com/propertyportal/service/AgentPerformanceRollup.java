@@ -0,0 +1,245 @@
+package com.propertyportal.service;
+
+import com.propertyportal.dao.AgentPerformanceDAO;
+import com.propertyportal.model.Inquiry;
+import com.propertyportal.model.Offer;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Incremental maintenance of AgentPerformance and the Agent summary columns.
+ * Inquiry and accepted-offer events are folded into in-memory per-agent,
+ * per-month deltas, and a background task flushes them as one batch of
+ * INSERT ... ON DUPLICATE KEY UPDATE upserts. A delta that fails to flush is
+ * merged back and retried on the next flush.
+ * Inquiries count towards the month they were created in and deals towards
+ * the month the offer was accepted, matching rebuildAll().
+ */
+public class AgentPerformanceRollup {
+
+    private final AgentPerformanceDAO performanceDAO;
+    private final ScheduledExecutorService flusher;
+    private final Object lock = new Object();
+    private Map<Long, AgentPerformanceDAO.MonthlyDelta> pending = new HashMap<>();
+
+    private final AtomicLong eventsRecorded = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong rowsFlushed = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    public AgentPerformanceRollup(AgentPerformanceDAO performanceDAO, Duration flushInterval) {
+        this.performanceDAO = performanceDAO;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "agent-performance-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, flushInterval.toMillis());
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Count a newly stored inquiry
+     * @param inquiry Stored inquiry
+     */
+    public void inquiryCreated(Inquiry inquiry) {
+        synchronized (lock) {
+            delta(inquiry.getAgentId(), monthOf(inquiry.getCreatedAt())).addInquiries(1);
+        }
+        eventsRecorded.incrementAndGet();
+    }
+
+    /**
+     * Count an inquiry response and its response time
+     * @param inquiry Responded inquiry
+     */
+    public void inquiryResponded(Inquiry inquiry) {
+        long minutes = inquiry.getResponseTimeMinutes() == null ? 0 : inquiry.getResponseTimeMinutes();
+        synchronized (lock) {
+            delta(inquiry.getAgentId(), monthOf(inquiry.getCreatedAt())).addResponses(1, minutes);
+        }
+        eventsRecorded.incrementAndGet();
+    }
+
+    /**
+     * Count an accepted offer as a closed deal
+     * @param offer Accepted offer
+     */
+    public void offerAccepted(Offer offer) {
+        LocalDateTime acceptedAt = offer.getResponseDate() != null ? offer.getResponseDate() : offer.getOfferDate();
+        synchronized (lock) {
+            delta(offer.getAgentId(), monthOf(acceptedAt)).addDeals(1, offer.getOfferAmount());
+        }
+        eventsRecorded.incrementAndGet();
+    }
+
+    /**
+     * Write all pending deltas now
+     * @return true if nothing was pending or the flush committed
+     */
+    public boolean flush() {
+        Map<Long, AgentPerformanceDAO.MonthlyDelta> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return true;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        // Key order is (agentId, month), so concurrent writers take row locks in the same order
+        List<AgentPerformanceDAO.MonthlyDelta> deltas = new ArrayList<>(new TreeMap<>(batch).values());
+        flushes.incrementAndGet();
+        if (performanceDAO.applyDeltas(deltas)) {
+            rowsFlushed.addAndGet(deltas.size());
+            return true;
+        }
+
+        failedFlushes.incrementAndGet();
+        synchronized (lock) {
+            for (Map.Entry<Long, AgentPerformanceDAO.MonthlyDelta> entry : batch.entrySet()) {
+                AgentPerformanceDAO.MonthlyDelta current = pending.putIfAbsent(entry.getKey(), entry.getValue());
+                if (current != null) {
+                    current.merge(entry.getValue());
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recompute every agent's rollup from the Inquiry and Offer tables, several agents at a time.
+     * Meant for backfills: pending deltas are discarded because the source tables already hold them,
+     * and events recorded for an agent while it is being rebuilt may be counted twice.
+     * @param parallelism Number of agents rebuilt concurrently
+     * @return Number of agents rebuilt successfully
+     */
+    public int rebuildAll(int parallelism) {
+        synchronized (lock) {
+            pending = new HashMap<>();
+        }
+        List<Integer> agentIds = performanceDAO.findAgentIds();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread thread = new Thread(r, "agent-performance-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(agentIds.size());
+            for (int agentId : agentIds) {
+                results.add(workers.submit(() -> performanceDAO.rebuildAgent(agentId)));
+            }
+            int rebuilt = 0;
+            for (Future<Boolean> result : results) {
+                try {
+                    if (result.get()) {
+                        rebuilt++;
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error rebuilding agent performance: " + e.getMessage());
+                }
+            }
+            return rebuilt;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Recompute one agent's rollup from the Inquiry and Offer tables
+     * @param agentId Agent ID
+     * @return true if the rebuild committed
+     */
+    public boolean rebuildAgent(int agentId) {
+        synchronized (lock) {
+            pending.values().removeIf(delta -> delta.getAgentId() == agentId);
+        }
+        return performanceDAO.rebuildAgent(agentId);
+    }
+
+    /**
+     * Stop the background flusher after a final flush
+     * @return true if the final flush committed
+     */
+    public boolean shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return flush();
+    }
+
+    /**
+     * Get rollup statistics
+     * @return Rollup statistics
+     */
+    public RollupStats getStats() {
+        int pendingRows;
+        synchronized (lock) {
+            pendingRows = pending.size();
+        }
+        return new RollupStats(pendingRows, eventsRecorded.get(), flushes.get(), rowsFlushed.get(), failedFlushes.get());
+    }
+
+    // Caller holds the lock
+    private AgentPerformanceDAO.MonthlyDelta delta(int agentId, LocalDate month) {
+        long key = ((long) agentId << 32) | (month.getYear() * 12L + month.getMonthValue() - 1);
+        return pending.computeIfAbsent(key, k -> new AgentPerformanceDAO.MonthlyDelta(agentId, month));
+    }
+
+    private static LocalDate monthOf(LocalDateTime timestamp) {
+        LocalDate date = timestamp != null ? timestamp.toLocalDate() : LocalDate.now();
+        return date.withDayOfMonth(1);
+    }
+
+    /**
+     * Rollup statistics class
+     */
+    public static class RollupStats {
+        private final int pendingRows;
+        private final long eventsRecorded;
+        private final long flushes;
+        private final long rowsFlushed;
+        private final long failedFlushes;
+
+        public RollupStats(int pendingRows, long eventsRecorded, long flushes, long rowsFlushed, long failedFlushes) {
+            this.pendingRows = pendingRows;
+            this.eventsRecorded = eventsRecorded;
+            this.flushes = flushes;
+            this.rowsFlushed = rowsFlushed;
+            this.failedFlushes = failedFlushes;
+        }
+
+        public int getPendingRows() { return pendingRows; }
+        public long getEventsRecorded() { return eventsRecorded; }
+        public long getFlushes() { return flushes; }
+        public long getRowsFlushed() { return rowsFlushed; }
+        public long getFailedFlushes() { return failedFlushes; }
+
+        @Override
+        public String toString() {
+            return "RollupStats{" +
+                    "pendingRows=" + pendingRows +
+                    ", eventsRecorded=" + eventsRecorded +
+                    ", flushes=" + flushes +
+                    ", rowsFlushed=" + rowsFlushed +
+                    ", failedFlushes=" + failedFlushes +
+                    '}';
+        }
+    }
+}
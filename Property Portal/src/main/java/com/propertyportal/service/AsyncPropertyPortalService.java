@@ -0,0 +1,397 @@
+package com.propertyportal.service;
+
+import com.propertyportal.DatabaseConnection;
+import com.propertyportal.dao.AgencyDAO;
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.index.FacetIndex;
+import com.propertyportal.model.Agency;
+import com.propertyportal.model.AgentPerformance;
+import com.propertyportal.model.Inquiry;
+import com.propertyportal.model.Offer;
+import com.propertyportal.model.PriceHistory;
+import com.propertyportal.model.Property;
+import com.propertyportal.model.PropertySummary;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade over {@link PropertyPortalService}.
+ * Each call runs on its own virtual thread (JDK 21+) and returns a CompletableFuture.
+ * A semaphore caps how many calls touch the database at once, normally at
+ * the connection pool size. Excess calls then park cheaply instead of
+ * queueing inside the pool, and thousands of requests can be in flight
+ * without a platform thread each.
+ * On older JDKs the calls run on a fixed platform-thread pool of the same size.
+ * Each operation mirrors the PropertyPortalService method of the same name.
+ */
+public class AsyncPropertyPortalService implements AutoCloseable {
+
+    private final PropertyPortalService service;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrentCalls;
+    private final boolean virtualThreads;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Create a facade capped at the connection pool's maximum size
+     * @param service Blocking service to delegate to
+     */
+    public AsyncPropertyPortalService(PropertyPortalService service) {
+        this(service, DatabaseConnection.getPool().getConfig().getMaxSize());
+    }
+
+    /**
+     * Create a facade with an explicit concurrency cap
+     * @param service Blocking service to delegate to
+     * @param maxConcurrentCalls Maximum calls running against the database at once
+     */
+    public AsyncPropertyPortalService(PropertyPortalService service, int maxConcurrentCalls) {
+        if (maxConcurrentCalls <= 0) {
+            throw new IllegalArgumentException("Concurrency cap must be positive: " + maxConcurrentCalls);
+        }
+        this.service = service;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newFixedThreadPool(maxConcurrentCalls, r -> {
+            Thread thread = new Thread(r, "portal-async");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ==================== AGENCY MANAGEMENT ====================
+
+    public CompletableFuture<Optional<Agency>> registerAgency(String name, String address, String phone) {
+        return call(() -> service.registerAgency(name, address, phone));
+    }
+
+    public CompletableFuture<List<Agency>> getAllAgencies() {
+        return call(service::getAllAgencies);
+    }
+
+    public CompletableFuture<Optional<Agency>> getAgencyById(int id) {
+        return call(() -> service.getAgencyById(id));
+    }
+
+    public CompletableFuture<List<Agency>> searchAgenciesByName(String name) {
+        return call(() -> service.searchAgenciesByName(name));
+    }
+
+    public CompletableFuture<Boolean> updateAgency(Agency agency) {
+        return call(() -> service.updateAgency(agency));
+    }
+
+    public CompletableFuture<Boolean> deleteAgency(int id) {
+        return call(() -> service.deleteAgency(id));
+    }
+
+    // ==================== PROPERTY MANAGEMENT ====================
+
+    public CompletableFuture<Optional<Property>> listProperty(String title, String description, String address,
+                                                              String neighborhood, String region,
+                                                              Property.PropertyType propertyType, long currentPrice) {
+        return call(() -> service.listProperty(title, description, address, neighborhood, region, propertyType, currentPrice));
+    }
+
+    public CompletableFuture<PropertyDAO.BulkInsertResult> listProperties(Collection<Property> properties, int batchSize) {
+        return call(() -> service.listProperties(properties, batchSize));
+    }
+
+    public CompletableFuture<List<Property>> getAllProperties() {
+        return call(service::getAllProperties);
+    }
+
+    public CompletableFuture<List<Property>> getActiveListings() {
+        return call(service::getActiveListings);
+    }
+
+    public CompletableFuture<Optional<Property>> getPropertyById(int id) {
+        return call(() -> service.getPropertyById(id));
+    }
+
+    public CompletableFuture<List<Property>> getPropertiesByNeighborhood(String neighborhood) {
+        return call(() -> service.getPropertiesByNeighborhood(neighborhood));
+    }
+
+    public CompletableFuture<List<Property>> getPropertiesByType(Property.PropertyType propertyType) {
+        return call(() -> service.getPropertiesByType(propertyType));
+    }
+
+    public CompletableFuture<List<Property>> searchProperties(String searchText) {
+        return call(() -> service.searchProperties(searchText));
+    }
+
+    public CompletableFuture<List<Property>> searchProperties(String searchText, int limit) {
+        return call(() -> service.searchProperties(searchText, limit));
+    }
+
+    public CompletableFuture<List<Property>> getPropertiesByPriceRange(long minPrice, long maxPrice) {
+        return call(() -> service.getPropertiesByPriceRange(minPrice, maxPrice));
+    }
+
+    public CompletableFuture<List<PropertySummary>> getActiveListingSummaries() {
+        return call(service::getActiveListingSummaries);
+    }
+
+    public CompletableFuture<List<PropertySummary>> getPropertySummariesByNeighborhood(String neighborhood) {
+        return call(() -> service.getPropertySummariesByNeighborhood(neighborhood));
+    }
+
+    public CompletableFuture<List<PropertySummary>> getPropertySummariesByType(Property.PropertyType propertyType) {
+        return call(() -> service.getPropertySummariesByType(propertyType));
+    }
+
+    public CompletableFuture<List<PropertySummary>> getPropertySummariesByPriceRange(long minPrice, long maxPrice) {
+        return call(() -> service.getPropertySummariesByPriceRange(minPrice, maxPrice));
+    }
+
+    public CompletableFuture<List<PropertySummary>> searchPropertySummaries(String searchText) {
+        return call(() -> service.searchPropertySummaries(searchText));
+    }
+
+    public CompletableFuture<Optional<String>> getPropertyDescription(int propertyId) {
+        return call(() -> service.getPropertyDescription(propertyId));
+    }
+
+    public CompletableFuture<List<Property>> getAllPropertiesPage(LocalDateTime afterListingDate, int afterId, int pageSize) {
+        return call(() -> service.getAllPropertiesPage(afterListingDate, afterId, pageSize));
+    }
+
+    public CompletableFuture<List<Property>> getActiveListingsPage(LocalDateTime afterListingDate, int afterId, int pageSize) {
+        return call(() -> service.getActiveListingsPage(afterListingDate, afterId, pageSize));
+    }
+
+    public CompletableFuture<List<Property>> getPropertiesByPriceRangePage(long minPrice, long maxPrice, Long afterPrice,
+                                                                          int afterId, int pageSize) {
+        return call(() -> service.getPropertiesByPriceRangePage(minPrice, maxPrice, afterPrice, afterId, pageSize));
+    }
+
+    public CompletableFuture<List<Property>> getPropertiesByPriceRangePage(long minPrice, long maxPrice,
+                                                                           Property.PropertyStatus status, Long afterPrice,
+                                                                           int afterId, int pageSize) {
+        return call(() -> service.getPropertiesByPriceRangePage(minPrice, maxPrice, status, afterPrice, afterId, pageSize));
+    }
+
+    public CompletableFuture<Integer> countPropertiesByPriceRange(long minPrice, long maxPrice, Property.PropertyStatus status) {
+        return call(() -> service.countPropertiesByPriceRange(minPrice, maxPrice, status));
+    }
+
+    public CompletableFuture<Boolean> updateProperty(Property property) {
+        return call(() -> service.updateProperty(property));
+    }
+
+    public CompletableFuture<Boolean> updatePropertyStatus(int propertyId, Property.PropertyStatus status) {
+        return call(() -> service.updatePropertyStatus(propertyId, status));
+    }
+
+    public CompletableFuture<Boolean> updatePropertyPrice(int propertyId, long newPrice) {
+        return call(() -> service.updatePropertyPrice(propertyId, newPrice));
+    }
+
+    public CompletableFuture<Boolean> updatePropertyPrice(int propertyId, long newPrice, int agentId, boolean durableHistory) {
+        return call(() -> service.updatePropertyPrice(propertyId, newPrice, agentId, durableHistory));
+    }
+
+    public CompletableFuture<Boolean> markPropertyAsSold(int propertyId) {
+        return call(() -> service.markPropertyAsSold(propertyId));
+    }
+
+    public CompletableFuture<Boolean> deleteProperty(int id) {
+        return call(() -> service.deleteProperty(id));
+    }
+
+    public CompletableFuture<List<PriceHistory>> getPriceHistory(int propertyId) {
+        return call(() -> service.getPriceHistory(propertyId));
+    }
+
+    // ==================== OFFER MANAGEMENT ====================
+
+    public CompletableFuture<Optional<Offer>> submitOffer(int agentId, int buyerId, int propertyId, long offerAmount) {
+        return call(() -> service.submitOffer(agentId, buyerId, propertyId, offerAmount));
+    }
+
+    public CompletableFuture<Optional<Offer>> withdrawOffer(int offerId) {
+        return call(() -> service.withdrawOffer(offerId));
+    }
+
+    public CompletableFuture<Optional<Offer>> rejectOffer(int offerId) {
+        return call(() -> service.rejectOffer(offerId));
+    }
+
+    public CompletableFuture<Optional<Offer>> acceptOffer(int offerId) {
+        return call(() -> service.acceptOffer(offerId));
+    }
+
+    public CompletableFuture<Optional<Offer>> getBestOffer(int propertyId) {
+        return call(() -> service.getBestOffer(propertyId));
+    }
+
+    public CompletableFuture<List<Offer>> getTopOffers(int propertyId, int limit) {
+        return call(() -> service.getTopOffers(propertyId, limit));
+    }
+
+    // ==================== INQUIRY MANAGEMENT ====================
+
+    /**
+     * Submit a buyer inquiry; the intake queue is already asynchronous, so no thread is used
+     */
+    public CompletableFuture<Inquiry> submitInquiry(int agentId, int buyerId, int propertyId, String message) {
+        return service.submitInquiry(agentId, buyerId, propertyId, message);
+    }
+
+    public CompletableFuture<Optional<Inquiry>> respondToInquiry(int inquiryId) {
+        return call(() -> service.respondToInquiry(inquiryId));
+    }
+
+    // ==================== BUSINESS INTELLIGENCE ====================
+
+    public CompletableFuture<List<AgentPerformance>> getAgentPerformance(int agentId) {
+        return call(() -> service.getAgentPerformance(agentId));
+    }
+
+    public CompletableFuture<List<Property>> getActiveListingsByFilters(String neighborhood, Property.PropertyType propertyType) {
+        return call(() -> service.getActiveListingsByFilters(neighborhood, propertyType));
+    }
+
+    public CompletableFuture<Integer> countActiveListingsByFilters(String neighborhood, Property.PropertyType propertyType) {
+        return call(() -> service.countActiveListingsByFilters(neighborhood, propertyType));
+    }
+
+    public CompletableFuture<FacetIndex.FacetCounts> getFacetCounts(String neighborhood, Property.PropertyType propertyType,
+                                                                    Property.PropertyStatus status, Integer priceBucket) {
+        return call(() -> service.getFacetCounts(neighborhood, propertyType, status, priceBucket));
+    }
+
+    public CompletableFuture<AgencyDAO.AgencyStatistics> getAgentPerformance() {
+        return call(service::getAgentPerformance);
+    }
+
+    public CompletableFuture<Double> getAverageTimeOnMarket() {
+        return call(service::getAverageTimeOnMarket);
+    }
+
+    public CompletableFuture<PropertyDAO.PropertyStatistics> getPriceTrendAnalysis(String region) {
+        return call(() -> service.getPriceTrendAnalysis(region));
+    }
+
+    public CompletableFuture<PropertyDAO.PropertyStatistics> getPriceTrendAnalysis(String region,
+                                                                                  Property.PropertyType propertyType) {
+        return call(() -> service.getPriceTrendAnalysis(region, propertyType));
+    }
+
+    public CompletableFuture<Map<String, PropertyDAO.PropertyStatistics>> getPriceTrendAnalysisByRegion() {
+        return call(service::getPriceTrendAnalysisByRegion);
+    }
+
+    public CompletableFuture<Map<String, PropertyDAO.PropertyStatistics>> getPriceTrendAnalysisByNeighborhood() {
+        return call(service::getPriceTrendAnalysisByNeighborhood);
+    }
+
+    public CompletableFuture<PropertyDAO.PropertyStatistics> getPropertyStatistics() {
+        return call(service::getPropertyStatistics);
+    }
+
+    // ==================== UTILITY METHODS ====================
+
+    /**
+     * Calls submitted but not yet finished, including those waiting for a permit
+     */
+    public int getInFlightCalls() {
+        return inFlight.get();
+    }
+
+    /**
+     * Calls currently waiting for a database permit
+     */
+    public int getQueuedCalls() {
+        return permits.getQueueLength();
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Whether calls run on virtual threads (false on JDKs before 21)
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stop accepting calls and wait for running ones to finish
+     * @param timeout Maximum time to wait
+     * @return true if all calls finished
+     */
+    public boolean shutdown(Duration timeout) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        shutdown(Duration.ofSeconds(30));
+    }
+
+    /**
+     * Run a blocking service call on the executor once a database permit is free
+     */
+    private <T> CompletableFuture<T> call(Supplier<T> operation) {
+        inFlight.incrementAndGet();
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(e);
+                }
+                try {
+                    return operation.get();
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            return CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, error) -> inFlight.decrementAndGet());
+        return future;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() when running on JDK 21+, looked up
+     * reflectively so the code still compiles for the project's baseline release
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.propertyportal.service;
+
+import com.propertyportal.dao.InquiryDAO;
+import com.propertyportal.model.Inquiry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous write path for buyer inquiries.
+ * submit() places an inquiry on a bounded queue and returns at once; a single
+ * writer thread drains the queue and inserts inquiries as one JDBC batch per
+ * flush. A flush happens when maxBatchSize inquiries are waiting or when the
+ * oldest waiting inquiry has been queued for flushInterval, whichever is first.
+ * The returned future completes with the stored inquiry once its batch has
+ * committed, or exceptionally if it was rejected or could not be written.
+ * An inquiry missing its status, type or priority is rejected up front, and
+ * an unexpected error while writing fails only the inquiries involved, so
+ * the writer keeps running.
+ * Futures are completed on the writer thread, so callers should attach heavy
+ * follow-up work with the *Async stages.
+ */
+public class InquiryIntake {
+
+    /**
+     * What submit() does when the queue is full
+     */
+    public enum OverflowPolicy {
+        /** Fail the submission immediately */
+        REJECT,
+        /** Wait up to the configured timeout for space, then fail */
+        BLOCK
+    }
+
+    private final InquiryDAO inquiryDAO;
+    private final BlockingQueue<Pending> queue;
+    private final int capacity;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final Thread writer;
+    private final long startedAtNanos = System.nanoTime();
+    private volatile boolean running = true;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong peakQueueDepth = new AtomicLong();
+
+    public InquiryIntake(InquiryDAO inquiryDAO, int capacity, int maxBatchSize, Duration flushInterval,
+                         OverflowPolicy overflowPolicy, Duration blockTimeout) {
+        if (capacity <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive: " +
+                    capacity + ", " + maxBatchSize);
+        }
+        this.inquiryDAO = inquiryDAO;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.writer = new Thread(this::runWriter, "inquiry-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue an inquiry for writing
+     * @param inquiry Inquiry to store
+     * @return Future completed with the stored inquiry (ID set) once committed
+     */
+    public CompletableFuture<Inquiry> submit(Inquiry inquiry) {
+        CompletableFuture<Inquiry> ack = new CompletableFuture<>();
+        if (!running) {
+            rejected.incrementAndGet();
+            ack.completeExceptionally(new RejectedExecutionException("Inquiry intake is shut down"));
+            return ack;
+        }
+        if (inquiry == null || inquiry.getStatus() == null || inquiry.getInquiryType() == null ||
+                inquiry.getPriority() == null) {
+            rejected.incrementAndGet();
+            ack.completeExceptionally(new IllegalArgumentException(
+                    "Inquiry must have a status, type and priority: " + inquiry));
+            return ack;
+        }
+        if (inquiry.getCreatedAt() == null) {
+            inquiry.setCreatedAt(LocalDateTime.now());
+        }
+
+        boolean queued;
+        Pending pending = new Pending(inquiry, ack);
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                queued = queue.offer(pending, blockTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+        } else {
+            queued = queue.offer(pending);
+        }
+
+        if (!queued) {
+            rejected.incrementAndGet();
+            ack.completeExceptionally(new RejectedExecutionException(
+                    "Inquiry queue is full (" + capacity + " pending)"));
+            return ack;
+        }
+        if (!running && !writer.isAlive() && queue.remove(pending)) {
+            // Lost a race with shutdown(): nothing is left to drain the queue
+            rejected.incrementAndGet();
+            ack.completeExceptionally(new RejectedExecutionException("Inquiry intake is shut down"));
+            return ack;
+        }
+        accepted.incrementAndGet();
+        peakQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        return ack;
+    }
+
+    /**
+     * Stop accepting inquiries, write everything already queued and stop the writer
+     * @param timeout Maximum time to wait for the queue to drain
+     * @return true if the writer finished within the timeout
+     */
+    public boolean shutdown(Duration timeout) {
+        // The writer polls with at most flushInterval timeouts, so it notices without an interrupt
+        // (interrupting it mid-flush would abort the pool's connection acquire)
+        running = false;
+        try {
+            writer.join(Math.max(1, timeout.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            return false;
+        }
+        List<Pending> stranded = new ArrayList<>();
+        queue.drainTo(stranded);
+        for (Pending pending : stranded) {
+            rejected.incrementAndGet();
+            pending.ack.completeExceptionally(new RejectedExecutionException("Inquiry intake is shut down"));
+        }
+        return true;
+    }
+
+    /**
+     * Get intake statistics
+     * @return Intake statistics
+     */
+    public IntakeStats getStats() {
+        long batchCount = batches.get();
+        long writtenCount = written.get();
+        double uptimeSeconds = (System.nanoTime() - startedAtNanos) / 1_000_000_000.0;
+        return new IntakeStats(
+            queue.size(),
+            capacity,
+            peakQueueDepth.get(),
+            accepted.get(),
+            rejected.get(),
+            writtenCount,
+            failed.get(),
+            batchCount,
+            batchCount == 0 ? 0 : totalFlushNanos.get() / batchCount / 1000,
+            uptimeSeconds <= 0 ? 0.0 : writtenCount / uptimeSeconds
+        );
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = running ? queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS) : queue.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.queuedAtNanos + flushIntervalNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0 || !running) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Only this class owns the writer; treat an interrupt as shutdown and drain
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        long start = System.nanoTime();
+        List<Inquiry> inquiries = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            inquiries.add(pending.inquiry);
+        }
+
+        if (write(inquiries)) {
+            for (Pending pending : batch) {
+                pending.ack.complete(pending.inquiry);
+            }
+            written.addAndGet(batch.size());
+        } else {
+            // One bad row fails the whole batch; retry one at a time so only that row is lost
+            for (Pending pending : batch) {
+                pending.inquiry.setId(0);
+                if (write(Collections.singletonList(pending.inquiry))) {
+                    written.incrementAndGet();
+                    pending.ack.complete(pending.inquiry);
+                } else {
+                    failed.incrementAndGet();
+                    pending.ack.completeExceptionally(new IllegalStateException(
+                            "Failed to write inquiry for property " + pending.inquiry.getPropertyId()));
+                }
+            }
+        }
+        batches.incrementAndGet();
+        totalFlushNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+     * Insert inquiries, treating an unexpected runtime error like a failed write
+     * so it cannot kill the writer and strand the acks still queued
+     */
+    private boolean write(List<Inquiry> inquiries) {
+        try {
+            return inquiryDAO.createAll(inquiries);
+        } catch (RuntimeException e) {
+            System.err.println("Error writing " + inquiries.size() + " inquiries: " + e);
+            return false;
+        }
+    }
+
+    private static class Pending {
+        final Inquiry inquiry;
+        final CompletableFuture<Inquiry> ack;
+        final long queuedAtNanos = System.nanoTime();
+
+        Pending(Inquiry inquiry, CompletableFuture<Inquiry> ack) {
+            this.inquiry = inquiry;
+            this.ack = ack;
+        }
+    }
+
+    /**
+     * Intake statistics class
+     */
+    public static class IntakeStats {
+        private final int queueDepth;
+        private final int capacity;
+        private final long peakQueueDepth;
+        private final long accepted;
+        private final long rejected;
+        private final long written;
+        private final long failed;
+        private final long batches;
+        private final long avgFlushMicros;
+        private final double writtenPerSecond;
+
+        public IntakeStats(int queueDepth, int capacity, long peakQueueDepth, long accepted, long rejected,
+                           long written, long failed, long batches, long avgFlushMicros, double writtenPerSecond) {
+            this.queueDepth = queueDepth;
+            this.capacity = capacity;
+            this.peakQueueDepth = peakQueueDepth;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.written = written;
+            this.failed = failed;
+            this.batches = batches;
+            this.avgFlushMicros = avgFlushMicros;
+            this.writtenPerSecond = writtenPerSecond;
+        }
+
+        public int getQueueDepth() { return queueDepth; }
+        public int getCapacity() { return capacity; }
+        public long getPeakQueueDepth() { return peakQueueDepth; }
+        public long getAccepted() { return accepted; }
+        public long getRejected() { return rejected; }
+        public long getWritten() { return written; }
+        public long getFailed() { return failed; }
+        public long getBatches() { return batches; }
+        public long getAvgFlushMicros() { return avgFlushMicros; }
+        public double getWrittenPerSecond() { return writtenPerSecond; }
+
+        public double getAvgBatchSize() {
+            return batches == 0 ? 0.0 : (double) (written + failed) / batches;
+        }
+
+        @Override
+        public String toString() {
+            return "IntakeStats{" +
+                    "queueDepth=" + queueDepth +
+                    ", capacity=" + capacity +
+                    ", peakQueueDepth=" + peakQueueDepth +
+                    ", accepted=" + accepted +
+                    ", rejected=" + rejected +
+                    ", written=" + written +
+                    ", failed=" + failed +
+                    ", batches=" + batches +
+                    ", avgBatchSize=" + getAvgBatchSize() +
+                    ", avgFlushMicros=" + avgFlushMicros +
+                    ", writtenPerSecond=" + writtenPerSecond +
+                    '}';
+        }
+    }
+}
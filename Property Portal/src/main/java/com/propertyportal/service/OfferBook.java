@@ -0,0 +1,323 @@
+package com.propertyportal.service;
+
+import com.propertyportal.dao.OfferDAO;
+import com.propertyportal.dao.PropertyChangeListener;
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.model.Offer;
+import com.propertyportal.model.Property;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory book of PENDING offers per property, highest amount first.
+ * Best-offer and top-N reads are lock-free. Submit and resolve write through
+ * to the Offer table and update the book under a per-property lock, so the
+ * book and the table agree even when offers on the same property race.
+ * A property's book is loaded from the database the first time it is used
+ * and reloaded once older than a time-to-live, which picks up offers made
+ * through other nodes. Books are dropped when their property is sold or
+ * deleted, and the least recently used are dropped once there are too many.
+ * At most one offer per property is accepted: accepting one rejects the
+ * property's other pending offers in the same transaction.
+ */
+public class OfferBook implements PropertyChangeListener {
+
+    // Highest amount first; earlier offer wins a tie
+    private static final Comparator<Offer> BEST_FIRST = Comparator
+            .comparingLong(Offer::getOfferAmount).reversed()
+            .thenComparing(Offer::getOfferDate, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparingInt(Offer::getId);
+
+    private final OfferDAO offerDAO;
+    private final int maxBooks;
+    private final long ttlNanos;
+    private final Map<Integer, PropertyBook> books = new ConcurrentHashMap<>();
+    private final Map<Integer, Offer> pendingById = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    /**
+     * Create an offer book that follows property sales and deletions
+     * @param offerDAO Offer DAO
+     * @param propertyDAO Property DAO whose writes drop sold and deleted properties' books
+     * @param maxBooks Number of property books kept in memory
+     * @param ttl Age after which a book is reloaded from the database
+     */
+    public OfferBook(OfferDAO offerDAO, PropertyDAO propertyDAO, int maxBooks, Duration ttl) {
+        if (maxBooks <= 0) {
+            throw new IllegalArgumentException("Book count must be positive: " + maxBooks);
+        }
+        this.offerDAO = offerDAO;
+        this.maxBooks = maxBooks;
+        this.ttlNanos = ttl.toNanos();
+        propertyDAO.addChangeListener(this);
+    }
+
+    /**
+     * Submit a new pending offer
+     * @param offer Offer to submit
+     * @return Created offer with ID
+     */
+    public Optional<Offer> submit(Offer offer) {
+        if (offer.getStatus() != Offer.OfferStatus.PENDING) {
+            throw new IllegalArgumentException("Only pending offers can be submitted: " + offer.getStatus());
+        }
+        PropertyBook book = book(offer.getPropertyId());
+        book.lock.lock();
+        try {
+            Optional<Offer> created = offerDAO.create(offer);
+            created.ifPresent(o -> book.add(new Offer(o)));
+            return created;
+        } finally {
+            book.lock.unlock();
+        }
+    }
+
+    /**
+     * Withdraw a pending offer (buyer side)
+     * @param offerId Offer ID
+     * @return Withdrawn offer if it was still pending
+     */
+    public Optional<Offer> withdraw(int offerId) {
+        return resolve(offerId, Offer.OfferStatus.WITHDRAWN);
+    }
+
+    /**
+     * Reject a pending offer (seller side)
+     * @param offerId Offer ID
+     * @return Rejected offer if it was still pending
+     */
+    public Optional<Offer> reject(int offerId) {
+        return resolve(offerId, Offer.OfferStatus.REJECTED);
+    }
+
+    /**
+     * Accept a pending offer (seller side), rejecting the property's other pending offers
+     * @param offerId Offer ID
+     * @return Accepted offer if it was still pending and no other offer on the property was accepted
+     */
+    public Optional<Offer> accept(int offerId) {
+        return resolve(offerId, Offer.OfferStatus.ACCEPTED);
+    }
+
+    /**
+     * Get the highest pending offer on a property
+     * @param propertyId Property ID
+     * @return Best offer if any offer is pending
+     */
+    public Optional<Offer> bestOffer(int propertyId) {
+        PropertyBook book = book(propertyId);
+        Offer best = firstOrNull(book);
+        return best == null ? Optional.empty() : Optional.of(new Offer(best));
+    }
+
+    /**
+     * Get the highest pending offers on a property
+     * @param propertyId Property ID
+     * @param limit Maximum offers to return
+     * @return Up to limit pending offers, highest amount first
+     */
+    public List<Offer> topOffers(int propertyId, int limit) {
+        PropertyBook book = book(propertyId);
+        List<Offer> top = new ArrayList<>(Math.min(limit, 16));
+        Iterator<Offer> it = book.pending.iterator();
+        while (top.size() < limit && it.hasNext()) {
+            top.add(new Offer(it.next()));
+        }
+        return top;
+    }
+
+    /**
+     * Number of pending offers on a property
+     * @param propertyId Property ID
+     * @return Pending offer count
+     */
+    public int pendingCount(int propertyId) {
+        return book(propertyId).pending.size();
+    }
+
+    /**
+     * Drop a property's book from memory, e.g. once it has sold; it reloads on next use
+     * @param propertyId Property ID
+     */
+    public void evict(int propertyId) {
+        PropertyBook book = books.get(propertyId);
+        if (book != null) {
+            evict(book);
+        }
+    }
+
+    @Override
+    public void propertyUpdated(Property property) {
+        if (property.getStatus() == Property.PropertyStatus.SOLD) {
+            evict(property.getId());
+        }
+    }
+
+    @Override
+    public void statusChanged(int propertyId, Property.PropertyStatus status) {
+        if (status == Property.PropertyStatus.SOLD) {
+            evict(propertyId);
+        }
+    }
+
+    @Override
+    public void propertyDeleted(int propertyId) {
+        evict(propertyId);
+    }
+
+    private void evict(PropertyBook book) {
+        if (books.remove(book.propertyId, book)) {
+            book.lock.lock();
+            try {
+                book.forgetPending();
+            } finally {
+                book.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Drop the least recently used eighth of the books once there are more than maxBooks
+     */
+    private void trimIfFull() {
+        if (books.size() <= maxBooks || !trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<PropertyBook> byLastUse = new ArrayList<>(books.values());
+            byLastUse.sort(Comparator.comparingLong(b -> b.lastUsedNanos));
+            int excess = byLastUse.size() - maxBooks + maxBooks / 8;
+            for (int i = 0; i < excess && i < byLastUse.size(); i++) {
+                evict(byLastUse.get(i));
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private Optional<Offer> resolve(int offerId, Offer.OfferStatus status) {
+        Offer known = pendingById.get(offerId);
+        int propertyId;
+        if (known != null) {
+            propertyId = known.getPropertyId();
+        } else {
+            Optional<Offer> stored = offerDAO.findById(offerId);
+            if (stored.isEmpty()) {
+                return Optional.empty();
+            }
+            propertyId = stored.get().getPropertyId();
+        }
+
+        PropertyBook book = book(propertyId);
+        book.lock.lock();
+        try {
+            boolean resolved = status == Offer.OfferStatus.ACCEPTED
+                    ? offerDAO.accept(offerId, propertyId)
+                    : offerDAO.resolve(offerId, status);
+            if (!resolved) {
+                return Optional.empty();
+            }
+            Offer removed = book.remove(offerId);
+            if (status == Offer.OfferStatus.ACCEPTED) {
+                // The rest of the book was rejected in the same transaction
+                book.forgetPending();
+                book.pending = new ConcurrentSkipListSet<>(BEST_FIRST);
+            }
+            Offer offer = removed != null ? new Offer(removed) : offerDAO.findById(offerId).orElse(null);
+            if (offer == null) {
+                return Optional.empty();
+            }
+            offer.setStatus(status);
+            offer.setResponseDate(LocalDateTime.now());
+            return Optional.of(offer);
+        } finally {
+            book.lock.unlock();
+        }
+    }
+
+    private PropertyBook book(int propertyId) {
+        PropertyBook book = books.get(propertyId);
+        if (book == null) {
+            book = books.computeIfAbsent(propertyId, PropertyBook::new);
+            trimIfFull();
+        }
+        long now = System.nanoTime();
+        book.lastUsedNanos = now;
+        if (!book.loaded || now - book.loadedAtNanos > ttlNanos) {
+            book.lock.lock();
+            try {
+                if (!book.loaded || now - book.loadedAtNanos > ttlNanos) {
+                    // Filled aside and swapped in, so lock-free readers never see a half-loaded book
+                    ConcurrentSkipListSet<Offer> reloaded = new ConcurrentSkipListSet<>(BEST_FIRST);
+                    reloaded.addAll(offerDAO.findPendingByProperty(propertyId));
+                    book.forgetPending();
+                    book.pending = reloaded;
+                    for (Offer offer : reloaded) {
+                        pendingById.put(offer.getId(), offer);
+                    }
+                    book.loadedAtNanos = System.nanoTime();
+                    book.loaded = true;
+                }
+            } finally {
+                book.lock.unlock();
+            }
+        }
+        return book;
+    }
+
+    private static Offer firstOrNull(PropertyBook book) {
+        Iterator<Offer> it = book.pending.iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    /**
+     * Pending offers for one property
+     */
+    private class PropertyBook {
+        final int propertyId;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile ConcurrentSkipListSet<Offer> pending = new ConcurrentSkipListSet<>(BEST_FIRST);
+        volatile boolean loaded;
+        volatile long loadedAtNanos;
+        volatile long lastUsedNanos;
+
+        PropertyBook(int propertyId) {
+            this.propertyId = propertyId;
+        }
+
+        // Callers hold the lock
+
+        void add(Offer offer) {
+            if (pending.add(offer)) {
+                pendingById.put(offer.getId(), offer);
+            }
+        }
+
+        Offer remove(int offerId) {
+            Offer offer = pendingById.get(offerId);
+            if (offer == null || offer.getPropertyId() != propertyId) {
+                return null;
+            }
+            pendingById.remove(offerId);
+            pending.remove(offer);
+            return offer;
+        }
+
+        void forgetPending() {
+            for (Offer offer : pending) {
+                pendingById.remove(offer.getId(), offer);
+            }
+        }
+    }
+}
@@ -1,13 +1,42 @@
 package com.propertyportal.service;
 
+import com.propertyportal.DatabaseConnection;
+import com.propertyportal.SlowQueryLog;
+import com.propertyportal.cache.PropertyCache;
+import com.propertyportal.cache.QueryResultCache;
 import com.propertyportal.dao.AgencyDAO;
+import com.propertyportal.dao.AgentPerformanceDAO;
+import com.propertyportal.dao.InquiryDAO;
+import com.propertyportal.dao.OfferDAO;
+import com.propertyportal.dao.PriceHistoryDAO;
+import com.propertyportal.dao.PriceHistoryRecorder;
+import com.propertyportal.dao.PropertyChangePoller;
 import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.index.ActiveListingIndex;
+import com.propertyportal.index.FacetIndex;
+import com.propertyportal.index.IndexLoader;
+import com.propertyportal.index.PriceIndex;
+import com.propertyportal.index.PropertySnapshot;
+import com.propertyportal.index.PropertyTextIndex;
+import com.propertyportal.metrics.Metrics;
 import com.propertyportal.model.Agency;
+import com.propertyportal.model.AgentPerformance;
+import com.propertyportal.model.Inquiry;
+import com.propertyportal.model.Offer;
+import com.propertyportal.model.PriceHistory;
 import com.propertyportal.model.Property;
+import com.propertyportal.model.PropertySummary;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main service class for Property Portal business logic
@@ -16,10 +45,90 @@ public class PropertyPortalService {
     
     private final AgencyDAO agencyDAO;
     private final PropertyDAO propertyDAO;
+    private final PriceHistoryDAO priceHistoryDAO;
+    private final PriceHistoryRecorder priceHistoryRecorder;
+    private final PropertyCache propertyCache;
+    private final ActiveListingIndex activeListingIndex;
+    private final FacetIndex facetIndex;
+    private final PriceIndex priceIndex;
+    private final PropertyTextIndex propertyTextIndex;
+    private final QueryResultCache queryResultCache;
+    private final PropertySnapshot propertySnapshot;
+    private final OfferBook offerBook;
+    private final InquiryDAO inquiryDAO;
+    private final InquiryIntake inquiryIntake;
+    private final AgentPerformanceDAO agentPerformanceDAO;
+    private final AgentPerformanceRollup agentPerformanceRollup;
+    private final PropertyChangePoller changePoller;
+    
+    private static final int PROPERTY_CACHE_SIZE = 10_000;
+    private static final Duration PROPERTY_CACHE_TTL = Duration.ofMinutes(5);
+    private static final Duration ANALYTICS_SNAPSHOT_MAX_AGE = Duration.ofMinutes(5);
+    private static final Duration ANALYTICS_SNAPSHOT_PERSIST_INTERVAL = Duration.ofMinutes(1);
+    private static final long[] FACET_PRICE_BUCKETS = {0, 100_000, 250_000, 500_000, 750_000, 1_000_000, 2_000_000};
+    private static final int OFFER_BOOK_SIZE = 10_000;
+    private static final Duration OFFER_BOOK_TTL = Duration.ofSeconds(30);
+    private static final int QUERY_CACHE_SIZE = 1_000;
+    private static final int TEXT_SEARCH_MAX_RESULTS = 1_000;
+    private static final Duration QUERY_CACHE_TTL = Duration.ofMinutes(5);
+    private static final int INQUIRY_QUEUE_CAPACITY = 10_000;
+    private static final int INQUIRY_BATCH_SIZE = 200;
+    private static final Duration INQUIRY_FLUSH_INTERVAL = Duration.ofMillis(250);
+    private static final Duration INQUIRY_ENQUEUE_TIMEOUT = Duration.ofMillis(100);
+    private static final Duration AGENT_PERFORMANCE_FLUSH_INTERVAL = Duration.ofSeconds(30);
+    private static final int PRICE_HISTORY_QUEUE_CAPACITY = 50_000;
+    private static final int PRICE_HISTORY_BATCH_SIZE = 500;
+    private static final Duration PRICE_HISTORY_FLUSH_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration CHANGE_POLL_INTERVAL = Duration.ofSeconds(5);
+    private static final int CHANGE_POLL_BATCH_SIZE = 500;
+    private static final Duration CHANGE_POLL_SETTLE_DELAY = Duration.ofSeconds(2);
     
     public PropertyPortalService() {
+        this(null);
+    }
+    
+    /**
+     * Create the service, keeping a copy of the analytics snapshot on disk so
+     * a restarted node loads it from the file instead of the whole table
+     * @param analyticsSnapshotFile Snapshot file, or null to keep it in memory only
+     */
+    public PropertyPortalService(Path analyticsSnapshotFile) {
+        this(analyticsSnapshotFile, true);
+    }
+    
+    /**
+     * Create the service, optionally without the change poller
+     * @param analyticsSnapshotFile Snapshot file, or null to keep it in memory only
+     * @param pollChanges false when every write goes through this service (a single node or a benchmark),
+     *                    so no other node's writes need polling for
+     */
+    public PropertyPortalService(Path analyticsSnapshotFile, boolean pollChanges) {
         this.agencyDAO = new AgencyDAO();
         this.propertyDAO = new PropertyDAO();
+        this.priceHistoryDAO = new PriceHistoryDAO();
+        this.priceHistoryRecorder = new PriceHistoryRecorder(priceHistoryDAO, PRICE_HISTORY_QUEUE_CAPACITY,
+                PRICE_HISTORY_BATCH_SIZE, PRICE_HISTORY_FLUSH_INTERVAL);
+        propertyDAO.setPriceHistoryRecorder(priceHistoryRecorder);
+        this.propertyCache = new PropertyCache(propertyDAO, PROPERTY_CACHE_SIZE, PROPERTY_CACHE_TTL);
+        this.activeListingIndex = new ActiveListingIndex(propertyDAO);
+        this.facetIndex = new FacetIndex(propertyDAO, FACET_PRICE_BUCKETS);
+        this.priceIndex = new PriceIndex(propertyDAO);
+        this.propertyTextIndex = new PropertyTextIndex(propertyDAO);
+        // Registered after the text index so the index is current when entries are invalidated
+        this.queryResultCache = new QueryResultCache(propertyDAO, QUERY_CACHE_SIZE, QUERY_CACHE_TTL);
+        this.propertySnapshot = new PropertySnapshot(propertyDAO, ANALYTICS_SNAPSHOT_MAX_AGE, analyticsSnapshotFile,
+                ANALYTICS_SNAPSHOT_PERSIST_INTERVAL);
+        this.offerBook = new OfferBook(new OfferDAO(), propertyDAO, OFFER_BOOK_SIZE, OFFER_BOOK_TTL);
+        this.inquiryDAO = new InquiryDAO();
+        this.inquiryIntake = new InquiryIntake(inquiryDAO, INQUIRY_QUEUE_CAPACITY, INQUIRY_BATCH_SIZE,
+                INQUIRY_FLUSH_INTERVAL, InquiryIntake.OverflowPolicy.BLOCK, INQUIRY_ENQUEUE_TIMEOUT);
+        this.agentPerformanceDAO = new AgentPerformanceDAO();
+        this.agentPerformanceRollup = new AgentPerformanceRollup(agentPerformanceDAO, AGENT_PERFORMANCE_FLUSH_INTERVAL);
+        // Started last, once every cache and index is registered for the changes it publishes
+        this.changePoller = pollChanges
+                ? new PropertyChangePoller(propertyDAO, CHANGE_POLL_INTERVAL, CHANGE_POLL_BATCH_SIZE,
+                        CHANGE_POLL_SETTLE_DELAY)
+                : null;
     }
     
     // ==================== AGENCY MANAGEMENT ====================
@@ -32,8 +141,11 @@ public class PropertyPortalService {
      * @return Created agency
      */
     public Optional<Agency> registerAgency(String name, String address, String phone) {
-        Agency agency = new Agency(name, address, phone);
-        return agencyDAO.create(agency);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.registerAgency");
+        try (timer) {
+            Agency agency = new Agency(name, address, phone);
+            return agencyDAO.create(agency);
+        }
     }
     
     /**
@@ -41,7 +153,10 @@ public class PropertyPortalService {
      * @return List of all agencies
      */
     public List<Agency> getAllAgencies() {
-        return agencyDAO.findAll();
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getAllAgencies");
+        try (timer) {
+            return agencyDAO.findAll();
+        }
     }
     
     /**
@@ -50,7 +165,10 @@ public class PropertyPortalService {
      * @return Agency if found
      */
     public Optional<Agency> getAgencyById(int id) {
-        return agencyDAO.findById(id);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getAgencyById");
+        try (timer) {
+            return agencyDAO.findById(id);
+        }
     }
     
     /**
@@ -59,7 +177,10 @@ public class PropertyPortalService {
      * @return List of matching agencies
      */
     public List<Agency> searchAgenciesByName(String name) {
-        return agencyDAO.searchByName(name);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.searchAgenciesByName");
+        try (timer) {
+            return agencyDAO.searchByName(name);
+        }
     }
     
     /**
@@ -68,7 +189,10 @@ public class PropertyPortalService {
      * @return true if update successful
      */
     public boolean updateAgency(Agency agency) {
-        return agencyDAO.update(agency);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.updateAgency");
+        try (timer) {
+            return agencyDAO.update(agency);
+        }
     }
     
     /**
@@ -77,7 +201,10 @@ public class PropertyPortalService {
      * @return true if deletion successful
      */
     public boolean deleteAgency(int id) {
-        return agencyDAO.delete(id);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.deleteAgency");
+        try (timer) {
+            return agencyDAO.delete(id);
+        }
     }
     
     // ==================== PROPERTY MANAGEMENT ====================
@@ -96,8 +223,24 @@ public class PropertyPortalService {
     public Optional<Property> listProperty(String title, String description, String address, 
                                          String neighborhood, String region, Property.PropertyType propertyType, 
                                          long currentPrice) {
-        Property property = new Property(title, description, address, neighborhood, region, propertyType, currentPrice);
-        return propertyDAO.create(property);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.listProperty");
+        try (timer) {
+            Property property = new Property(title, description, address, neighborhood, region, propertyType, currentPrice);
+            return propertyDAO.create(property);
+        }
+    }
+    
+    /**
+     * List many properties at once using batched inserts
+     * @param properties Properties to list
+     * @param batchSize Rows per batch and per commit
+     * @return Created properties and per-row failures
+     */
+    public PropertyDAO.BulkInsertResult listProperties(Collection<Property> properties, int batchSize) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.listProperties");
+        try (timer) {
+            return propertyDAO.createAll(properties, batchSize);
+        }
     }
     
     /**
@@ -105,7 +248,10 @@ public class PropertyPortalService {
      * @return List of all properties
      */
     public List<Property> getAllProperties() {
-        return propertyDAO.findAll();
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getAllProperties");
+        try (timer) {
+            return propertyDAO.findAll();
+        }
     }
     
     /**
@@ -113,7 +259,10 @@ public class PropertyPortalService {
      * @return List of available properties
      */
     public List<Property> getActiveListings() {
-        return propertyDAO.findActiveListings();
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getActiveListings");
+        try (timer) {
+            return propertyDAO.findActiveListings();
+        }
     }
     
     /**
@@ -122,7 +271,10 @@ public class PropertyPortalService {
      * @return Property if found
      */
     public Optional<Property> getPropertyById(int id) {
-        return propertyDAO.findById(id);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPropertyById");
+        try (timer) {
+            return propertyCache.get(id);
+        }
     }
     
     /**
@@ -131,7 +283,14 @@ public class PropertyPortalService {
      * @return List of properties in neighborhood
      */
     public List<Property> getPropertiesByNeighborhood(String neighborhood) {
-        return propertyDAO.findByNeighborhood(neighborhood);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPropertiesByNeighborhood");
+        try (timer) {
+            // The cache key is trimmed and lowercased; the column's case-insensitive collation covers the case
+            String trimmed = neighborhood == null ? null : neighborhood.trim();
+            List<Integer> ids = queryResultCache.get(QueryResultCache.Query.neighborhood(trimmed),
+                    () -> propertyDAO.findIdsByNeighborhood(trimmed));
+            return propertyCache.getAll(ids);
+        }
     }
     
     /**
@@ -140,16 +299,42 @@ public class PropertyPortalService {
      * @return List of properties of specified type
      */
     public List<Property> getPropertiesByType(Property.PropertyType propertyType) {
-        return propertyDAO.findByPropertyType(propertyType);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPropertiesByType");
+        try (timer) {
+            List<Integer> ids = queryResultCache.get(QueryResultCache.Query.propertyType(propertyType),
+                    () -> propertyDAO.findIdsByPropertyType(propertyType));
+            return propertyCache.getAll(ids);
+        }
     }
     
     /**
      * Search properties by text (full-text search)
      * @param searchText Text to search for
-     * @return List of matching properties
+     * @return The 1,000 most relevant matching properties, most relevant first
      */
     public List<Property> searchProperties(String searchText) {
-        return propertyDAO.searchByText(searchText);
+        return searchProperties(searchText, TEXT_SEARCH_MAX_RESULTS);
+    }
+    
+    /**
+     * Search properties by text, ranked by BM25 relevance
+     * @param searchText Text to search for; +word requires and -word excludes a word
+     * @param limit Maximum number of results, capped at 1,000 so one search cannot flush the property cache
+     * @return List of matching properties, most relevant first
+     */
+    public List<Property> searchProperties(String searchText, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.searchProperties");
+        try (timer) {
+            int cappedLimit = Math.min(limit, TEXT_SEARCH_MAX_RESULTS);
+            List<Integer> ids = queryResultCache.get(QueryResultCache.Query.text(searchText, cappedLimit), () -> {
+                List<Integer> hitIds = new ArrayList<>();
+                for (PropertyTextIndex.Hit hit : propertyTextIndex.search(searchText, cappedLimit)) {
+                    hitIds.add(hit.getPropertyId());
+                }
+                return hitIds;
+            });
+            return propertyCache.getAll(ids);
+        }
     }
     
     /**
@@ -159,7 +344,155 @@ public class PropertyPortalService {
      * @return List of properties in price range
      */
     public List<Property> getPropertiesByPriceRange(long minPrice, long maxPrice) {
-        return propertyDAO.findByPriceRange(minPrice, maxPrice);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPropertiesByPriceRange");
+        try (timer) {
+            return propertyDAO.findByPriceRange(minPrice, maxPrice);
+        }
+    }
+    
+    /**
+     * Get active listing summaries for search-result pages
+     * @return List of available property summaries
+     */
+    public List<PropertySummary> getActiveListingSummaries() {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getActiveListingSummaries");
+        try (timer) {
+            return propertyDAO.findActiveListingSummaries();
+        }
+    }
+    
+    /**
+     * Find property summaries by neighborhood
+     * @param neighborhood Neighborhood to search
+     * @return List of property summaries in neighborhood
+     */
+    public List<PropertySummary> getPropertySummariesByNeighborhood(String neighborhood) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPropertySummariesByNeighborhood");
+        try (timer) {
+            return propertyDAO.findSummariesByNeighborhood(neighborhood);
+        }
+    }
+    
+    /**
+     * Find property summaries by property type
+     * @param propertyType Property type to search
+     * @return List of property summaries of specified type
+     */
+    public List<PropertySummary> getPropertySummariesByType(Property.PropertyType propertyType) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPropertySummariesByType");
+        try (timer) {
+            return propertyDAO.findSummariesByPropertyType(propertyType);
+        }
+    }
+    
+    /**
+     * Find property summaries by price range
+     * @param minPrice Minimum price
+     * @param maxPrice Maximum price
+     * @return List of property summaries in price range
+     */
+    public List<PropertySummary> getPropertySummariesByPriceRange(long minPrice, long maxPrice) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPropertySummariesByPriceRange");
+        try (timer) {
+            return propertyDAO.findSummariesByPriceRange(minPrice, maxPrice);
+        }
+    }
+    
+    /**
+     * Search property summaries by text (full-text search)
+     * @param searchText Text to search for
+     * @return List of matching property summaries
+     */
+    public List<PropertySummary> searchPropertySummaries(String searchText) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.searchPropertySummaries");
+        try (timer) {
+            return propertyDAO.searchSummariesByText(searchText);
+        }
+    }
+    
+    /**
+     * Load a property's full description on demand
+     * @param propertyId Property ID
+     * @return Description if the property exists
+     */
+    public Optional<String> getPropertyDescription(int propertyId) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPropertyDescription");
+        try (timer) {
+            return propertyDAO.findDescription(propertyId);
+        }
+    }
+    
+    /**
+     * Get one page of all properties, newest listing first
+     * @param afterListingDate listingDate of the last property on the previous page, or null for the first page
+     * @param afterId ID of the last property on the previous page
+     * @param pageSize Maximum properties to return
+     * @return Page of properties
+     */
+    public List<Property> getAllPropertiesPage(LocalDateTime afterListingDate, int afterId, int pageSize) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getAllPropertiesPage");
+        try (timer) {
+            return propertyDAO.findAllPage(afterListingDate, afterId, pageSize);
+        }
+    }
+    
+    /**
+     * Get one page of active listings, newest listing first
+     * @param afterListingDate listingDate of the last property on the previous page, or null for the first page
+     * @param afterId ID of the last property on the previous page
+     * @param pageSize Maximum properties to return
+     * @return Page of available properties
+     */
+    public List<Property> getActiveListingsPage(LocalDateTime afterListingDate, int afterId, int pageSize) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getActiveListingsPage");
+        try (timer) {
+            return propertyDAO.findActiveListingsPage(afterListingDate, afterId, pageSize);
+        }
+    }
+    
+    /**
+     * Get one page of properties in a price range, cheapest first
+     * @param minPrice Minimum price
+     * @param maxPrice Maximum price
+     * @param afterPrice Price of the last property on the previous page, or null for the first page
+     * @param afterId ID of the last property on the previous page
+     * @param pageSize Maximum properties to return
+     * @return Page of properties in price range
+     */
+    public List<Property> getPropertiesByPriceRangePage(long minPrice, long maxPrice, Long afterPrice, int afterId, int pageSize) {
+        return getPropertiesByPriceRangePage(minPrice, maxPrice, null, afterPrice, afterId, pageSize);
+    }
+    
+    /**
+     * Get one page of properties in a price range with a given status, cheapest first
+     * @param minPrice Minimum price
+     * @param maxPrice Maximum price
+     * @param status Status filter (optional)
+     * @param afterPrice Price of the last property on the previous page, or null for the first page
+     * @param afterId ID of the last property on the previous page
+     * @param pageSize Maximum properties to return
+     * @return Page of properties in price range
+     */
+    public List<Property> getPropertiesByPriceRangePage(long minPrice, long maxPrice, Property.PropertyStatus status,
+                                                        Long afterPrice, int afterId, int pageSize) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPropertiesByPriceRangePage");
+        try (timer) {
+            return propertyCache.getAll(priceIndex.page(minPrice, maxPrice, status, afterPrice, afterId, pageSize));
+        }
+    }
+    
+    /**
+     * Count properties in a price range
+     * @param minPrice Minimum price
+     * @param maxPrice Maximum price
+     * @param status Status filter (optional)
+     * @return Number of properties in price range
+     */
+    public int countPropertiesByPriceRange(long minPrice, long maxPrice, Property.PropertyStatus status) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.countPropertiesByPriceRange");
+        try (timer) {
+            return priceIndex.count(minPrice, maxPrice, status);
+        }
     }
     
     /**
@@ -168,7 +501,10 @@ public class PropertyPortalService {
      * @return true if update successful
      */
     public boolean updateProperty(Property property) {
-        return propertyDAO.update(property);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.updateProperty");
+        try (timer) {
+            return propertyDAO.update(property);
+        }
     }
     
     /**
@@ -178,7 +514,10 @@ public class PropertyPortalService {
      * @return true if update successful
      */
     public boolean updatePropertyStatus(int propertyId, Property.PropertyStatus status) {
-        return propertyDAO.updateStatus(propertyId, status);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.updatePropertyStatus");
+        try (timer) {
+            return propertyDAO.updateStatus(propertyId, status);
+        }
     }
     
     /**
@@ -188,7 +527,25 @@ public class PropertyPortalService {
      * @return true if update successful
      */
     public boolean updatePropertyPrice(int propertyId, long newPrice) {
-        return propertyDAO.updatePrice(propertyId, newPrice);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.updatePropertyPrice(int,long)");
+        try (timer) {
+            return propertyDAO.updatePrice(propertyId, newPrice);
+        }
+    }
+    
+    /**
+     * Update property price, recording the change in price history
+     * @param propertyId Property ID
+     * @param newPrice New price
+     * @param agentId Agent making the change
+     * @param durableHistory true to write the history entry in the same transaction
+     * @return true if update successful
+     */
+    public boolean updatePropertyPrice(int propertyId, long newPrice, int agentId, boolean durableHistory) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.updatePropertyPrice(int,long,int,boolean)");
+        try (timer) {
+            return propertyDAO.updatePrice(propertyId, newPrice, agentId, durableHistory);
+        }
     }
     
     /**
@@ -197,7 +554,10 @@ public class PropertyPortalService {
      * @return true if update successful
      */
     public boolean markPropertyAsSold(int propertyId) {
-        return propertyDAO.updateStatus(propertyId, Property.PropertyStatus.SOLD);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.markPropertyAsSold");
+        try (timer) {
+            return propertyDAO.markSold(propertyId).isPresent();
+        }
     }
     
     /**
@@ -206,11 +566,234 @@ public class PropertyPortalService {
      * @return true if deletion successful
      */
     public boolean deleteProperty(int id) {
-        return propertyDAO.delete(id);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.deleteProperty");
+        try (timer) {
+            return propertyDAO.delete(id);
+        }
+    }
+    
+    /**
+     * Get a property's price history
+     * @param propertyId Property ID
+     * @return Price history, oldest first
+     */
+    public List<PriceHistory> getPriceHistory(int propertyId) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPriceHistory");
+        try (timer) {
+            priceHistoryRecorder.flush();
+            return priceHistoryDAO.findByProperty(propertyId);
+        }
+    }
+    
+    /**
+     * Get price history recorder statistics
+     * @return Recorder statistics
+     */
+    public PriceHistoryRecorder.RecorderStats getPriceHistoryStats() {
+        return priceHistoryRecorder.getStats();
+    }
+    
+    // ==================== OFFER MANAGEMENT ====================
+    
+    /**
+     * Submit an offer on a property
+     * @param agentId Agent ID
+     * @param buyerId Buyer ID
+     * @param propertyId Property ID
+     * @param offerAmount Offer amount
+     * @return Created offer
+     */
+    public Optional<Offer> submitOffer(int agentId, int buyerId, int propertyId, long offerAmount) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.submitOffer");
+        try (timer) {
+            return offerBook.submit(new Offer(agentId, buyerId, propertyId, offerAmount));
+        }
+    }
+    
+    /**
+     * Withdraw a pending offer
+     * @param offerId Offer ID
+     * @return Withdrawn offer if it was still pending
+     */
+    public Optional<Offer> withdrawOffer(int offerId) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.withdrawOffer");
+        try (timer) {
+            return offerBook.withdraw(offerId);
+        }
+    }
+    
+    /**
+     * Reject a pending offer
+     * @param offerId Offer ID
+     * @return Rejected offer if it was still pending
+     */
+    public Optional<Offer> rejectOffer(int offerId) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.rejectOffer");
+        try (timer) {
+            return offerBook.reject(offerId);
+        }
+    }
+    
+    /**
+     * Accept a pending offer, rejecting the property's other pending offers
+     * @param offerId Offer ID
+     * @return Accepted offer if it was still pending and no other offer on the property was accepted
+     */
+    public Optional<Offer> acceptOffer(int offerId) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.acceptOffer");
+        try (timer) {
+            Optional<Offer> accepted = offerBook.accept(offerId);
+            accepted.ifPresent(agentPerformanceRollup::offerAccepted);
+            return accepted;
+        }
+    }
+    
+    /**
+     * Get the highest pending offer on a property
+     * @param propertyId Property ID
+     * @return Best offer if any
+     */
+    public Optional<Offer> getBestOffer(int propertyId) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getBestOffer");
+        try (timer) {
+            return offerBook.bestOffer(propertyId);
+        }
+    }
+    
+    /**
+     * Get the highest pending offers on a property
+     * @param propertyId Property ID
+     * @param limit Maximum offers to return
+     * @return Pending offers, highest amount first
+     */
+    public List<Offer> getTopOffers(int propertyId, int limit) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getTopOffers");
+        try (timer) {
+            return offerBook.topOffers(propertyId, limit);
+        }
+    }
+    
+    // ==================== INQUIRY MANAGEMENT ====================
+    
+    /**
+     * Submit a buyer inquiry; it is written asynchronously in a batch
+     * @param agentId Agent ID
+     * @param buyerId Buyer ID
+     * @param propertyId Property ID
+     * @param message Inquiry message
+     * @return Future completed with the stored inquiry once committed
+     */
+    public CompletableFuture<Inquiry> submitInquiry(int agentId, int buyerId, int propertyId, String message) {
+        return submitInquiry(new Inquiry(message, agentId, buyerId, propertyId));
+    }
+    
+    /**
+     * Submit a buyer inquiry; it is written asynchronously in a batch
+     * @param inquiry Inquiry to store
+     * @return Future completed with the stored inquiry once committed,
+     *         or failed with RejectedExecutionException if the intake queue stays full
+     */
+    public CompletableFuture<Inquiry> submitInquiry(Inquiry inquiry) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.submitInquiry");
+        try (timer) {
+            return inquiryIntake.submit(inquiry).thenApply(stored -> {
+                agentPerformanceRollup.inquiryCreated(stored);
+                return stored;
+            });
+        }
+    }
+    
+    /**
+     * Mark an inquiry as responded
+     * @param inquiryId Inquiry ID
+     * @return Responded inquiry if it was still new
+     */
+    public Optional<Inquiry> respondToInquiry(int inquiryId) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.respondToInquiry");
+        try (timer) {
+            Optional<Inquiry> responded = inquiryDAO.markResponded(inquiryId);
+            responded.ifPresent(agentPerformanceRollup::inquiryResponded);
+            return responded;
+        }
+    }
+    
+    /**
+     * Get inquiry intake statistics
+     * @return Queue depth, throughput and batch statistics
+     */
+    public InquiryIntake.IntakeStats getInquiryIntakeStats() {
+        return inquiryIntake.getStats();
     }
     
     // ==================== BUSINESS INTELLIGENCE ====================
     
+    /**
+     * Get an agent's monthly performance
+     * @param agentId Agent ID
+     * @return Monthly performance rows, newest month first
+     */
+    public List<AgentPerformance> getAgentPerformance(int agentId) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getAgentPerformance(int)");
+        try (timer) {
+            agentPerformanceRollup.flush();
+            return agentPerformanceDAO.findByAgent(agentId);
+        }
+    }
+    
+    /**
+     * Recompute all agent performance rollups from inquiries and offers
+     * @param parallelism Number of agents rebuilt concurrently
+     * @return Number of agents rebuilt
+     */
+    public int rebuildAgentPerformance(int parallelism) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.rebuildAgentPerformance");
+        try (timer) {
+            return agentPerformanceRollup.rebuildAll(parallelism);
+        }
+    }
+    
+    /**
+     * Load the active listing, facet, price and full-text indexes from one pass
+     * over the Property table. Call once after startup; otherwise each index
+     * reads the whole table on its first query.
+     * @return Number of properties read
+     */
+    public long loadIndexes() {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.loadIndexes");
+        try (timer) {
+            return IndexLoader.loadAll(propertyDAO,
+                    Arrays.asList(activeListingIndex, facetIndex, priceIndex, propertyTextIndex));
+        }
+    }
+    
+    /**
+     * Reload the full-text search index from the database
+     * @param parallelism Number of analyzer threads
+     * @return Number of indexed properties
+     */
+    public int rebuildTextIndex(int parallelism) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.rebuildTextIndex");
+        try (timer) {
+            return propertyTextIndex.rebuild(parallelism);
+        }
+    }
+    
+    /**
+     * Get full-text search index statistics
+     * @return Index size and search latency
+     */
+    public PropertyTextIndex.IndexStats getTextIndexStats() {
+        return propertyTextIndex.getStats();
+    }
+    
+    /**
+     * Get agent performance rollup statistics
+     * @return Rollup statistics
+     */
+    public AgentPerformanceRollup.RollupStats getAgentPerformanceRollupStats() {
+        return agentPerformanceRollup.getStats();
+    }
+    
     /**
      * Get active listings by neighborhood and property type
      * @param neighborhood Neighborhood filter (optional)
@@ -218,23 +801,40 @@ public class PropertyPortalService {
      * @return List of matching properties
      */
     public List<Property> getActiveListingsByFilters(String neighborhood, Property.PropertyType propertyType) {
-        List<Property> activeListings = propertyDAO.findActiveListings();
-        
-        // Apply neighborhood filter
-        if (neighborhood != null && !neighborhood.trim().isEmpty()) {
-            activeListings = activeListings.stream()
-                    .filter(p -> p.getNeighborhood().equalsIgnoreCase(neighborhood))
-                    .toList();
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getActiveListingsByFilters");
+        try (timer) {
+            return activeListingIndex.find(neighborhood, propertyType);
         }
-        
-        // Apply property type filter
-        if (propertyType != null) {
-            activeListings = activeListings.stream()
-                    .filter(p -> p.getPropertyType() == propertyType)
-                    .toList();
+    }
+    
+    /**
+     * Count active listings by neighborhood and property type
+     * @param neighborhood Neighborhood filter (optional)
+     * @param propertyType Property type filter (optional)
+     * @return Number of matching properties
+     */
+    public int countActiveListingsByFilters(String neighborhood, Property.PropertyType propertyType) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.countActiveListingsByFilters");
+        try (timer) {
+            return activeListingIndex.count(neighborhood, propertyType);
+        }
+    }
+    
+    /**
+     * Get facet counts for the search UI: properties per neighborhood, type,
+     * status and price bucket. Each facet is counted against the other filters.
+     * @param neighborhood Neighborhood filter (optional)
+     * @param propertyType Property type filter (optional)
+     * @param status Status filter (optional); AVAILABLE for active listings
+     * @param priceBucket Price bucket index filter (optional)
+     * @return Facet counts
+     */
+    public FacetIndex.FacetCounts getFacetCounts(String neighborhood, Property.PropertyType propertyType,
+                                                 Property.PropertyStatus status, Integer priceBucket) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getFacetCounts");
+        try (timer) {
+            return facetIndex.count(neighborhood, propertyType, status, priceBucket);
         }
-        
-        return activeListings;
     }
     
     /**
@@ -242,7 +842,10 @@ public class PropertyPortalService {
      * @return Agency statistics
      */
     public AgencyDAO.AgencyStatistics getAgentPerformance() {
-        return agencyDAO.getStatistics();
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getAgentPerformance()");
+        try (timer) {
+            return agencyDAO.getStatistics();
+        }
     }
     
     /**
@@ -250,19 +853,10 @@ public class PropertyPortalService {
      * @return Average days on market
      */
     public double getAverageTimeOnMarket() {
-        List<Property> soldProperties = propertyDAO.findAll().stream()
-                .filter(p -> p.getStatus() == Property.PropertyStatus.SOLD && p.getSoldDate() != null)
-                .toList();
-        
-        if (soldProperties.isEmpty()) {
-            return 0.0;
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getAverageTimeOnMarket");
+        try (timer) {
+            return propertySnapshot.averageDaysOnMarket();
         }
-        
-        long totalDays = soldProperties.stream()
-                .mapToLong(p -> java.time.Duration.between(p.getListingDate(), p.getSoldDate()).toDays())
-                .sum();
-        
-        return (double) totalDays / soldProperties.size();
     }
     
     /**
@@ -271,24 +865,45 @@ public class PropertyPortalService {
      * @return Price statistics for region
      */
     public PropertyDAO.PropertyStatistics getPriceTrendAnalysis(String region) {
-        List<Property> regionProperties = propertyDAO.findAll().stream()
-                .filter(p -> p.getRegion().equalsIgnoreCase(region))
-                .toList();
-        
-        if (regionProperties.isEmpty()) {
-            return new PropertyDAO.PropertyStatistics(0, 0, 0, 0, 0, 0, 0);
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPriceTrendAnalysis(String)");
+        try (timer) {
+            return propertySnapshot.statistics(region, null);
+        }
+    }
+    
+    /**
+     * Get price trend analysis for one property type in a region
+     * @param region Region to analyze
+     * @param propertyType Property type to analyze
+     * @return Price statistics for the region and type
+     */
+    public PropertyDAO.PropertyStatistics getPriceTrendAnalysis(String region, Property.PropertyType propertyType) {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPriceTrendAnalysis(String,Property.PropertyType)");
+        try (timer) {
+            return propertySnapshot.statistics(region, propertyType);
+        }
+    }
+    
+    /**
+     * Get price trend analysis for every region in one pass
+     * @return Price statistics keyed by region
+     */
+    public Map<String, PropertyDAO.PropertyStatistics> getPriceTrendAnalysisByRegion() {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPriceTrendAnalysisByRegion");
+        try (timer) {
+            return propertySnapshot.statisticsByRegion();
+        }
+    }
+    
+    /**
+     * Get price trend analysis for every neighborhood in one pass
+     * @return Price statistics keyed by neighborhood
+     */
+    public Map<String, PropertyDAO.PropertyStatistics> getPriceTrendAnalysisByNeighborhood() {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPriceTrendAnalysisByNeighborhood");
+        try (timer) {
+            return propertySnapshot.statisticsByNeighborhood();
         }
-        
-        long totalPrice = regionProperties.stream().mapToLong(Property::getCurrentPrice).sum();
-        long avgPrice = totalPrice / regionProperties.size();
-        long minPrice = regionProperties.stream().mapToLong(Property::getCurrentPrice).min().orElse(0);
-        long maxPrice = regionProperties.stream().mapToLong(Property::getCurrentPrice).max().orElse(0);
-        
-        int available = (int) regionProperties.stream().filter(p -> p.getStatus() == Property.PropertyStatus.AVAILABLE).count();
-        int underOffer = (int) regionProperties.stream().filter(p -> p.getStatus() == Property.PropertyStatus.UNDER_OFFER).count();
-        int sold = (int) regionProperties.stream().filter(p -> p.getStatus() == Property.PropertyStatus.SOLD).count();
-        
-        return new PropertyDAO.PropertyStatistics(regionProperties.size(), available, underOffer, sold, avgPrice, minPrice, maxPrice);
     }
     
     /**
@@ -296,11 +911,85 @@ public class PropertyPortalService {
      * @return Property statistics
      */
     public PropertyDAO.PropertyStatistics getPropertyStatistics() {
-        return propertyDAO.getStatistics();
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.getPropertyStatistics");
+        try (timer) {
+            return propertySnapshot.statistics(null, null);
+        }
+    }
+    
+    /**
+     * Reload the in-memory analytics snapshot from the database
+     * @return Number of properties in the snapshot
+     */
+    public int rebuildAnalyticsSnapshot() {
+        Metrics.Timer timer = Metrics.start(Metrics.SERVICE, "PropertyPortalService.rebuildAnalyticsSnapshot");
+        try (timer) {
+            return propertySnapshot.rebuild();
+        }
+    }
+    
+    /**
+     * Get property detail cache statistics
+     * @return Cache hit ratio, evictions and load latency
+     */
+    public PropertyCache.CacheStats getPropertyCacheStats() {
+        return propertyCache.getStats();
+    }
+    
+    /**
+     * Get search result cache statistics
+     * @return Cache hit ratio, evictions and invalidations
+     */
+    public QueryResultCache.QueryCacheStats getQueryCacheStats() {
+        return queryResultCache.getStats();
+    }
+    
+    /**
+     * Get statistics for the poller that applies other nodes' writes to the caches
+     * @return Poll counts, published changes and watermarks; all zero if polling is off
+     */
+    public PropertyChangePoller.PollerStats getChangePollerStats() {
+        if (changePoller == null) {
+            return new PropertyChangePoller.PollerStats(0, 0, 0, 0, 0, null, null);
+        }
+        return changePoller.getStats();
+    }
+    
+    /**
+     * Get per-operation latency, error, row and connection-acquire metrics
+     * @return Metrics in Prometheus text exposition format
+     */
+    public String getMetricsText() {
+        return Metrics.prometheusText();
+    }
+    
+    /**
+     * Get the most recent statements that exceeded the slow-query threshold
+     * @return Slow queries with redacted parameters and captured plans, oldest first
+     */
+    public List<SlowQueryLog.SlowQuery> getRecentSlowQueries() {
+        SlowQueryLog slowQueryLog = DatabaseConnection.getPool().getSlowQueryLog();
+        return slowQueryLog == null ? new ArrayList<>() : slowQueryLog.getRecentSlowQueries();
     }
     
     // ==================== UTILITY METHODS ====================
     
+    /**
+     * Flush queued writes and stop background workers
+     * @param timeout Maximum time to wait for queued writes
+     * @return true if everything queued was written
+     */
+    public boolean shutdown(Duration timeout) {
+        if (changePoller != null) {
+            changePoller.shutdown();
+        }
+        boolean inquiriesWritten = inquiryIntake.shutdown(timeout);
+        boolean rollupFlushed = agentPerformanceRollup.shutdown();
+        boolean historyWritten = priceHistoryRecorder.shutdown(timeout);
+        boolean snapshotWritten = propertySnapshot.close();
+        return inquiriesWritten && rollupFlushed && historyWritten && snapshotWritten;
+    }
+    
     /**
      * Get all property types
      * @return Array of property types
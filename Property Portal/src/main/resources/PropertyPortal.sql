@@ -1,7 +1,7 @@
 create database if not exists propertyPortal;
 use propertyPortal;
 
-drop table if exists propertyPriceHistory, Offer, Inquiry, propertyFeature, Feature, propertyAgent, Property, Buyer, Agent, Agency;
+drop table if exists propertyTombstone, propertyPriceHistory, Offer, Inquiry, propertyFeature, Feature, propertyAgent, Property, Buyer, Agent, Agency;
 
 -- Agency Table(3NF)
 create table Agency (
@@ -65,11 +65,18 @@ create table propertyPriceHistory (
     price bigint not null,
     changedAt datetime not null default current_timestamp,
     priceType enum('listing', 'updated', 'sold') not null,
-    changedBy int not null,
+    changedBy int null,
     foreign key(propertyId) references Property(id) on delete cascade,
     foreign key(changedBy) references Agent(id) on delete restrict
 );
 
+-- Deleted Property IDs, read by other nodes' change pollers
+create table propertyTombstone (
+    id bigint auto_increment primary key,
+    propertyId int not null,
+    deletedAt datetime not null default current_timestamp
+);
+
 -- Property X Agent(3NF)
 create table propertyAgent (
 	propertyId int not null,
@@ -144,7 +151,8 @@ create table AgentPerformance (
     monthYear date not null,
     totalInquiries int default 0,
     respondedInquiries int default 0,
-    avgResponseTimeMinutes int default 0,
+    totalResponseMinutes bigint default 0,
+    avgResponseTimeMinutes int as (if(respondedInquiries = 0, 0, round(totalResponseMinutes / respondedInquiries))) stored,
     closedDeals int default 0,
     totalRevenue bigint default 0,
     createdAt datetime default current_timestamp,
@@ -165,12 +173,17 @@ create index idxPropertyStatusListingDate on Property(status, listingDate);
 create index idxPropertyNeighborhoodStatus on Property(neighborhood, status);
 create index idxPropertyRegionType on Property(region, propertyType);
 create index idxPropertyDaysOnMarket on Property(daysOnMarket);
+create index idxPropertyPrice on Property(currentPrice);
+create index idxPropertyUpdatedAt on Property(updatedAt);
 
 -- Price history queries
 create index idxPriceHistoryProperty on propertyPriceHistory(propertyId);
 create index idxPriceHistoryDate on propertyPriceHistory(changedAt);
 create index idxPriceHistoryType on propertyPriceHistory(priceType);
 
+-- Change capture queries
+create index idxPropertyTombstoneDeletedAt on propertyTombstone(deletedAt, id);
+
 -- Agent performance queries
 create index idxPropertyAgentAgent on propertyAgent(agentId);
 create index idxPropertyAgentProperty on propertyAgent(propertyId);
@@ -0,0 +1,174 @@
+package com.propertyportal.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdBitmapTest {
+
+    // Keys array of a bitmap with at most four chunks
+    private static final long KEYS_BYTES = 4 * 2;
+    private static final long BITSET_BYTES = 8192;
+
+    @Test
+    void chunkBecomesBitsetAbove4096AndShrinksBackAt2048() {
+        IdBitmap bitmap = new IdBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        // Every 16th value fills one chunk with exactly 4096 IDs
+        for (int id = 0; id < 65536; id += 16) {
+            assertTrue(bitmap.add(id));
+            expected.add(id);
+        }
+        assertEquals(4096, bitmap.cardinality());
+        assertEquals(KEYS_BYTES + 4096 * 2, bitmap.sizeInBytes());
+
+        assertTrue(bitmap.add(1));
+        expected.add(1);
+        assertFalse(bitmap.add(1));
+        assertEquals(4097, bitmap.cardinality());
+        assertEquals(KEYS_BYTES + BITSET_BYTES, bitmap.sizeInBytes());
+        assertSameIds(expected, bitmap, 65536);
+
+        // Still a bitset down to 2049 IDs
+        while (expected.size() > 2049) {
+            int id = expected.pollLast();
+            assertTrue(bitmap.remove(id));
+        }
+        assertFalse(bitmap.remove(65535));
+        assertEquals(KEYS_BYTES + BITSET_BYTES, bitmap.sizeInBytes());
+        assertSameIds(expected, bitmap, 65536);
+
+        int id = expected.pollLast();
+        assertTrue(bitmap.remove(id));
+        assertEquals(2048, bitmap.cardinality());
+        assertEquals(KEYS_BYTES + 2048 * 2, bitmap.sizeInBytes());
+        assertSameIds(expected, bitmap, 65536);
+
+        // Growing the array again converts it back once it passes 4096
+        for (int value = 3; expected.size() <= 4096; value += 16) {
+            assertTrue(bitmap.add(value));
+            expected.add(value);
+        }
+        assertEquals(KEYS_BYTES + BITSET_BYTES, bitmap.sizeInBytes());
+        assertSameIds(expected, bitmap, 65536);
+    }
+
+    @Test
+    void chunksSplitByHighBitsAndDropWhenEmpty() {
+        IdBitmap bitmap = new IdBitmap();
+        int[] ids = {5, 65536 + 5, 3 * 65536, Integer.MAX_VALUE, 65535, 2 * 65536 + 7};
+        for (int id : ids) {
+            assertTrue(bitmap.add(id));
+        }
+        assertEquals(ids.length, bitmap.cardinality());
+        for (int id : ids) {
+            assertTrue(bitmap.contains(id));
+        }
+        assertFalse(bitmap.contains(6));
+        assertFalse(bitmap.contains(65536 + 6));
+        assertFalse(bitmap.contains(4 * 65536));
+
+        assertTrue(bitmap.remove(65536 + 5));
+        assertFalse(bitmap.contains(65536 + 5));
+        assertTrue(bitmap.contains(2 * 65536 + 7));
+        assertTrue(bitmap.contains(3 * 65536));
+
+        for (int id : ids) {
+            bitmap.remove(id);
+        }
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.cardinality());
+    }
+
+    @Test
+    void randomChangesMatchReferenceSet() {
+        Random random = new Random(42);
+        IdBitmap bitmap = new IdBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        int range = 3 * 65536;
+        for (int round = 0; round < 6; round++) {
+            // Alternate dense and sparse phases so chunks cross both thresholds repeatedly
+            boolean grow = round % 2 == 0;
+            for (int i = 0; i < 30_000; i++) {
+                int id = random.nextInt(range);
+                if (grow == (random.nextInt(4) != 0)) {
+                    assertEquals(expected.add(id), bitmap.add(id));
+                } else {
+                    Integer present = expected.ceiling(id);
+                    int removed = present != null ? present : id;
+                    assertEquals(expected.remove(removed), bitmap.remove(removed));
+                }
+            }
+            assertEquals(expected.size(), bitmap.cardinality());
+            assertSameIds(expected, bitmap, range);
+        }
+    }
+
+    @Test
+    void andMatchesReferenceForArrayAndBitsetChunks() {
+        Random random = new Random(7);
+        // Chunk 0: bitset and bitset, chunk 1: array and bitset, chunk 2: array and array,
+        // chunk 3: bitset and array, chunk 4 only on the left
+        int[][] densities = {{6000, 6000}, {300, 9000}, {2000, 1500}, {5000, 40}, {100, 0}};
+        IdBitmap left = new IdBitmap();
+        IdBitmap right = new IdBitmap();
+        TreeSet<Integer> leftIds = new TreeSet<>();
+        TreeSet<Integer> rightIds = new TreeSet<>();
+        for (int chunk = 0; chunk < densities.length; chunk++) {
+            fill(random, chunk, densities[chunk][0], left, leftIds);
+            fill(random, chunk, densities[chunk][1], right, rightIds);
+        }
+
+        TreeSet<Integer> expected = new TreeSet<>(leftIds);
+        expected.retainAll(rightIds);
+        IdBitmap both = left.and(right);
+        assertEquals(expected.size(), both.cardinality());
+        assertEquals(expected.size(), left.andCardinality(right));
+        assertEquals(expected.size(), right.andCardinality(left));
+        assertSameIds(expected, both, densities.length * 65536);
+        assertSameIds(expected, right.and(left), densities.length * 65536);
+    }
+
+    @Test
+    void sparseIntersectionOfBitsetsIsStoredAsArray() {
+        IdBitmap evens = new IdBitmap();
+        IdBitmap odds = new IdBitmap();
+        for (int id = 0; id < 20_000; id++) {
+            (id % 2 == 0 ? evens : odds).add(id);
+        }
+        // Overlap in 100 IDs only
+        for (int id = 1; id < 200; id += 2) {
+            evens.add(id);
+        }
+
+        IdBitmap both = evens.and(odds);
+        assertEquals(100, both.cardinality());
+        assertTrue(both.sizeInBytes() < BITSET_BYTES);
+        for (int id = 0; id < 20_000; id++) {
+            assertEquals(id < 200 && id % 2 == 1, both.contains(id));
+        }
+        assertTrue(evens.and(new IdBitmap()).isEmpty());
+    }
+
+    private static void fill(Random random, int chunk, int count, IdBitmap bitmap, TreeSet<Integer> ids) {
+        int added = 0;
+        while (added < count) {
+            int id = (chunk << 16) | random.nextInt(65536);
+            if (ids.add(id)) {
+                assertTrue(bitmap.add(id));
+                added++;
+            }
+        }
+    }
+
+    private static void assertSameIds(TreeSet<Integer> expected, IdBitmap bitmap, int range) {
+        for (int id = 0; id < range; id++) {
+            assertEquals(expected.contains(id), bitmap.contains(id), "id " + id);
+        }
+    }
+}
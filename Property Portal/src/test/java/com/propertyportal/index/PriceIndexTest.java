@@ -0,0 +1,223 @@
+package com.propertyportal.index;
+
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.model.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceIndexTest {
+
+    private static final Property.PropertyStatus[] STATUSES = Property.PropertyStatus.values();
+
+    private final Random random = new Random(1234);
+    // Reference model: property ID -> price and status
+    private final Map<Integer, Long> prices = new HashMap<>();
+    private final Map<Integer, Property.PropertyStatus> statuses = new HashMap<>();
+    private PriceIndex index;
+    private int nextId;
+
+    @BeforeEach
+    void setUp() {
+        index = new PriceIndex(new PropertyDAO());
+    }
+
+    @Test
+    void loadsUnsortedEntries() {
+        List<Property> properties = new ArrayList<>();
+        for (nextId = 1; nextId <= 5_000; nextId++) {
+            properties.add(property(nextId, randomPrice(), randomStatus()));
+        }
+        Collections.shuffle(properties, random);
+        load(properties);
+
+        assertEquals(5_000, index.size());
+        assertMatchesModel();
+    }
+
+    @Test
+    void countsAndPagesStayCorrectAcrossBlockSplitsAndMerges() {
+        List<Property> properties = new ArrayList<>();
+        for (nextId = 1; nextId <= 3_000; nextId++) {
+            properties.add(property(nextId, randomPrice(), randomStatus()));
+        }
+        load(properties);
+
+        // Thousands of inserts into one narrow price band split its block several times over
+        List<Integer> band = new ArrayList<>();
+        for (int i = 0; i < 6_000; i++) {
+            int id = nextId++;
+            long price = 500_000 + random.nextInt(50) * 100L;
+            create(id, price, randomStatus());
+            band.add(id);
+        }
+        assertEquals(9_000, index.size());
+        assertMatchesModel();
+
+        // Mixed updates move entries between blocks and status lists
+        for (int i = 0; i < 10_000; i++) {
+            int id = 1 + random.nextInt(nextId - 1);
+            switch (random.nextInt(4)) {
+                case 0:
+                    long price = randomPrice();
+                    index.priceChanged(id, price);
+                    if (prices.containsKey(id)) {
+                        prices.put(id, price);
+                    }
+                    break;
+                case 1:
+                    Property.PropertyStatus status = randomStatus();
+                    index.statusChanged(id, status);
+                    if (statuses.containsKey(id)) {
+                        statuses.put(id, status);
+                    }
+                    break;
+                case 2:
+                    create(nextId++, randomPrice(), randomStatus());
+                    break;
+                default:
+                    delete(id);
+            }
+        }
+        assertMatchesModel();
+
+        // Emptying the band merges its blocks away again
+        for (int id : band) {
+            delete(id);
+        }
+        assertEquals(countModel(500_000, 504_900, null), index.count(500_000, 504_900, null));
+        assertMatchesModel();
+    }
+
+    @Test
+    void pagesThroughEqualPricesById() {
+        List<Property> properties = new ArrayList<>();
+        for (nextId = 1; nextId <= 2_500; nextId++) {
+            properties.add(property(nextId, 250_000, Property.PropertyStatus.AVAILABLE));
+        }
+        Collections.shuffle(properties, random);
+        load(properties);
+
+        List<Integer> ids = new ArrayList<>();
+        Long afterPrice = null;
+        int afterId = 0;
+        while (true) {
+            List<Integer> page = index.page(0, Long.MAX_VALUE, Property.PropertyStatus.AVAILABLE, afterPrice, afterId, 333);
+            if (page.isEmpty()) {
+                break;
+            }
+            ids.addAll(page);
+            afterPrice = 250_000L;
+            afterId = page.get(page.size() - 1);
+        }
+        assertEquals(2_500, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i + 1, ids.get(i));
+        }
+        assertEquals(0, index.count(0, Long.MAX_VALUE, Property.PropertyStatus.SOLD));
+        assertTrue(index.page(0, 249_999, null, null, 0, 10).isEmpty());
+    }
+
+    private void load(List<Property> properties) {
+        SharedScanIndex.Load load = index.beginLoad();
+        for (Property property : properties) {
+            load.accept(property);
+            prices.put(property.getId(), property.getCurrentPrice());
+            statuses.put(property.getId(), property.getStatus());
+        }
+        load.finish();
+    }
+
+    private void create(int id, long price, Property.PropertyStatus status) {
+        index.propertyCreated(property(id, price, status));
+        prices.put(id, price);
+        statuses.put(id, status);
+    }
+
+    private void delete(int id) {
+        index.propertyDeleted(id);
+        prices.remove(id);
+        statuses.remove(id);
+    }
+
+    private void assertMatchesModel() {
+        for (int i = 0; i < 50; i++) {
+            long a = randomPrice();
+            long b = randomPrice();
+            long min = Math.min(a, b);
+            long max = Math.max(a, b);
+            Property.PropertyStatus status = random.nextInt(4) == 0 ? null : randomStatus();
+            assertEquals(countModel(min, max, status), index.count(min, max, status),
+                    "count " + min + ".." + max + " " + status);
+        }
+
+        for (Property.PropertyStatus status : new Property.PropertyStatus[] {null, Property.PropertyStatus.AVAILABLE}) {
+            long min = 200_000;
+            long max = 800_000;
+            List<Integer> expected = modelPage(min, max, status);
+            List<Integer> actual = new ArrayList<>();
+            Long afterPrice = null;
+            int afterId = 0;
+            while (true) {
+                List<Integer> page = index.page(min, max, status, afterPrice, afterId, 97);
+                if (page.isEmpty()) {
+                    break;
+                }
+                actual.addAll(page);
+                afterId = page.get(page.size() - 1);
+                afterPrice = prices.get(afterId);
+            }
+            assertEquals(expected, actual, "pages for " + status);
+        }
+    }
+
+    private int countModel(long min, long max, Property.PropertyStatus status) {
+        int count = 0;
+        for (Map.Entry<Integer, Long> entry : prices.entrySet()) {
+            if (entry.getValue() >= min && entry.getValue() <= max
+                    && (status == null || statuses.get(entry.getKey()) == status)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<Integer> modelPage(long min, long max, Property.PropertyStatus status) {
+        List<Integer> ids = new ArrayList<>();
+        for (Map.Entry<Integer, Long> entry : prices.entrySet()) {
+            if (entry.getValue() >= min && entry.getValue() <= max
+                    && (status == null || statuses.get(entry.getKey()) == status)) {
+                ids.add(entry.getKey());
+            }
+        }
+        ids.sort(Comparator.<Integer>comparingLong(prices::get).thenComparingInt(id -> id));
+        return ids;
+    }
+
+    private long randomPrice() {
+        // Whole thousands, so equal prices are common and ties are ordered by ID
+        return 100_000 + random.nextInt(900) * 1_000L;
+    }
+
+    private Property.PropertyStatus randomStatus() {
+        return STATUSES[random.nextInt(STATUSES.length)];
+    }
+
+    private static Property property(int id, long price, Property.PropertyStatus status) {
+        Property property = new Property();
+        property.setId(id);
+        property.setCurrentPrice(price);
+        property.setStatus(status);
+        return property;
+    }
+}
@@ -0,0 +1,133 @@
+package com.propertyportal.index;
+
+import com.propertyportal.dao.PropertyDAO;
+import com.propertyportal.model.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PropertyTextIndexTest {
+
+    private static final int DOCUMENTS = 1_200;
+    private static final int TITLE_WORDS = 300;
+
+    private PropertyTextIndex index;
+    // Reference model: property ID -> term ("alpha" or "beta") and its frequency in the title
+    private final Map<Integer, String> terms = new TreeMap<>();
+    private final Map<Integer, Integer> frequencies = new TreeMap<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new PropertyTextIndex(new PropertyDAO());
+        SharedScanIndex.Load load = index.beginLoad();
+        for (int id = 1; id <= DOCUMENTS; id++) {
+            // Frequencies up to 300, and the gap between the two "rare" documents, need multi-byte varints
+            load.accept(document(id, id % 3 == 0 ? "alpha" : "beta", 1 + id % TITLE_WORDS, id == 1 || id == 1_151));
+        }
+        load.finish();
+    }
+
+    @Test
+    void ranksByTermFrequency() {
+        assertEquals(DOCUMENTS, index.getStats().getDocuments());
+        assertSearchMatchesModel();
+        assertEquals(Arrays.asList(1_151, 1), ids(index.search("rare", 10)));
+        assertTrue(index.search("missing", 10).isEmpty());
+        assertTrue(index.search("+alpha +beta", 10).isEmpty());
+    }
+
+    @Test
+    void postingsSurviveCompaction() {
+        // Each replacement leaves a dead document behind, stopping just short of the compaction threshold
+        int replaced = 0;
+        for (int id = 2; replaced < DOCUMENTS / 4 - 10; id += 4) {
+            String term = id % 3 == 0 ? "beta" : "alpha";
+            index.propertyUpdated(document(id, term, 1 + (id * 7) % TITLE_WORDS, false));
+            replaced++;
+        }
+        assertEquals(0, index.getStats().getCompactions());
+        assertEquals(DOCUMENTS / 4 - 10, index.getStats().getDeadDocuments());
+        assertSearchMatchesModel();
+
+        // Deletes push the dead documents past a quarter of the segment
+        for (int id = 5; index.getStats().getCompactions() == 0; id += 12) {
+            index.propertyDeleted(id);
+            terms.remove(id);
+            frequencies.remove(id);
+        }
+        PropertyTextIndex.IndexStats stats = index.getStats();
+        assertEquals(1, stats.getCompactions());
+        assertEquals(0, stats.getDeadDocuments());
+        assertEquals(terms.size(), stats.getDocuments());
+        assertSearchMatchesModel();
+        assertEquals(Arrays.asList(1_151, 1), ids(index.search("rare", 10)));
+
+        // The compacted segment keeps taking updates
+        index.propertyCreated(document(DOCUMENTS + 1, "alpha", TITLE_WORDS, false));
+        index.propertyDeleted(3);
+        terms.remove(3);
+        frequencies.remove(3);
+        assertSearchMatchesModel();
+        assertEquals(DOCUMENTS + 1, index.search("alpha", 1).get(0).getPropertyId());
+    }
+
+    private void assertSearchMatchesModel() {
+        assertEquals(model("alpha"), ids(index.search("alpha", DOCUMENTS * 2)));
+        assertEquals(model("beta"), ids(index.search("beta", DOCUMENTS * 2)));
+        // Every document has "gamma", so requiring it or excluding the other term changes nothing
+        assertEquals(model("alpha"), ids(index.search("+gamma alpha -beta", DOCUMENTS * 2)));
+        assertEquals(model("beta"), ids(index.search("beta -alpha", DOCUMENTS * 2)));
+        assertEquals(model("beta").subList(0, 10), ids(index.search("+beta", 10)));
+    }
+
+    /**
+     * Expected hits for one term: higher frequency first, then the newer (higher) ID
+     */
+    private List<Integer> model(String term) {
+        List<Integer> ids = new ArrayList<>();
+        for (Map.Entry<Integer, String> entry : terms.entrySet()) {
+            if (entry.getValue().equals(term)) {
+                ids.add(entry.getKey());
+            }
+        }
+        ids.sort(Comparator.<Integer>comparingInt(frequencies::get).thenComparingInt(id -> id).reversed());
+        return ids;
+    }
+
+    private Property document(int id, String term, int frequency, boolean rare) {
+        terms.put(id, term);
+        frequencies.put(id, frequency);
+        // Every title has the same length, so frequency alone decides the ranking
+        List<String> words = new ArrayList<>(Collections.nCopies(frequency, term));
+        while (words.size() < TITLE_WORDS) {
+            words.add(rare && words.size() == TITLE_WORDS - 1 ? "rare" : "filler");
+        }
+        Property property = new Property();
+        property.setId(id);
+        property.setTitle(String.join(" ", words));
+        property.setDescription("gamma");
+        property.setNeighborhood("Downtown");
+        property.setRegion("North");
+        property.setCurrentPrice(300_000);
+        property.setStatus(Property.PropertyStatus.AVAILABLE);
+        return property;
+    }
+
+    private static List<Integer> ids(List<PropertyTextIndex.Hit> hits) {
+        List<Integer> ids = new ArrayList<>();
+        for (PropertyTextIndex.Hit hit : hits) {
+            ids.add(hit.getPropertyId());
+        }
+        return ids;
+    }
+}